@@ -49,10 +49,10 @@ public class AddAnimalButton extends Button {
       // Add corresponding animal to PApplet
       switch (type) {
         case "tiger":
-          processing.listGUI.add(new Tiger(processing));
+          processing.world.add(new Tiger(processing));
           break;
         case "deer":
-          processing.listGUI.add(new Deer(processing));
+          processing.world.add(new Deer(processing));
           break;
       }
     }
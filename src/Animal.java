@@ -15,7 +15,8 @@
 //
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 
 /**
  * This class represents an animal in the Jungle Park application. It implements the interface
@@ -25,17 +26,53 @@ import java.util.Random;
  */
 public class Animal implements ParkGUI {
 
-  private static Random randGen = new Random(); // Generator of random numbers
+  // Text of the numbers displayed above the animals, created once so that drawing them does not
+  // allocate a String each frame
+  private static final String[] NUMBER_LABELS = new String[1000];
+  // Squared distance added to the animals eaten earlier in the tick by unrolledGradient(), so that
+  // their masked contribution is 0 even when they lie under the animal, e.g. under their tiger:
+  private static final double DEAD_DISTANCE_SQUARED = 1e30;
   protected String label; // represents the animal's identifier
+  protected JungleWorld world; // world the animal lives in
   // Fields defined to draw the animal in the application display window
-  protected JunglePark processing; // PApplet object that represents the display window
-  protected PImage image; // animal's image
-
-  private float[] position; // animal's position in the display window
-                            // Usage: position[0: x-coordinate, or 1: y-coordinate]
+  protected JunglePark processing; // PApplet object that represents the display window, or null
+                                   // if the animal lives in a headless world
+  protected PImage image; // animal's image, or null if the animal lives in a headless world
+
+  // The animal is a view of a slot of a population of its world once it has been added to it.
+  // Until then, and once it has been removed, its position is kept in the object itself.
+  protected Population population; // population viewed by the animal, or null if detached
+  protected int slot; // slot of the animal in its population, or -1 if detached
+  private float positionX; // x-coordinate of the animal while it is detached
+  private float positionY; // y-coordinate of the animal while it is detached
   private boolean isDragging; // indicates whether the animal is being dragged or not
 
 
+  /**
+   * Creates a new Animal object positioned at a given position of a headless world
+   * 
+   * @param world     world the animal lives in
+   * @param positionX x-coordinate of the animal in the world
+   * @param positionY y-coordinate of the animal in the world
+   */
+  public Animal(JungleWorld world, float positionX, float positionY) {
+    this.world = world; // set the world the animal moves in
+    this.slot = -1; // the animal is not part of its world until it is added to it
+    this.positionX = positionX; // sets the position of the animal object
+    this.positionY = positionY;
+    isDragging = false; // initially the animal is not dragging
+  }
+
+  /**
+   * Creates a new Animal object positioned at a random position of a headless world, drawn from the
+   * world's generator of random numbers
+   * 
+   * @param world world the animal lives in
+   */
+  public Animal(JungleWorld world) {
+    this(world, world.randomX(), world.randomY());
+  }
+
   /**
    * Creates a new Animal object positioned at a given position of the display window
    * 
@@ -45,58 +82,53 @@ public class Animal implements ParkGUI {
    * @param imageFileName filename of the animal image
    */
   public Animal(JunglePark processing, float positionX, float positionY, String imageFileName) {
-
+    this(processing.world, positionX, positionY);
     // Set Animal drawing parameters
     this.processing = processing; // set the PApplet Object where the animal will be drawn
-    this.position = new float[] {positionX, positionY}; // sets the position of the animal
-                                                        // object
-    this.image = processing.loadImage(imageFileName);
-    isDragging = false; // initially the animal is not dragging
+    this.image = processing.images.get(imageFileName); // shared by every animal of the species
   }
 
   /**
-   * Creates a new Animal object positioned at a random position of the display window
+   * Creates a new Animal object positioned at a random position of the display window, drawn from
+   * the generator of random numbers of the displayed world
    * 
    * @param processing    PApplet object that represents the display window
    * @param imageFileName filename of the animal image
    */
   public Animal(JunglePark processing, String imageFileName) {
-    this(processing, (float) randGen.nextInt(processing.width),
-        Math.max((float) randGen.nextInt(processing.height), 100), imageFileName);
+    this(processing, processing.world.randomX(), processing.world.randomY(), imageFileName);
   }
 
   /**
    * Draws the animal to the display window. It sets also its position to the mouse position if the
-   * tiger is being dragged (i.e. if its isDragging field is set to true).
+   * tiger is being dragged (i.e. if its isDragging field is set to true). Movement is not performed
+   * here: the world advances the animal in JungleWorld.tick().
    */
   @Override
   public void draw() {
+    followMouse();
+    // draw the animals at its current position, interpolated between the last two ticks, where
+    // the camera shows it
+    this.processing.image(this.image, this.getScreenX(), getScreenY());
+    // display label
+    displayLabel();
+  }
+
+  /**
+   * Sets the position of the animal to the point of the world under the mouse if it is being
+   * dragged, keeping it within the display window
+   */
+  protected void followMouse() {
     // if the tiger is dragging, set its position to the mouse position with respect to the display
-    // window (processing) dimension
+    // window (processing) dimension, mapped to the world by the camera
     if (this.isDragging) {
-      if (this.processing.mouseX < 0) {// mouse moves to left of screen
-        this.position[0] = 0; // set x position to far left position
-      } // mouse moves to right of the screen
-      else if (this.processing.mouseX > this.processing.width) {
-        this.position[0] = this.processing.width; // set x position to far right position
-      } else {
-        this.position[0] = this.processing.mouseX; // set x position to x position of mouse
-      }
-
-      if (this.processing.mouseY < 0) {// mouse moves beneath the screen
-        this.position[1] = 0; // set y position to bottom position
-      } else if (this.processing.mouseY > this.processing.height) {// mouse moves above the screen
-        this.position[1] = this.processing.height; // set position to top position
-      } else {
-        this.position[1] = this.processing.mouseY; // set y position to y position of mouse
-      }
+      Camera camera = this.processing.camera;
+      // keep the mouse position within the display window
+      float mouseX = Math.max(0, Math.min(this.processing.mouseX, this.processing.width));
+      float mouseY = Math.max(0, Math.min(this.processing.mouseY, this.processing.height));
+      this.setPositionX(camera.worldX(mouseX)); // set x position to x position of mouse
+      this.setPositionY(camera.worldY(mouseY)); // set y position to y position of mouse
     }
-
-    // draw the animals at its current position
-    this.processing.image(this.image, this.position[0], position[1]);
-    // display label
-    displayLabel();
-    this.action();
   }
 
 
@@ -106,7 +138,7 @@ public class Animal implements ParkGUI {
   private void displayLabel() {
     this.processing.fill(0); // specify font color: black
     // display label text
-    this.processing.text(label, this.position[0], this.position[1] + this.image.height / 2 + 4);
+    this.processing.text(label, this.getScreenX(), this.getScreenY() + this.image.height / 2 + 4);
   }
 
   /**
@@ -119,12 +151,14 @@ public class Animal implements ParkGUI {
   public boolean isMouseOver() {
     int animalWidth = image.width; // image width
     int animalHeight = image.height; // image height
+    float positionX = getScreenX(); // where the animal is seen
+    float positionY = getScreenY();
 
     // checks if the mouse is over the animal
-    if (processing.mouseX > position[0] - animalWidth / 2
-        && processing.mouseX < position[0] + animalWidth / 2
-        && processing.mouseY > position[1] - animalHeight / 2
-        && processing.mouseY < position[1] + animalHeight / 2) {
+    if (processing.mouseX > positionX - animalWidth / 2
+        && processing.mouseX < positionX + animalWidth / 2
+        && processing.mouseY > positionY - animalHeight / 2
+        && processing.mouseY < positionY + animalHeight / 2) {
       return true;
     }
     return false;
@@ -147,6 +181,22 @@ public class Animal implements ParkGUI {
     isDragging = false;
   }
 
+  /**
+   * Gets the text of a number displayed above an animal, without allocating for small numbers
+   * 
+   * @param number non-negative number to be displayed
+   * @return the decimal text of the number
+   */
+  protected static String numberLabel(int number) {
+    if (number < 0 || number >= NUMBER_LABELS.length) {
+      return Integer.toString(number);
+    }
+    if (NUMBER_LABELS[number] == null) {
+      NUMBER_LABELS[number] = Integer.toString(number);
+    }
+    return NUMBER_LABELS[number];
+  }
+
   /**
    * Getter for label
    * 
@@ -173,7 +223,7 @@ public class Animal implements ParkGUI {
    * @return the X coordinate of the animal position
    */
   public float getPositionX() {
-    return position[0];
+    return slot >= 0 ? population.x.get(slot) : positionX;
   }
 
   /**
@@ -182,9 +232,55 @@ public class Animal implements ParkGUI {
    * @return the Y coordinate of the animal position
    */
   public float getPositionY() {
-    return position[1];
+    return slot >= 0 ? population.y.get(slot) : positionY;
+  }
+
+  /**
+   * Computes the x-coordinate of the world the animal is drawn at: its position interpolated
+   * between the last two ticks of its world, as far as the display window's clock is between them.
+   * Detached and dragged animals are drawn at their position.
+   * 
+   * @return the X coordinate of the animal in the world
+   */
+  protected float getDrawX() {
+    if (slot < 0 || isDragging || processing == null) {
+      return getPositionX();
+    }
+    return population.interpolateX(slot, processing.getInterpolation(), world.WIDTH);
+  }
+
+  /**
+   * Computes the y-coordinate of the world the animal is drawn at: its position interpolated
+   * between the last two ticks of its world, see getDrawX()
+   * 
+   * @return the Y coordinate of the animal in the world
+   */
+  protected float getDrawY() {
+    if (slot < 0 || isDragging || processing == null) {
+      return getPositionY();
+    }
+    return population.interpolateY(slot, processing.getInterpolation(), world.HEIGHT);
   }
 
+  /**
+   * Computes the x-coordinate the animal is drawn at in the display window, see getDrawX() and
+   * Camera.screenX()
+   * 
+   * @return the X coordinate of the animal in pixels
+   */
+  protected float getScreenX() {
+    return processing.camera.screenX(getDrawX());
+  }
+
+  /**
+   * Computes the y-coordinate the animal is drawn at in the display window, see getDrawY() and
+   * Camera.screenY()
+   * 
+   * @return the Y coordinate of the animal in pixels
+   */
+  protected float getScreenY() {
+    return processing.camera.screenY(getDrawY());
+  }
 
   /**
    * Setter for x position
@@ -192,7 +288,12 @@ public class Animal implements ParkGUI {
    * @param position the XPosition to set
    */
   public void setPositionX(float position) {
-    this.position[0] = position;
+    if (slot >= 0) {
+      population.x.put(slot, position);
+      population.prevX.put(slot, position); // teleported, not interpolated
+    } else {
+      this.positionX = position;
+    }
   }
 
   /**
@@ -201,7 +302,12 @@ public class Animal implements ParkGUI {
    * @param position the YPosition to set
    */
   public void setPositionY(float position) {
-    this.position[1] = position;
+    if (slot >= 0) {
+      population.y.put(slot, position);
+      population.prevY.put(slot, position); // teleported, not interpolated
+    } else {
+      this.positionY = position;
+    }
   }
 
   /**
@@ -211,8 +317,41 @@ public class Animal implements ParkGUI {
    * @param deltaY change in y position
    */
   public void changePosition(double deltaX, double deltaY) {
-    this.position[0] += deltaX;
-    this.position[1] += deltaY;
+    setPositionX((float) (getPositionX() + deltaX));
+    setPositionY((float) (getPositionY() + deltaY));
+  }
+
+  /**
+   * Makes the animal a view of a slot of a population. Its state is copied into the slot.
+   * 
+   * @param population population the animal is added to
+   * @param slot       slot of the animal in the population
+   */
+  protected void attach(Population population, int slot) {
+    population.x.put(slot, positionX);
+    population.y.put(slot, positionY);
+    this.population = population;
+    this.slot = slot;
+  }
+
+  /**
+   * Detaches the animal from its population when it is removed from it. Its state is copied back
+   * from its slot.
+   */
+  protected void detach() {
+    positionX = population.x.get(slot);
+    positionY = population.y.get(slot);
+    this.population = null;
+    this.slot = -1;
+  }
+
+  /**
+   * Determines if the animal is currently a view of a slot of its world
+   * 
+   * @return true if the animal has been added to its world and not removed since
+   */
+  public boolean isAttached() {
+    return slot >= 0;
   }
 
   /**
@@ -234,17 +373,33 @@ public class Animal implements ParkGUI {
    * @return distance between the current animal and otherAnimal
    */
   public double distanceSquared(Animal otherAnimal) {
+    return distanceSquared(world, this.getPositionX(), this.getPositionY(),
+        otherAnimal.getPositionX(), otherAnimal.getPositionY());
+  }
+
+  /**
+   * Computes the distance squared between two positions of a world, wrapping around its edges
+   * 
+   * @param world  world the positions are in
+   * @param x      x-coordinate of the first position
+   * @param y      y-coordinate of the first position
+   * @param otherX x-coordinate of the second position
+   * @param otherY y-coordinate of the second position
+   * @return distance squared between the two positions
+   */
+  public static double distanceSquared(JungleWorld world, float x, float y, float otherX,
+      float otherY) {
     // Computes standard x distance
-    double xDistance = Math.abs(this.getPositionX() - otherAnimal.getPositionX());
+    double xDistance = Math.abs(x - otherX);
     // Adjust distance if necessary:
-    if (xDistance > processing.WIDTH / 2) {
-      xDistance = processing.WIDTH - xDistance;
+    if (xDistance > world.WIDTH / 2) {
+      xDistance = world.WIDTH - xDistance;
     }
     // Computes standard y distance
-    double yDistance = Math.abs(this.getPositionY() - otherAnimal.getPositionY());
+    double yDistance = Math.abs(y - otherY);
     // Adjust distance if necessary
-    if (yDistance > processing.HEIGHT / 2) {
-      yDistance = processing.HEIGHT - yDistance;
+    if (yDistance > world.HEIGHT / 2) {
+      yDistance = world.HEIGHT - yDistance;
     }
     // Returns squared distance:
     return Math.pow(xDistance, 2) + Math.pow(yDistance, 2);
@@ -261,17 +416,36 @@ public class Animal implements ParkGUI {
    * @return signed distance in x direction
    */
   public double xComponent(Animal otherAnimal, double exp) {
+    return xComponent(world, this.getPositionX(), this.getPositionY(),
+        otherAnimal.getPositionX(), otherAnimal.getPositionY(), exp);
+  }
+
+  /**
+   * Computes the x component of the partial derivative of the objective function between two
+   * positions of a world. See xComponent(Animal, double).
+   * 
+   * @param world  world the positions are in
+   * @param x      x-coordinate of the animal
+   * @param y      y-coordinate of the animal
+   * @param otherX x-coordinate of the other animal
+   * @param otherY y-coordinate of the other animal
+   * @param exp    exponent distance function is taken to in objective function
+   * @return signed distance in x direction
+   */
+  public static double xComponent(JungleWorld world, float x, float y, float otherX, float otherY,
+      double exp) {
     // Computes standard signed x distance
-    double xDistanceSigned = this.getPositionX() - otherAnimal.getPositionX();
-    if (Math.abs(xDistanceSigned) > processing.WIDTH / 2) { // If distance must be adjusted
+    double xDistanceSigned = x - otherX;
+    if (Math.abs(xDistanceSigned) > world.WIDTH / 2) { // If distance must be adjusted
       // Adjust appropriately:
       if (xDistanceSigned < 0) {
-        xDistanceSigned += processing.WIDTH;
+        xDistanceSigned += world.WIDTH;
       } else {
-        xDistanceSigned -= processing.WIDTH;
+        xDistanceSigned -= world.WIDTH;
       }
     }
-    return exp * Math.pow(this.distanceSquared(otherAnimal), exp / 2 - 1) * xDistanceSigned;
+    return exp * Math.pow(distanceSquared(world, x, y, otherX, otherY), exp / 2 - 1)
+        * xDistanceSigned;
   }
 
   /**
@@ -285,35 +459,297 @@ public class Animal implements ParkGUI {
    * @return signed distance in y direction
    */
   public double yComponent(Animal otherAnimal, double exp) {
+    return yComponent(world, this.getPositionX(), this.getPositionY(),
+        otherAnimal.getPositionX(), otherAnimal.getPositionY(), exp);
+  }
+
+  /**
+   * Computes the y component of the partial derivative of the objective function between two
+   * positions of a world. See yComponent(Animal, double).
+   * 
+   * @param world  world the positions are in
+   * @param x      x-coordinate of the animal
+   * @param y      y-coordinate of the animal
+   * @param otherX x-coordinate of the other animal
+   * @param otherY y-coordinate of the other animal
+   * @param exp    exponent distance function is taken to in objective function
+   * @return signed distance in y direction
+   */
+  public static double yComponent(JungleWorld world, float x, float y, float otherX, float otherY,
+      double exp) {
     // Computes standard signed y distance
-    double yDistanceSigned = this.getPositionY() - otherAnimal.getPositionY();
-    if (Math.abs(yDistanceSigned) > processing.HEIGHT / 2) { // If distance must be adjusted
+    double yDistanceSigned = y - otherY;
+    if (Math.abs(yDistanceSigned) > world.HEIGHT / 2) { // If distance must be adjusted
       // Adjust appropriately:
       if (yDistanceSigned < 0) {
-        yDistanceSigned += processing.HEIGHT;
+        yDistanceSigned += world.HEIGHT;
       } else {
-        yDistanceSigned -= processing.HEIGHT;
+        yDistanceSigned -= world.HEIGHT;
+      }
+    }
+    return exp * Math.pow(distanceSquared(world, x, y, otherX, otherY), exp / 2 - 1)
+        * yDistanceSigned;
+  }
+
+  /**
+   * Computes the factor a * d^(a - 2) by which the signed distances are multiplied to obtain the
+   * partial derivatives of d^a, specializing the common exponent -2 to a reciprocal
+   * 
+   * @param distanceSquared squared distance d^2
+   * @param exp             exponent a distance function is taken to in objective function
+   * @return the factor applied to both signed distances
+   */
+  public static double componentFactor(double distanceSquared, double exp) {
+    if (exp == -2.0) {
+      return -2.0 / (distanceSquared * distanceSquared);
+    }
+    return exp * Math.pow(distanceSquared, exp / 2 - 1);
+  }
+
+  /**
+   * Computes both partial derivatives of the objective function $\sum d^a(position, other)$ over
+   * the living animals of a population in a single pass. Equivalent to summing xComponent() and
+   * yComponent() over them, but computes each wrapped signed distance once and avoids Math.pow when
+   * a = -2.
+   * 
+   * @param world    world the animals are in
+   * @param x        x-coordinate of the animal whose gradient is computed
+   * @param y        y-coordinate of the animal whose gradient is computed
+   * @param others   animals the objective function is summed over
+   * @param exp      exponent distance function is taken to in objective function
+   * @param gradient array the x and y partial derivatives are stored in
+   * @return the number of pair interactions evaluated, i.e. of living animals summed over
+   */
+  public static int fusedGradient(JungleWorld world, float x, float y, Population others,
+      double exp, double[] gradient) {
+    int width = world.WIDTH;
+    int height = world.HEIGHT;
+    int halfWidth = width / 2;
+    int halfHeight = height / 2;
+    FloatBuffer otherX = others.x;
+    FloatBuffer otherY = others.y;
+    ByteBuffer alive = others.alive;
+    double xSum = 0;
+    double ySum = 0;
+    int interactions = 0;
+    for (int i = 0; i < others.size; ++i) {
+      if (alive.get(i) == 0) {
+        continue; // eaten earlier this tick
+      }
+      ++interactions;
+      double xDistanceSigned = x - otherX.get(i);
+      if (Math.abs(xDistanceSigned) > halfWidth) {
+        xDistanceSigned += xDistanceSigned < 0 ? width : -width;
+      }
+      double yDistanceSigned = y - otherY.get(i);
+      if (Math.abs(yDistanceSigned) > halfHeight) {
+        yDistanceSigned += yDistanceSigned < 0 ? height : -height;
+      }
+      double factor = componentFactor(
+          xDistanceSigned * xDistanceSigned + yDistanceSigned * yDistanceSigned, exp);
+      xSum += factor * xDistanceSigned;
+      ySum += factor * yDistanceSigned;
+    }
+    gradient[0] = xSum;
+    gradient[1] = ySum;
+    return interactions;
+  }
+
+  /**
+   * Computes the same gradient as fusedGradient(), four animals at a time and without branches in
+   * the loop: the signed distances are wrapped by rounding them to the nearest period, and the
+   * animals eaten earlier this tick are masked out arithmetically instead of skipped. Each of the
+   * four lanes accumulates its own partial sums, so that consecutive animals do not wait on each
+   * other's additions. Only the common exponent -2 is unrolled; other exponents fall back to
+   * fusedGradient(). Sums may differ from fusedGradient() in the last bits, since they are added in
+   * another order, and for animals exactly half a domain apart, which either one wraps.
+   * 
+   * @param world    world the animals are in
+   * @param x        x-coordinate of the animal whose gradient is computed
+   * @param y        y-coordinate of the animal whose gradient is computed
+   * @param others   animals the objective function is summed over
+   * @param exp      exponent distance function is taken to in objective function
+   * @param gradient array the x and y partial derivatives are stored in
+   * @return the number of pair interactions evaluated, i.e. of living animals summed over
+   */
+  public static int unrolledGradient(JungleWorld world, float x, float y, Population others,
+      double exp, double[] gradient) {
+    if (exp != -2.0) {
+      return fusedGradient(world, x, y, others, exp, gradient);
+    }
+    double width = world.WIDTH;
+    double height = world.HEIGHT;
+    double inverseWidth = 1.0 / width;
+    double inverseHeight = 1.0 / height;
+    FloatBuffer otherX = others.x;
+    FloatBuffer otherY = others.y;
+    ByteBuffer alive = others.alive;
+    double xSum0 = 0;
+    double xSum1 = 0;
+    double xSum2 = 0;
+    double xSum3 = 0;
+    double ySum0 = 0;
+    double ySum1 = 0;
+    double ySum2 = 0;
+    double ySum3 = 0;
+    int size = others.size;
+    int i = 0;
+    for (; i + 3 < size; i += 4) {
+      double dx0 = x - otherX.get(i);
+      double dx1 = x - otherX.get(i + 1);
+      double dx2 = x - otherX.get(i + 2);
+      double dx3 = x - otherX.get(i + 3);
+      double dy0 = y - otherY.get(i);
+      double dy1 = y - otherY.get(i + 1);
+      double dy2 = y - otherY.get(i + 2);
+      double dy3 = y - otherY.get(i + 3);
+      // Shortest signed distances on the torus:
+      dx0 -= width * Math.rint(dx0 * inverseWidth);
+      dx1 -= width * Math.rint(dx1 * inverseWidth);
+      dx2 -= width * Math.rint(dx2 * inverseWidth);
+      dx3 -= width * Math.rint(dx3 * inverseWidth);
+      dy0 -= height * Math.rint(dy0 * inverseHeight);
+      dy1 -= height * Math.rint(dy1 * inverseHeight);
+      dy2 -= height * Math.rint(dy2 * inverseHeight);
+      dy3 -= height * Math.rint(dy3 * inverseHeight);
+      // 1 for the living animals, 0 for the eaten ones:
+      double mask0 = alive.get(i);
+      double mask1 = alive.get(i + 1);
+      double mask2 = alive.get(i + 2);
+      double mask3 = alive.get(i + 3);
+      double distanceSquared0 = dx0 * dx0 + dy0 * dy0 + (1 - mask0) * DEAD_DISTANCE_SQUARED;
+      double distanceSquared1 = dx1 * dx1 + dy1 * dy1 + (1 - mask1) * DEAD_DISTANCE_SQUARED;
+      double distanceSquared2 = dx2 * dx2 + dy2 * dy2 + (1 - mask2) * DEAD_DISTANCE_SQUARED;
+      double distanceSquared3 = dx3 * dx3 + dy3 * dy3 + (1 - mask3) * DEAD_DISTANCE_SQUARED;
+      double factor0 = -2.0 * mask0 / (distanceSquared0 * distanceSquared0);
+      double factor1 = -2.0 * mask1 / (distanceSquared1 * distanceSquared1);
+      double factor2 = -2.0 * mask2 / (distanceSquared2 * distanceSquared2);
+      double factor3 = -2.0 * mask3 / (distanceSquared3 * distanceSquared3);
+      xSum0 += factor0 * dx0;
+      xSum1 += factor1 * dx1;
+      xSum2 += factor2 * dx2;
+      xSum3 += factor3 * dx3;
+      ySum0 += factor0 * dy0;
+      ySum1 += factor1 * dy1;
+      ySum2 += factor2 * dy2;
+      ySum3 += factor3 * dy3;
+    }
+    for (; i < size; ++i) { // remaining animals, one at a time
+      double dx = x - otherX.get(i);
+      double dy = y - otherY.get(i);
+      dx -= width * Math.rint(dx * inverseWidth);
+      dy -= height * Math.rint(dy * inverseHeight);
+      double mask = alive.get(i);
+      double distanceSquared = dx * dx + dy * dy + (1 - mask) * DEAD_DISTANCE_SQUARED;
+      double factor = -2.0 * mask / (distanceSquared * distanceSquared);
+      xSum0 += factor * dx;
+      ySum0 += factor * dy;
+    }
+    gradient[0] = (xSum0 + xSum1) + (xSum2 + xSum3);
+    gradient[1] = (ySum0 + ySum1) + (ySum2 + ySum3);
+    return others.aliveCount();
+  }
+
+  /**
+   * Computes both partial derivatives of the objective function over the living animals of a
+   * population within a cutoff radius, ignoring the tiny contributions of the farther ones. Walks
+   * every animal of the population; during a tick, animals use the neighbor lists of their world
+   * instead, which sum the same contributions in the same order, see NeighborList.gradient().
+   * 
+   * @param world    world the animals are in
+   * @param x        x-coordinate of the animal whose gradient is computed
+   * @param y        y-coordinate of the animal whose gradient is computed
+   * @param others   animals the objective function is summed over
+   * @param cutoff   radius beyond which animals do not contribute
+   * @param exp      exponent distance function is taken to in objective function
+   * @param gradient array the x and y partial derivatives are stored in
+   * @return the number of pair interactions evaluated, i.e. of living animals within the radius
+   */
+  public static int cutoffGradient(JungleWorld world, float x, float y, Population others,
+      int cutoff, double exp, double[] gradient) {
+    double cutoffSquared = (double) cutoff * cutoff;
+    double xSum = 0;
+    double ySum = 0;
+    int interactions = 0;
+    for (int i = 0; i < others.size; ++i) {
+      if (!others.isAlive(i)) {
+        continue; // eaten earlier this tick
+      }
+      double xDistanceSigned = signedDistance(x - others.x.get(i), world.WIDTH);
+      double yDistanceSigned = signedDistance(y - others.y.get(i), world.HEIGHT);
+      double distanceSquared =
+          xDistanceSigned * xDistanceSigned + yDistanceSigned * yDistanceSigned;
+      if (distanceSquared > cutoffSquared) {
+        continue;
       }
+      ++interactions;
+      double factor = componentFactor(distanceSquared, exp);
+      xSum += factor * xDistanceSigned;
+      ySum += factor * yDistanceSigned;
+    }
+    gradient[0] = xSum;
+    gradient[1] = ySum;
+    return interactions;
+  }
+
+  /**
+   * Wraps a signed distance along one coordinate to the shortest one on the torus
+   * 
+   * @param distance signed distance between two coordinates of the domain
+   * @param size     size of the toroidal domain along the coordinate
+   * @return the signed distance between -size / 2 and size / 2
+   */
+  private static double signedDistance(double distance, int size) {
+    if (Math.abs(distance) > size / 2) {
+      distance += distance < 0 ? size : -size;
     }
-    return exp * Math.pow(this.distanceSquared(otherAnimal), exp / 2 - 1) * yDistanceSigned;
+    return distance;
   }
 
   /**
-   * Defines the behavior of the current animal in the jungle park
+   * Defines the behavior of the current animal in the jungle park: returns it to the other side of
+   * the world if it left it
    */
   public void action() {
+    if (slot >= 0) {
+      wrapAround(world, population, slot);
+      return;
+    }
     if (getPositionX() < 0) {
-      setPositionX(processing.WIDTH + getPositionX());
+      setPositionX(world.WIDTH + getPositionX());
     } else {
-      setPositionX(getPositionX() % processing.WIDTH);
+      setPositionX(getPositionX() % world.WIDTH);
     }
     if (getPositionY() < 0) {
-      setPositionY(processing.HEIGHT + getPositionY());
+      setPositionY(world.HEIGHT + getPositionY());
     } else {
-      setPositionY(getPositionY() % processing.HEIGHT);
+      setPositionY(getPositionY() % world.HEIGHT);
     }
   }
 
+  /**
+   * Returns an animal of a population to the other side of the world if it left it
+   * 
+   * @param world      world the animal lives in
+   * @param population population of the animal
+   * @param slot       slot of the animal in its population
+   */
+  public static void wrapAround(JungleWorld world, Population population, int slot) {
+    population.x.put(slot, wrap(population.x.get(slot), world.WIDTH));
+    population.y.put(slot, wrap(population.y.get(slot), world.HEIGHT));
+  }
+
+  /**
+   * Returns a coordinate which left the world to the other side of it
+   * 
+   * @param coordinate x or y-coordinate
+   * @param size       width or height of the world
+   * @return the coordinate wrapped around the world
+   */
+  public static float wrap(float coordinate, int size) {
+    return coordinate < 0 ? size + coordinate : coordinate % size;
+  }
+
   /**
    * Determines if other animal is within given range
    * 
@@ -323,7 +759,24 @@ public class Animal implements ParkGUI {
    *         FALSE otherwise.
    */
   public boolean isClose(Animal otherAnimal, int range) {
-    if (Math.sqrt(this.distanceSquared(otherAnimal)) <= range) {
+    return isClose(world, this.getPositionX(), this.getPositionY(), otherAnimal.getPositionX(),
+        otherAnimal.getPositionY(), range);
+  }
+
+  /**
+   * Determines if two positions of a world are within given range of each other
+   * 
+   * @param world  world the positions are in
+   * @param x      x-coordinate of the first position
+   * @param y      y-coordinate of the first position
+   * @param otherX x-coordinate of the second position
+   * @param otherY y-coordinate of the second position
+   * @param range  range within which positions are considered close
+   * @return TRUE if the positions are within range distance of each other and FALSE otherwise.
+   */
+  public static boolean isClose(JungleWorld world, float x, float y, float otherX, float otherY,
+      int range) {
+    if (Math.sqrt(distanceSquared(world, x, y, otherX, otherY)) <= range) {
       return true;
     } else {
       return false;
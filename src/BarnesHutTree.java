@@ -0,0 +1,322 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Quadtree over the toroidal domain approximating the gradient of the objective function $\sum
+ * d^a(animal, source)$ in O(log N) per animal. A group of sources whose cell is small compared to
+ * its distance to the animal (size / distance < theta) is replaced by its center of mass.
+ *
+ * Distances follow Animal.xComponent: each source is seen through its closest periodic image. A
+ * cell crossing the seam opposite to the animal (where the closest image jumps from one side to
+ * the other) is therefore always opened, so that approximated groups never mix images.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class BarnesHutTree {
+  private static final int MAX_DEPTH = 24; // deeper leaves aggregate (nearly) coincident sources
+  protected static final int STACK_SIZE = 3 * MAX_DEPTH + 4; // nodes pending in gradient()
+
+  private final int width; // width of the toroidal domain
+  private final int height; // height of the toroidal domain
+  private double theta; // opening angle, 0 computes the exact sum
+
+  // Nodes of the tree. The children of a node are stored at firstChild[node] + quadrant, where
+  // quadrant is 0 (left top), 1 (right top), 2 (left bottom) or 3 (right bottom).
+  private int nodeCount;
+  private int[] firstChild; // -1 for leaves
+  private int[] body; // index of the only source of a leaf, -1 if it holds none or several
+  private int[] mass; // number of sources in the node
+  private double[] sumX; // sum of the x-coordinates of the sources of the node
+  private double[] sumY; // sum of the y-coordinates of the sources of the node
+  private double[] minX; // left edge of the node
+  private double[] minY; // top edge of the node
+  private double[] sizeX; // width of the node
+  private double[] sizeY; // height of the node
+
+  private Population sources; // population inserted by the last build
+
+  /**
+   * Creates an empty tree covering a toroidal domain
+   *
+   * @param width  width of the domain
+   * @param height height of the domain
+   * @param theta  opening angle
+   */
+  public BarnesHutTree(int width, int height, double theta) {
+    this.width = width;
+    this.height = height;
+    this.theta = theta;
+    firstChild = new int[0];
+    body = new int[0];
+    mass = new int[0];
+    sumX = new double[0];
+    sumY = new double[0];
+    minX = new double[0];
+    minY = new double[0];
+    sizeX = new double[0];
+    sizeY = new double[0];
+    allocateNodes(64);
+  }
+
+  /**
+   * Getter for theta
+   *
+   * @return the opening angle
+   */
+  public double getTheta() {
+    return theta;
+  }
+
+  /**
+   * Setter for theta
+   *
+   * @param theta the opening angle, 0 computes the exact sum
+   */
+  public void setTheta(double theta) {
+    this.theta = theta;
+  }
+
+  /**
+   * Grows the node arrays, keeping the existing nodes
+   *
+   * @param capacity new number of nodes the arrays can hold
+   */
+  private void allocateNodes(int capacity) {
+    firstChild = Arrays.copyOf(firstChild, capacity);
+    body = Arrays.copyOf(body, capacity);
+    mass = Arrays.copyOf(mass, capacity);
+    sumX = Arrays.copyOf(sumX, capacity);
+    sumY = Arrays.copyOf(sumY, capacity);
+    minX = Arrays.copyOf(minX, capacity);
+    minY = Arrays.copyOf(minY, capacity);
+    sizeX = Arrays.copyOf(sizeX, capacity);
+    sizeY = Arrays.copyOf(sizeY, capacity);
+  }
+
+  /**
+   * Creates a new empty leaf
+   *
+   * @param x left edge of the leaf
+   * @param y top edge of the leaf
+   * @param w width of the leaf
+   * @param h height of the leaf
+   * @return index of the new leaf
+   */
+  private int newNode(double x, double y, double w, double h) {
+    if (nodeCount == firstChild.length) {
+      allocateNodes(2 * nodeCount);
+    }
+    int node = nodeCount++;
+    firstChild[node] = -1;
+    body[node] = -1;
+    mass[node] = 0;
+    sumX[node] = 0;
+    sumY[node] = 0;
+    minX[node] = x;
+    minY[node] = y;
+    sizeX[node] = w;
+    sizeY[node] = h;
+    return node;
+  }
+
+  /**
+   * Computes which child of a node contains a given position
+   *
+   * @param node node containing the position
+   * @param x    x-coordinate of the position
+   * @param y    y-coordinate of the position
+   * @return quadrant of the child containing the position
+   */
+  private int quadrant(int node, double x, double y) {
+    int quadrant = 0;
+    if (x >= minX[node] + sizeX[node] / 2) {
+      quadrant += 1;
+    }
+    if (y >= minY[node] + sizeY[node] / 2) {
+      quadrant += 2;
+    }
+    return quadrant;
+  }
+
+  /**
+   * Splits a leaf into four empty children
+   *
+   * @param node leaf to be split
+   */
+  private void split(int node) {
+    double w = sizeX[node] / 2;
+    double h = sizeY[node] / 2;
+    // Read the bounds before newNode() may reallocate the arrays:
+    double x = minX[node];
+    double y = minY[node];
+    int first = newNode(x, y, w, h);
+    newNode(x + w, y, w, h);
+    newNode(x, y + h, w, h);
+    newNode(x + w, y + h, w, h);
+    firstChild[node] = first;
+  }
+
+  /**
+   * Rebuilds the tree from the current positions of the living animals of a population
+   *
+   * @param population animals whose contributions are summed by gradient()
+   */
+  public void build(Population population) {
+    sources = population;
+    nodeCount = 0;
+    newNode(0, 0, width, height); // root covers the whole domain
+    for (int i = 0; i < population.size; ++i) {
+      if (population.isAlive(i)) {
+        insert(i);
+      }
+    }
+  }
+
+  /**
+   * Inserts a source in the tree
+   *
+   * @param slot slot of the source in its population
+   */
+  private void insert(int slot) {
+    double x = sources.x.get(slot);
+    double y = sources.y.get(slot);
+    int node = 0;
+    int depth = 0;
+    while (true) {
+      ++mass[node];
+      sumX[node] += x;
+      sumY[node] += y;
+      if (firstChild[node] >= 0) { // internal node: keep descending
+        node = firstChild[node] + quadrant(node, x, y);
+        ++depth;
+      } else if (mass[node] == 1) { // empty leaf: store the source
+        body[node] = slot;
+        return;
+      } else if (depth >= MAX_DEPTH) { // leaf too deep: aggregate the source
+        body[node] = -1;
+        return;
+      } else { // leaf holding one source: split it and move its source down
+        int other = body[node];
+        body[node] = -1;
+        split(node);
+        double otherX = sources.x.get(other);
+        double otherY = sources.y.get(other);
+        int child = firstChild[node] + quadrant(node, otherX, otherY);
+        mass[child] = 1;
+        sumX[child] = otherX;
+        sumY[child] = otherY;
+        body[child] = other;
+        node = firstChild[node] + quadrant(node, x, y);
+        ++depth;
+      }
+    }
+  }
+
+  /**
+   * Removes a source from the tree (e.g. when it is eaten). The source must not have moved since
+   * the tree was built.
+   *
+   * @param slot slot of the source in its population
+   */
+  public void remove(int slot) {
+    double x = sources.x.get(slot);
+    double y = sources.y.get(slot);
+    int node = 0;
+    while (mass[node] > 0) {
+      --mass[node];
+      sumX[node] -= x;
+      sumY[node] -= y;
+      if (firstChild[node] < 0) {
+        body[node] = -1;
+        return;
+      }
+      node = firstChild[node] + quadrant(node, x, y);
+    }
+  }
+
+  /**
+   * Determines if a node crosses the seam where the closest periodic image of a source jumps from
+   * one side of the animal to the other
+   *
+   * @param node node to be checked
+   * @param x    x-coordinate of the animal
+   * @param y    y-coordinate of the animal
+   * @return true if the node crosses the seam, false otherwise
+   */
+  private boolean crossesSeam(int node, double x, double y) {
+    double seamX = (x + width / 2) % width;
+    double seamY = (y + height / 2) % height;
+    return (minX[node] < seamX && seamX < minX[node] + sizeX[node])
+        || (minY[node] < seamY && seamY < minY[node] + sizeY[node]);
+  }
+
+  /**
+   * Computes the gradient of the objective function of an animal, approximating far away groups of
+   * sources by their center of mass
+   *
+   * @param x        x-coordinate of the animal whose gradient is computed
+   * @param y        y-coordinate of the animal whose gradient is computed
+   * @param exp      exponent distance function is taken to in objective function
+   * @param gradient array the x and y partial derivatives are stored in
+   * @param stack    array of at least STACK_SIZE nodes used during the traversal, so that several
+   *                 threads can traverse the tree at once
+   * @return the number of pair interactions evaluated, i.e. of nodes treated as a single source
+   */
+  public int gradient(double x, double y, double exp, double[] gradient, int[] stack) {
+    double xSum = 0;
+    double ySum = 0;
+    int interactions = 0;
+    int top = 0;
+    if (mass[0] > 0) {
+      stack[top++] = 0;
+    }
+    while (top > 0) {
+      int node = stack[--top];
+      // Signed distance to the center of mass, through its closest periodic image:
+      double xDistanceSigned = x - sumX[node] / mass[node];
+      if (Math.abs(xDistanceSigned) > width / 2) {
+        xDistanceSigned += xDistanceSigned < 0 ? width : -width;
+      }
+      double yDistanceSigned = y - sumY[node] / mass[node];
+      if (Math.abs(yDistanceSigned) > height / 2) {
+        yDistanceSigned += yDistanceSigned < 0 ? height : -height;
+      }
+      double distanceSquared = xDistanceSigned * xDistanceSigned + yDistanceSigned * yDistanceSigned;
+      double size = Math.max(sizeX[node], sizeY[node]);
+      if (firstChild[node] < 0
+          || (size * size < theta * theta * distanceSquared && !crossesSeam(node, x, y))) {
+        // Leaf, or group far enough to be treated as a single source of the node's mass:
+        double factor = mass[node] * Animal.componentFactor(distanceSquared, exp);
+        ++interactions;
+        xSum += factor * xDistanceSigned;
+        ySum += factor * yDistanceSigned;
+      } else {
+        for (int child = firstChild[node]; child < firstChild[node] + 4; ++child) {
+          if (mass[child] > 0) {
+            stack[top++] = child;
+          }
+        }
+      }
+    }
+    gradient[0] = xSum;
+    gradient[1] = ySum;
+    return interactions;
+  }
+}
@@ -0,0 +1,467 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Draws every animal of a world in grouped passes, straight from the columns of its populations:
+ * first the sprites of all tigers then of all deer, each species sharing one cached image, then
+ * the text of every label at once. Unlike calling Animal.draw() on each view, this makes no
+ * virtual call and sets no drawing state per animal, and draws animals which have no view.
+ *
+ * Animals are drawn where the camera of the display window shows them, and animals which are not
+ * visible are culled. Labels and counters are only drawn while the visible animals are sparse
+ * enough for them to be readable, i.e. while there are at most labelDensity of them per square
+ * pixel of the display window, so zooming in brings the labels back.
+ *
+ * Denser views are drawn at a lower level of detail: beyond pointsThreshold visible animals, each
+ * animal is a dot of the color of its species, and beyond heatmapThreshold the number of animals
+ * of each species per cell of a coarse grid of the window is drawn as a heatmap. Both are
+ * rasterized into the pixels of an image of the window, drawn with a single call whatever the
+ * number of animals. When the window shows a whole side of the world, a sprite straddling an edge
+ * of the window is also drawn on the opposite edge, and only there: duplicates which would be
+ * off-screen are culled.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class BatchRenderer {
+  // default maximum number of animals per square pixel labels are drawn at, about one label per
+  // 64 x 64 pixels:
+  protected static final float DEFAULT_LABEL_DENSITY = 1f / 4096;
+  protected static final int DEFAULT_POINTS_THRESHOLD = 2000; // animals drawn as sprites at most
+  protected static final int DEFAULT_HEATMAP_THRESHOLD = 10000; // animals drawn as points at most
+  protected static final int HEATMAP_CELL = 8; // width and height in pixels of a heatmap cell
+  protected static final int TIGER_COLOR = 0xffe07000; // color of a tiger drawn as a point
+  protected static final int DEER_COLOR = 0xff7a4a1c; // color of a deer drawn as a point
+
+  private final JunglePark processing; // display window the animals are drawn to
+  private float labelDensity; // maximum number of animals per square pixel labels are drawn at
+  private int pointsThreshold; // maximum number of animals drawn as sprites
+  private int heatmapThreshold; // maximum number of animals drawn as points
+  private DetailLevel forcedLevel; // level every frame is drawn at, or null to choose by density
+  private DetailLevel detailLevel; // level the last frame was drawn at
+  private boolean labelsDrawn; // whether the last frame drew the labels
+  private PImage points; // pixels of the window the animals are rasterized to as points
+  private PImage heatmap; // one pixel per cell of the heatmap
+
+  /**
+   * Creates a renderer drawing to a display window
+   *
+   * @param processing display window the animals are drawn to
+   */
+  public BatchRenderer(JunglePark processing) {
+    this.processing = processing;
+    this.labelDensity = DEFAULT_LABEL_DENSITY;
+    this.pointsThreshold = DEFAULT_POINTS_THRESHOLD;
+    this.heatmapThreshold = DEFAULT_HEATMAP_THRESHOLD;
+    this.detailLevel = DetailLevel.SPRITES;
+  }
+
+  /**
+   * Getter for labelDensity
+   *
+   * @return the maximum number of animals per square pixel labels are drawn at
+   */
+  public float getLabelDensity() {
+    return labelDensity;
+  }
+
+  /**
+   * Setter for labelDensity
+   *
+   * @param labelDensity maximum number of animals per square pixel labels are drawn at, 0 to
+   *                     never draw them
+   */
+  public void setLabelDensity(float labelDensity) {
+    this.labelDensity = labelDensity;
+  }
+
+  /**
+   * Setter for the populations beyond which the level of detail is lowered
+   *
+   * @param pointsThreshold  maximum number of animals drawn as sprites
+   * @param heatmapThreshold maximum number of animals drawn as points
+   */
+  public void setDetailThresholds(int pointsThreshold, int heatmapThreshold) {
+    this.pointsThreshold = pointsThreshold;
+    this.heatmapThreshold = heatmapThreshold;
+  }
+
+  /**
+   * Setter for forcedLevel
+   *
+   * @param forcedLevel level every frame is drawn at, or null to choose it by the number of animals
+   */
+  public void setForcedLevel(DetailLevel forcedLevel) {
+    this.forcedLevel = forcedLevel;
+  }
+
+  /**
+   * Getter for forcedLevel
+   *
+   * @return the level every frame is drawn at, or null if it is chosen by the number of animals
+   */
+  public DetailLevel getForcedLevel() {
+    return forcedLevel;
+  }
+
+  /**
+   * Getter for detailLevel
+   *
+   * @return the level of detail the last frame was drawn at
+   */
+  public DetailLevel getDetailLevel() {
+    return detailLevel;
+  }
+
+  /**
+   * Getter for labelsDrawn
+   *
+   * @return true if the last frame drew the labels, false if there were too many animals
+   */
+  public boolean areLabelsDrawn() {
+    return labelsDrawn;
+  }
+
+  /**
+   * Decides whether labels are readable, i.e. sparse enough
+   *
+   * @param animalCount  number of animals drawn
+   * @param area         area they are drawn in, in square pixels
+   * @param labelDensity maximum number of animals per square pixel labels are drawn at
+   * @return true if the labels should be drawn, false otherwise
+   */
+  public static boolean labelsVisible(int animalCount, float area, float labelDensity) {
+    return animalCount <= labelDensity * area;
+  }
+
+  /**
+   * Chooses the level of detail of a frame
+   *
+   * @param animalCount number of animals visible
+   * @return the forced level if there is one, otherwise the most detailed level whose threshold
+   *         the number of animals does not exceed
+   */
+  public DetailLevel chooseDetailLevel(int animalCount) {
+    if (forcedLevel != null) {
+      return forcedLevel;
+    } else if (animalCount <= pointsThreshold) {
+      return DetailLevel.SPRITES;
+    } else if (animalCount <= heatmapThreshold) {
+      return DetailLevel.POINTS;
+    } else {
+      return DetailLevel.HEATMAP;
+    }
+  }
+
+  /**
+   * Estimates the number of animals of a world visible through a camera, assuming that they are
+   * spread evenly over the world
+   *
+   * @param world  world whose animals are drawn
+   * @param camera camera the world is viewed through
+   * @param width  width of the window in pixels
+   * @param height height of the window in pixels
+   * @return the estimated number of animals in the window
+   */
+  public static int estimateVisible(JungleWorld world, Camera camera, int width, int height) {
+    double visibleFraction = Math.min(1,
+        (double) width * height / ((double) camera.screenWidth() * camera.screenHeight()));
+    return (int) Math.ceil((world.tigers.size() + world.deer.size()) * visibleFraction);
+  }
+
+  /**
+   * Draws every animal of a world, at the level of detail the number of visible animals allows
+   *
+   * @param world world whose animals are drawn
+   */
+  public void draw(JungleWorld world) {
+    Population tigers = world.tigers;
+    Population deer = world.deer;
+    followMouse(tigers);
+    followMouse(deer);
+
+    Camera camera = processing.camera;
+    float alpha = processing.getInterpolation();
+    int width = processing.width;
+    int height = processing.height;
+    detailLevel = chooseDetailLevel(estimateVisible(world, camera, width, height));
+    labelsDrawn = false;
+    switch (detailLevel) {
+      case SPRITES:
+        PImage tigerImage = processing.images.get(Tiger.IMAGE_FILE_NAME);
+        PImage deerImage = processing.images.get(Deer.IMAGE_FILE_NAME);
+        int visible = drawSprites(world, tigers, tigerImage, alpha);
+        visible += drawSprites(world, deer, deerImage, alpha);
+        labelsDrawn = labelsVisible(visible, (float) width * height, labelDensity);
+        if (labelsDrawn) {
+          processing.fill(0); // font color of every label: black
+          drawLabels(world, tigers, tigerImage, alpha);
+          drawLabels(world, deer, deerImage, alpha);
+        }
+        break;
+      case POINTS:
+        if (points == null || points.width != width || points.height != height) {
+          points = new PImage(width, height, PConstants.ARGB);
+        }
+        rasterizePoints(world, camera, alpha, points);
+        drawOverlay(points, width, height);
+        break;
+      case HEATMAP:
+        int columns = (width + HEATMAP_CELL - 1) / HEATMAP_CELL;
+        int rows = (height + HEATMAP_CELL - 1) / HEATMAP_CELL;
+        if (heatmap == null || heatmap.width != columns || heatmap.height != rows) {
+          heatmap = new PImage(columns, rows, PConstants.ARGB);
+        }
+        rasterizeHeatmap(world, camera, heatmap);
+        drawOverlay(heatmap, columns * HEATMAP_CELL, rows * HEATMAP_CELL);
+        break;
+    }
+  }
+
+  /**
+   * Draws an image over the display window from its top left corner, scaled to a given size
+   *
+   * @param overlay image of the window
+   * @param width   width the image is drawn at in pixels
+   * @param height  height the image is drawn at in pixels
+   */
+  private void drawOverlay(PImage overlay, int width, int height) {
+    overlay.updatePixels(); // the pixels were written since the image was last drawn
+    processing.image(overlay, width / 2f, height / 2f, width, height); // images are centered
+  }
+
+  /**
+   * Checks whether an image centered on a point of the window is at least partly visible
+   *
+   * @param x          x-coordinate of the center of the image in the window
+   * @param y          y-coordinate of the center of the image in the window
+   * @param halfWidth  half of the width of the image
+   * @param halfHeight half of the height of the image
+   * @return true if the image overlaps the window, false if it can be culled
+   */
+  private boolean visible(float x, float y, float halfWidth, float halfHeight) {
+    return x + halfWidth >= 0 && x - halfWidth <= processing.width && y + halfHeight >= 0
+        && y - halfHeight <= processing.height;
+  }
+
+  /**
+   * Moves the animals being dragged to the mouse, before any of them is drawn
+   *
+   * @param population tigers or deer of the world
+   */
+  private static void followMouse(Population population) {
+    for (int i = 0; i < population.size(); ++i) {
+      if (population.view(i) != null) {
+        population.view(i).followMouse();
+      }
+    }
+  }
+
+  /**
+   * Draws the image of every visible animal of a population, and its duplicate on the opposite
+   * edge of the window if it straddles an edge of a window showing a whole side of the world
+   *
+   * @param world      world the animals live in
+   * @param population tigers or deer of the world
+   * @param image      image shared by every animal of the population
+   * @param alpha      fraction of a tick elapsed since the last tick of the world
+   * @return the number of animals drawn
+   */
+  private int drawSprites(JungleWorld world, Population population, PImage image, float alpha) {
+    Camera camera = processing.camera;
+    float halfWidth = image.width / 2f;
+    float halfHeight = image.height / 2f;
+    float worldWidth = camera.screenWidth();
+    float worldHeight = camera.screenHeight();
+    int drawn = 0;
+    for (int i = 0; i < population.size(); ++i) {
+      float x = camera.screenX(population.interpolateX(i, alpha, world.WIDTH));
+      float y = camera.screenY(population.interpolateY(i, alpha, world.HEIGHT));
+      // Offset of the duplicate on the opposite side of the world, toward the window:
+      float ghostX = x < processing.width / 2f ? worldWidth : -worldWidth;
+      float ghostY = y < processing.height / 2f ? worldHeight : -worldHeight;
+      boolean seen = false;
+      if (visible(x, y, halfWidth, halfHeight)) {
+        processing.image(image, x, y);
+        seen = true;
+      }
+      // Duplicates are only visible when the window is about as large as the world:
+      if (visible(x + ghostX, y, halfWidth, halfHeight)) {
+        processing.image(image, x + ghostX, y);
+        seen = true;
+      }
+      if (visible(x, y + ghostY, halfWidth, halfHeight)) {
+        processing.image(image, x, y + ghostY);
+        seen = true;
+      }
+      if (visible(x + ghostX, y + ghostY, halfWidth, halfHeight)) { // straddles a corner
+        processing.image(image, x + ghostX, y + ghostY);
+        seen = true;
+      }
+      if (seen) {
+        ++drawn;
+      }
+    }
+    return drawn;
+  }
+
+  /**
+   * Draws the label below and the counter above every animal of a population: the number of deer
+   * eaten by each tiger which ate any, and the number of seconds each deer has been alive
+   *
+   * @param world      world the animals live in
+   * @param population tigers or deer of the world
+   * @param image      image shared by every animal of the population, which the text surrounds
+   * @param alpha      fraction of a tick elapsed since the last tick of the world
+   */
+  private void drawLabels(JungleWorld world, Population population, PImage image, float alpha) {
+    Camera camera = processing.camera;
+    int offset = image.height / 2 + 4; // distance from the center of an animal to its text
+    boolean tigers = population.species == Population.TIGER;
+    for (int i = 0; i < population.size(); ++i) {
+      float x = camera.screenX(population.interpolateX(i, alpha, world.WIDTH));
+      float y = camera.screenY(population.interpolateY(i, alpha, world.HEIGHT));
+      if (!visible(x, y, image.width, image.height)) {
+        continue; // culled, like its sprite
+      }
+      if (population.view(i) != null) { // only views carry an identifying label
+        processing.text(population.view(i).label, x, y + offset);
+      }
+      if (!tigers) {
+        processing.text(
+            Animal.numberLabel(processing.timestep.toSeconds(population.timeAlive.get(i))), x,
+            y - offset);
+      } else if (population.deerEatenCount.get(i) > 0) {
+        processing.text(Animal.numberLabel(population.deerEatenCount.get(i)), x, y - offset);
+      }
+    }
+  }
+
+  /**
+   * Rasterizes every visible animal of a world as a 2 x 2 dot of the color of its species, the
+   * tigers over the deer, into an image of the window
+   *
+   * @param world  world whose animals are rasterized
+   * @param camera camera the world is viewed through
+   * @param alpha  fraction of a tick elapsed since the last tick of the world
+   * @param target image of the size of the window, whose pixels are replaced
+   */
+  protected static void rasterizePoints(JungleWorld world, Camera camera, float alpha,
+      PImage target) {
+    Arrays.fill(target.pixels, 0); // transparent, the background shows through
+    rasterizePoints(world, camera, world.deer, alpha, DEER_COLOR, target);
+    rasterizePoints(world, camera, world.tigers, alpha, TIGER_COLOR, target);
+  }
+
+  /**
+   * Rasterizes every visible animal of a population as a 2 x 2 dot, clipped to the window
+   *
+   * @param world      world the animals live in
+   * @param camera     camera the world is viewed through
+   * @param population tigers or deer of the world
+   * @param alpha      fraction of a tick elapsed since the last tick of the world
+   * @param color      color of the dots
+   * @param target     image of the size of the window
+   */
+  private static void rasterizePoints(JungleWorld world, Camera camera, Population population,
+      float alpha, int color, PImage target) {
+    int[] pixels = target.pixels;
+    int width = target.width;
+    int height = target.height;
+    for (int i = 0; i < population.size(); ++i) {
+      float screenX = camera.screenX(population.interpolateX(i, alpha, world.WIDTH));
+      float screenY = camera.screenY(population.interpolateY(i, alpha, world.HEIGHT));
+      if (screenX < 0 || screenX >= width || screenY < 0 || screenY >= height) {
+        continue; // culled
+      }
+      int x = (int) screenX;
+      int y = (int) screenY;
+      int row = y * width;
+      pixels[row + x] = color;
+      if (x + 1 < width) {
+        pixels[row + x + 1] = color;
+      }
+      if (y + 1 < height) {
+        pixels[row + width + x] = color;
+        if (x + 1 < width) {
+          pixels[row + width + x + 1] = color;
+        }
+      }
+    }
+  }
+
+  /**
+   * Rasterizes the number of visible animals of each species per cell of HEATMAP_CELL x
+   * HEATMAP_CELL pixels of the window, one pixel per cell: the more deer, the greener, the more
+   * tigers, the redder, and the more animals, the more opaque. Positions are not interpolated, a
+   * cell being much larger than the distance an animal moves in a tick.
+   *
+   * @param world  world whose animals are rasterized
+   * @param camera camera the world is viewed through
+   * @param target image of one pixel per cell, whose pixels are replaced
+   */
+  protected static void rasterizeHeatmap(JungleWorld world, Camera camera, PImage target) {
+    int[] pixels = target.pixels;
+    Arrays.fill(pixels, 0);
+    // Counts the animals of each cell, the deer in the low 16 bits and the tigers in the high ones:
+    countCells(camera, world.deer, target, 1);
+    countCells(camera, world.tigers, target, 1 << 16);
+    for (int i = 0; i < pixels.length; ++i) {
+      int deer = pixels[i] & 0xffff;
+      int tigers = pixels[i] >>> 16;
+      if (deer + tigers == 0) {
+        continue; // transparent
+      }
+      int red = Math.min(255, 96 * tigers);
+      int green = Math.min(255, 32 + 16 * deer);
+      int opacity = Math.min(224, 64 + 12 * (deer + tigers));
+      pixels[i] = opacity << 24 | red << 16 | green << 8;
+    }
+  }
+
+  /**
+   * Adds the visible animals of a population to the count of the cell each one is in
+   *
+   * @param camera     camera the world is viewed through
+   * @param population tigers or deer of a world
+   * @param target     image of one pixel per cell, whose pixels hold the count of each cell
+   * @param increment  value added to the count of a cell per animal
+   */
+  private static void countCells(Camera camera, Population population, PImage target,
+      int increment) {
+    int[] counts = target.pixels;
+    for (int i = 0; i < population.size(); ++i) {
+      float screenX = camera.screenX(population.x.get(i));
+      float screenY = camera.screenY(population.y.get(i));
+      if (screenX < 0 || screenY < 0) {
+        continue; // culled
+      }
+      int column = (int) screenX / HEATMAP_CELL;
+      int row = (int) screenY / HEATMAP_CELL;
+      if (column >= target.width || row >= target.height) {
+        continue; // culled
+      }
+      int cell = row * target.width + column;
+      int count = increment == 1 ? counts[cell] & 0xffff : counts[cell] >>> 16;
+      if (count < 0xffff) { // saturates instead of overflowing into the other species
+        counts[cell] += increment;
+      }
+    }
+  }
+}
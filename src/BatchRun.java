@@ -0,0 +1,152 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * One headless run of a BatchRunner: a world created with given parameters, initial populations
+ * and seed, advanced until every deer is eaten or a number of ticks elapsed. Calling the run fills
+ * in its outcome. Each run owns its world, so that runs can be called on different threads.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class BatchRun implements Callable<BatchRun> {
+  protected static final String CSV_HEADER =
+      "tigerSpeed,tigerExponent,tigerScanRange,deerSpeed,deerExponent,deerScanRange,tigers,deer";
+
+  protected final JungleParameters parameters; // speeds, exponents and scan ranges of the world
+  protected final int tigerCount; // number of tigers spawned initially
+  protected final int deerCount; // number of deer spawned initially
+  protected final long seed; // seed of the world
+  protected final int ticks; // maximum number of ticks the world is advanced by
+  protected final int width; // width of the world
+  protected final int height; // height of the world
+  protected final GradientMode mode; // how animals compute the gradient they follow
+  protected Path trajectories; // prefix of the trajectory files of the run, or null if not recorded
+  // Outcome of the run, filled in by call():
+  protected int survivalTime; // tick at which the last deer was eaten, or ticks if some survived
+  protected boolean extinct; // true if every deer was eaten
+  protected int deersEaten; // number of deer eaten during the run
+  protected int maxTimeAlive; // longest time alive reached by a deer during the run
+
+  /**
+   * Creates a run, which is only simulated once called
+   *
+   * @param parameters speeds, exponents and scan ranges of the world, copied by the run
+   * @param tigerCount number of tigers spawned initially
+   * @param deerCount  number of deer spawned initially
+   * @param seed       seed of the world
+   * @param ticks      maximum number of ticks the world is advanced by
+   * @param width      width of the world
+   * @param height     height of the world
+   * @param mode       how animals compute the gradient they follow
+   */
+  public BatchRun(JungleParameters parameters, int tigerCount, int deerCount, long seed, int ticks,
+      int width, int height, GradientMode mode) {
+    this.parameters = new JungleParameters(parameters);
+    this.tigerCount = tigerCount;
+    this.deerCount = deerCount;
+    this.seed = seed;
+    this.ticks = ticks;
+    this.width = width;
+    this.height = height;
+    this.mode = mode;
+  }
+
+  /**
+   * Setter for the prefix of the files the trajectories of the run are recorded to
+   *
+   * @param trajectories prefix of the segment files of a TrajectoryRecorder, or null to not record
+   *                     the run
+   */
+  public void setTrajectories(Path trajectories) {
+    this.trajectories = trajectories;
+  }
+
+  /**
+   * Simulates the run on the calling thread and records its outcome
+   *
+   * @return this run, with its outcome filled in
+   */
+  @Override
+  public BatchRun call() {
+    JungleWorld world = new JungleWorld(width, height, seed, parameters);
+    world.setGradientMode(mode);
+    world.getMetrics().setEnabled(false); // only the outcome is reported
+    for (int i = 0; i < tigerCount; ++i) {
+      world.spawnTiger();
+    }
+    for (int i = 0; i < deerCount; ++i) {
+      world.spawnDeer();
+    }
+
+    TrajectoryRecorder recorder = null;
+    if (trajectories != null) {
+      recorder = new TrajectoryRecorder(trajectories, 1, true);
+      world.addTickListener(recorder);
+    }
+
+    maxTimeAlive = 0;
+    try {
+      while (world.tickCounter < ticks && world.deer.size() > 0) {
+        world.tick();
+        maxTimeAlive = Math.max(maxTimeAlive, world.maxTimeAlive());
+      }
+    } finally {
+      if (recorder != null) {
+        try {
+          recorder.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException("Could not close the trajectories of the run", e);
+        }
+      }
+    }
+    survivalTime = world.tickCounter;
+    extinct = world.deer.size() == 0;
+    deersEaten = world.deersEaten;
+    return this;
+  }
+
+  /**
+   * Checks whether another run has the same configuration as this one, apart from its seed, i.e.
+   * whether both runs are samples of the same configuration
+   *
+   * @param other run to be compared
+   * @return true if both runs only differ by their seed, false otherwise
+   */
+  public boolean sameConfiguration(BatchRun other) {
+    return parameters.equals(other.parameters) && tigerCount == other.tigerCount
+        && deerCount == other.deerCount && ticks == other.ticks && width == other.width
+        && height == other.height && mode == other.mode;
+  }
+
+  /**
+   * Formats the configuration of the run, apart from its seed, in the columns of CSV_HEADER
+   *
+   * @return the configuration of the run as comma separated values
+   */
+  public String configurationCsv() {
+    return String.format(Locale.ROOT, "%s,%s,%d,%s,%s,%d,%d,%d", parameters.getTigerSpeed(),
+        parameters.getTigerExponent(), parameters.getTigerScanRange(), parameters.getDeerSpeed(),
+        parameters.getDeerExponent(), parameters.getDeerScanRange(), tigerCount, deerCount);
+  }
+}
@@ -0,0 +1,342 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command-line runner of parameter sweeps. Runs one headless world per point of a grid of
+ * parameters and seed, concurrently on a fixed pool of threads, and summarizes the outcome of each
+ * configuration across its seeds: how long the deer survived, how many were eaten, and the longest
+ * time a deer stayed alive.
+ *
+ * Usage: java BatchRunner [--option values]..., where each option takes comma separated values,
+ * integer ones also accepting inclusive ranges such as 1..10, and the grid is the cartesian
+ * product of every option:
+ * --tiger-speed, --tiger-exponent, --tiger-scan-range, --deer-speed, --deer-exponent and
+ * --deer-scan-range (defaults of JungleParameters), --tigers (10), --deer (75) and --seeds (1..10).
+ * The other options take a single value: --ticks (3600), --width (800), --height (632), --mode
+ * (EXACT), --threads (number of processors), --out (file the summary is written to instead of the
+ * console), --runs (file the outcome of each run is written to) and --trajectories (prefix of the
+ * files the trajectories of each run are recorded to, followed by .run and the index of the run).
+ *
+ * Every world runs on a single thread, so that the runs, not the animals of a run, are spread over
+ * the cores. The outcome of a run only depends on its configuration and seed.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class BatchRunner {
+  // Options and their default values:
+  private static final String[][] DEFAULTS = {{"tiger-speed", "" + Tiger.SPEED},
+      {"tiger-exponent", "" + Tiger.EXPONENT}, {"tiger-scan-range", "" + Tiger.SCAN_RANGE},
+      {"deer-speed", "" + Deer.SPEED}, {"deer-exponent", "" + Deer.EXPONENT},
+      {"deer-scan-range", "" + Deer.SCAN_RANGE}, {"tigers", "10"}, {"deer", "75"},
+      {"seeds", "1..10"}, {"ticks", "3600"}, {"width", "800"}, {"height", "632"},
+      {"mode", "EXACT"}, {"threads", "" + Runtime.getRuntime().availableProcessors()},
+      {"out", ""}, {"runs", ""}, {"trajectories", ""}};
+  protected static final String SUMMARY_HEADER = BatchRun.CSV_HEADER
+      + ",runs,extinctions,meanSurvival,sdSurvival,minSurvival,maxSurvival,meanDeersEaten,"
+      + "sdDeersEaten,meanMaxTimeAlive,maxMaxTimeAlive";
+  protected static final String RUNS_HEADER =
+      BatchRun.CSV_HEADER + ",seed,survivalTime,extinct,deersEaten,maxTimeAlive";
+
+  /**
+   * Parses command-line arguments into options, filling in the default value of the options which
+   * are not given
+   *
+   * @param args pairs of an option, starting with --, and its values
+   * @return the value of each option, keyed by name without the leading --
+   */
+  public static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new HashMap<String, String>();
+    for (String[] option : DEFAULTS) {
+      options.put(option[0], option[1]);
+    }
+    for (int i = 0; i < args.length; i += 2) {
+      String name = args[i].startsWith("--") ? args[i].substring(2) : args[i];
+      if (!options.containsKey(name) || i + 1 == args.length) {
+        throw new IllegalArgumentException("Unknown option or missing value: " + args[i]);
+      }
+      options.put(name, args[i + 1]);
+    }
+    return options;
+  }
+
+  /**
+   * Parses comma separated doubles
+   *
+   * @param values comma separated doubles
+   * @return the doubles
+   */
+  private static double[] parseDoubles(String values) {
+    String[] split = values.split(",");
+    double[] parsed = new double[split.length];
+    for (int i = 0; i < split.length; ++i) {
+      parsed[i] = Double.parseDouble(split[i].trim());
+    }
+    return parsed;
+  }
+
+  /**
+   * Parses comma separated longs and inclusive ranges of longs, e.g. 1,5..8
+   *
+   * @param values comma separated longs or ranges
+   * @return the longs, in the order they are given
+   */
+  private static long[] parseLongs(String values) {
+    long[] parsed = new long[0];
+    int count = 0;
+    for (String value : values.split(",")) {
+      int range = value.indexOf("..");
+      long first = Long.parseLong(value.substring(0, range < 0 ? value.length() : range).trim());
+      long last = range < 0 ? first : Long.parseLong(value.substring(range + 2).trim());
+      for (long v = first; v <= last; ++v) {
+        if (count == parsed.length) {
+          parsed = Arrays.copyOf(parsed, 2 * count + 1);
+        }
+        parsed[count++] = v;
+      }
+    }
+    return Arrays.copyOf(parsed, count);
+  }
+
+  /**
+   * Parses comma separated ints and inclusive ranges of ints, e.g. 1,5..8
+   *
+   * @param values comma separated ints or ranges
+   * @return the ints, in the order they are given
+   */
+  private static int[] parseInts(String values) {
+    long[] longs = parseLongs(values);
+    int[] parsed = new int[longs.length];
+    for (int i = 0; i < longs.length; ++i) {
+      parsed[i] = Math.toIntExact(longs[i]);
+    }
+    return parsed;
+  }
+
+  /**
+   * Creates one run per point of the grid described by the options. The runs of a configuration
+   * are consecutive, one per seed.
+   *
+   * @param options value of each option, see parseOptions()
+   * @return the runs of the grid, not simulated yet
+   */
+  public static List<BatchRun> createRuns(Map<String, String> options) {
+    double[] tigerSpeeds = parseDoubles(options.get("tiger-speed"));
+    double[] tigerExponents = parseDoubles(options.get("tiger-exponent"));
+    int[] tigerScanRanges = parseInts(options.get("tiger-scan-range"));
+    double[] deerSpeeds = parseDoubles(options.get("deer-speed"));
+    double[] deerExponents = parseDoubles(options.get("deer-exponent"));
+    int[] deerScanRanges = parseInts(options.get("deer-scan-range"));
+    int[] tigerCounts = parseInts(options.get("tigers"));
+    int[] deerCounts = parseInts(options.get("deer"));
+    long[] seeds = parseLongs(options.get("seeds"));
+    int ticks = Integer.parseInt(options.get("ticks"));
+    int width = Integer.parseInt(options.get("width"));
+    int height = Integer.parseInt(options.get("height"));
+    GradientMode mode = GradientMode.valueOf(options.get("mode").toUpperCase());
+    String trajectories = options.get("trajectories");
+
+    List<BatchRun> runs = new ArrayList<BatchRun>();
+    JungleParameters parameters = new JungleParameters();
+    for (double tigerSpeed : tigerSpeeds) {
+      parameters.setTigerSpeed(tigerSpeed);
+      for (double tigerExponent : tigerExponents) {
+        parameters.setTigerExponent(tigerExponent);
+        for (int tigerScanRange : tigerScanRanges) {
+          parameters.setTigerScanRange(tigerScanRange);
+          for (double deerSpeed : deerSpeeds) {
+            parameters.setDeerSpeed(deerSpeed);
+            for (double deerExponent : deerExponents) {
+              parameters.setDeerExponent(deerExponent);
+              for (int deerScanRange : deerScanRanges) {
+                parameters.setDeerScanRange(deerScanRange);
+                for (int tigerCount : tigerCounts) {
+                  for (int deerCount : deerCounts) {
+                    for (long seed : seeds) {
+                      BatchRun run = new BatchRun(parameters, tigerCount, deerCount, seed, ticks,
+                          width, height, mode);
+                      if (!trajectories.isEmpty()) {
+                        run.setTrajectories(Paths.get(trajectories + ".run" + runs.size()));
+                      }
+                      runs.add(run);
+                    }
+                  }
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return runs;
+  }
+
+  /**
+   * Simulates runs concurrently, and waits until every one of them is over
+   *
+   * @param runs    runs to be simulated
+   * @param threads number of runs simulated at once
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public static void runAll(List<BatchRun> runs, int threads) throws InterruptedException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be positive: " + threads);
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      for (Future<BatchRun> future : pool.invokeAll(runs)) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("A run failed", e.getCause());
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Writes the outcome of each run, one line per run
+   *
+   * @param runs simulated runs
+   * @param out  where the outcomes are written
+   * @throws IOException if they cannot be written
+   */
+  public static void writeRuns(List<BatchRun> runs, Appendable out) throws IOException {
+    out.append(RUNS_HEADER).append("\n");
+    for (BatchRun run : runs) {
+      out.append(String.format(Locale.ROOT, "%s,%d,%d,%b,%d,%d\n", run.configurationCsv(),
+          run.seed, run.survivalTime, run.extinct, run.deersEaten, run.maxTimeAlive));
+    }
+  }
+
+  /**
+   * Writes the summary statistics of each configuration across its seeds, one line per
+   * configuration. Survival times of the runs in which some deer survived are the number of ticks
+   * run, i.e. only lower bounds of the survival time, and are counted as such in the statistics.
+   *
+   * @param runs simulated runs, the runs of a configuration being consecutive
+   * @param out  where the statistics are written
+   * @throws IOException if they cannot be written
+   */
+  public static void writeSummary(List<BatchRun> runs, Appendable out) throws IOException {
+    out.append(SUMMARY_HEADER).append("\n");
+    int first = 0;
+    while (first < runs.size()) {
+      int last = first + 1; // runs first to last (exclusive) share the same configuration
+      while (last < runs.size() && runs.get(last).sameConfiguration(runs.get(first))) {
+        ++last;
+      }
+      int count = last - first;
+      int extinctions = 0;
+      double survivalSum = 0;
+      double survivalSquares = 0;
+      int minSurvival = Integer.MAX_VALUE;
+      int maxSurvival = 0;
+      double eatenSum = 0;
+      double eatenSquares = 0;
+      double timeAliveSum = 0;
+      int maxTimeAlive = 0;
+      for (int i = first; i < last; ++i) {
+        BatchRun run = runs.get(i);
+        extinctions += run.extinct ? 1 : 0;
+        survivalSum += run.survivalTime;
+        survivalSquares += (double) run.survivalTime * run.survivalTime;
+        minSurvival = Math.min(minSurvival, run.survivalTime);
+        maxSurvival = Math.max(maxSurvival, run.survivalTime);
+        eatenSum += run.deersEaten;
+        eatenSquares += (double) run.deersEaten * run.deersEaten;
+        timeAliveSum += run.maxTimeAlive;
+        maxTimeAlive = Math.max(maxTimeAlive, run.maxTimeAlive);
+      }
+      out.append(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.2f,%d,%d,%.2f,%.2f,%.2f,%d\n",
+          runs.get(first).configurationCsv(), count, extinctions, survivalSum / count,
+          standardDeviation(survivalSum, survivalSquares, count), minSurvival, maxSurvival,
+          eatenSum / count, standardDeviation(eatenSum, eatenSquares, count),
+          timeAliveSum / count, maxTimeAlive));
+      first = last;
+    }
+  }
+
+  /**
+   * Computes the sample standard deviation of values from their sum and sum of squares
+   *
+   * @param sum     sum of the values
+   * @param squares sum of the squares of the values
+   * @param count   number of values
+   * @return the sample standard deviation of the values, or 0 for a single value
+   */
+  protected static double standardDeviation(double sum, double squares, int count) {
+    if (count < 2) {
+      return 0;
+    }
+    double mean = sum / count;
+    return Math.sqrt(Math.max(squares - count * mean * mean, 0) / (count - 1));
+  }
+
+  /**
+   * Runs a parameter sweep and prints the summary of each configuration
+   *
+   * @param args pairs of an option and its values, see the class description
+   * @throws IOException          if the summary or the runs cannot be written
+   * @throws InterruptedException if the runner is interrupted before every run is over
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Map<String, String> options = parseOptions(args);
+    List<BatchRun> runs = createRuns(options);
+    int threads = Integer.parseInt(options.get("threads"));
+    System.err.println("Running " + runs.size() + " worlds on " + threads + " threads");
+    long start = System.nanoTime();
+    runAll(runs, threads);
+    System.err.println("Elapsed (ms): " + (System.nanoTime() - start) / 1000000);
+
+    if (options.get("out").isEmpty()) {
+      writeSummary(runs, System.out);
+    } else {
+      Writer writer = new FileWriter(options.get("out"));
+      try {
+        writeSummary(runs, writer);
+      } finally {
+        writer.close();
+      }
+    }
+    if (!options.get("runs").isEmpty()) {
+      Writer writer = new FileWriter(options.get("runs"));
+      try {
+        writeRuns(runs, writer);
+      } finally {
+        writer.close();
+      }
+    }
+  }
+}
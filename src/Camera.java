@@ -0,0 +1,222 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Pannable and zoomable view of a toroidal world through a display window, so that the world can
+ * be of any size whatever the size of the window. The camera maps world coordinates to screen
+ * coordinates and back: the center of the window shows the center of the camera, and one unit of
+ * the world is zoom pixels wide. Each point of the world is shown where it is closest to the
+ * center of the camera on the torus, so panning past an edge of the world shows the opposite edge.
+ *
+ * The camera cannot zoom out further than showing the whole world along its shorter side, so that
+ * no point of the world is visible more than once.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class Camera {
+  protected static final float MAX_ZOOM = 8; // maximum number of pixels per unit of the world
+
+  private final int worldWidth; // width of the toroidal world
+  private final int worldHeight; // height of the toroidal world
+  private final int viewWidth; // width of the display window in pixels
+  private final int viewHeight; // height of the display window in pixels
+  private float centerX; // x-coordinate of the world shown at the center of the window
+  private float centerY; // y-coordinate of the world shown at the center of the window
+  private float zoom; // number of pixels per unit of the world
+
+  /**
+   * Creates a camera showing a world at its natural size, i.e. one pixel per unit, or as much of
+   * it as possible if it is smaller than the window
+   *
+   * @param worldWidth  width of the toroidal world
+   * @param worldHeight height of the toroidal world
+   * @param viewWidth   width of the display window in pixels
+   * @param viewHeight  height of the display window in pixels
+   */
+  public Camera(int worldWidth, int worldHeight, int viewWidth, int viewHeight) {
+    this.worldWidth = worldWidth;
+    this.worldHeight = worldHeight;
+    this.viewWidth = viewWidth;
+    this.viewHeight = viewHeight;
+    // Shows the top left corner of a large world, like a window of the same size would:
+    centerX = Math.min(viewWidth, worldWidth) / 2f;
+    centerY = Math.min(viewHeight, worldHeight) / 2f;
+    setZoom(1);
+  }
+
+  /**
+   * Getter for zoom
+   *
+   * @return the number of pixels per unit of the world
+   */
+  public float getZoom() {
+    return zoom;
+  }
+
+  /**
+   * Computes the smallest zoom of the camera
+   *
+   * @return the number of pixels per unit of the world at which the window is as large as the
+   *         world along one side
+   */
+  public float getMinZoom() {
+    return Math.max((float) viewWidth / worldWidth, (float) viewHeight / worldHeight);
+  }
+
+  /**
+   * Setter for zoom, keeping the center of the camera where it is
+   *
+   * @param zoom number of pixels per unit of the world, clamped between getMinZoom() and MAX_ZOOM
+   */
+  public void setZoom(float zoom) {
+    this.zoom = Math.max(getMinZoom(), Math.min(zoom, MAX_ZOOM));
+  }
+
+  /**
+   * Getter for centerX
+   *
+   * @return the x-coordinate of the world shown at the center of the window
+   */
+  public float getCenterX() {
+    return centerX;
+  }
+
+  /**
+   * Getter for centerY
+   *
+   * @return the y-coordinate of the world shown at the center of the window
+   */
+  public float getCenterY() {
+    return centerY;
+  }
+
+  /**
+   * Moves the center of the camera to a point of the world
+   *
+   * @param x x-coordinate of the world to be shown at the center of the window
+   * @param y y-coordinate of the world to be shown at the center of the window
+   */
+  public void lookAt(float x, float y) {
+    centerX = Animal.wrap(x % worldWidth, worldWidth);
+    centerY = Animal.wrap(y % worldHeight, worldHeight);
+  }
+
+  /**
+   * Moves the camera by a distance on the screen, e.g. the distance the mouse was dragged by
+   *
+   * @param dx number of pixels the view moves to the right
+   * @param dy number of pixels the view moves down
+   */
+  public void pan(float dx, float dy) {
+    lookAt(centerX + dx / zoom, centerY + dy / zoom);
+  }
+
+  /**
+   * Zooms by a factor, keeping the point of the world under a given point of the screen in place,
+   * e.g. under the mouse
+   *
+   * @param factor  factor the zoom is multiplied by, more than 1 to zoom in
+   * @param screenX x-coordinate of the fixed point in the window
+   * @param screenY y-coordinate of the fixed point in the window
+   */
+  public void zoomAt(float factor, float screenX, float screenY) {
+    float x = worldX(screenX);
+    float y = worldY(screenY);
+    setZoom(zoom * factor);
+    // Moves the center so that (x, y) is under (screenX, screenY) again:
+    lookAt(x - (screenX - viewWidth / 2f) / zoom, y - (screenY - viewHeight / 2f) / zoom);
+  }
+
+  /**
+   * Computes the shortest signed distance from the center of the camera to a coordinate, on the
+   * torus
+   *
+   * @param coordinate x or y-coordinate of the world
+   * @param center     centerX or centerY
+   * @param size       width or height of the world
+   * @return the signed distance, between -size / 2 and size / 2
+   */
+  private static float offset(float coordinate, float center, int size) {
+    float offset = coordinate - center;
+    if (offset > size / 2f) {
+      offset -= size;
+    } else if (offset < -size / 2f) {
+      offset += size;
+    }
+    return offset;
+  }
+
+  /**
+   * Maps an x-coordinate of the world to the window
+   *
+   * @param x x-coordinate of the world
+   * @return the x-coordinate in pixels the point is shown at, possibly outside of the window
+   */
+  public float screenX(float x) {
+    return viewWidth / 2f + offset(x, centerX, worldWidth) * zoom;
+  }
+
+  /**
+   * Maps a y-coordinate of the world to the window
+   *
+   * @param y y-coordinate of the world
+   * @return the y-coordinate in pixels the point is shown at, possibly outside of the window
+   */
+  public float screenY(float y) {
+    return viewHeight / 2f + offset(y, centerY, worldHeight) * zoom;
+  }
+
+  /**
+   * Computes the width of the world on the screen, i.e. how far apart two copies of a point are
+   * shown along the x-axis, e.g. when it straddles an edge of the window showing the whole world
+   *
+   * @return the width of the world in pixels
+   */
+  public float screenWidth() {
+    return worldWidth * zoom;
+  }
+
+  /**
+   * Computes the height of the world on the screen, see screenWidth()
+   *
+   * @return the height of the world in pixels
+   */
+  public float screenHeight() {
+    return worldHeight * zoom;
+  }
+
+  /**
+   * Maps an x-coordinate of the window to the world
+   *
+   * @param screenX x-coordinate in pixels
+   * @return the x-coordinate of the world shown there
+   */
+  public float worldX(float screenX) {
+    return Animal.wrap((centerX + (screenX - viewWidth / 2f) / zoom) % worldWidth, worldWidth);
+  }
+
+  /**
+   * Maps a y-coordinate of the window to the world
+   *
+   * @param screenY y-coordinate in pixels
+   * @return the y-coordinate of the world shown there
+   */
+  public float worldY(float screenY) {
+    return Animal.wrap((centerY + (screenY - viewHeight / 2f) / zoom) % worldHeight, worldHeight);
+  }
+}
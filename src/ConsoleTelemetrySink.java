@@ -0,0 +1,82 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Sink printing each sample in the console, as the park used to, with a single print per batch.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class ConsoleTelemetrySink implements TelemetrySink {
+  private final PrintStream out; // console the samples are printed to
+  private final int tickRate; // ticks per second of the world, which times are printed in
+
+  /**
+   * Creates a sink printing to System.out, for a world ticked at the default rate
+   */
+  public ConsoleTelemetrySink() {
+    this(System.out, FixedTimestep.DEFAULT_TICK_RATE);
+  }
+
+  /**
+   * Creates a sink printing to System.out
+   *
+   * @param tickRate number of ticks per second of the world, which times are printed in
+   */
+  public ConsoleTelemetrySink(int tickRate) {
+    this(System.out, tickRate);
+  }
+
+  /**
+   * Creates a sink printing to a given stream
+   *
+   * @param out      stream the samples are printed to
+   * @param tickRate number of ticks per second of the world, which times are printed in
+   */
+  public ConsoleTelemetrySink(PrintStream out, int tickRate) {
+    if (tickRate < 1) {
+      throw new IllegalArgumentException("tick rate must be positive: " + tickRate);
+    }
+    this.out = out;
+    this.tickRate = tickRate;
+  }
+
+  /**
+   * Prints a batch of samples
+   *
+   * @param batch samples taken since the previous batch
+   */
+  @Override
+  public void write(List<TelemetrySample> batch) {
+    StringBuilder text = new StringBuilder();
+    for (TelemetrySample sample : batch) {
+      text.append(sample.toConsole(tickRate));
+    }
+    out.print(text);
+    out.flush();
+  }
+
+  /**
+   * Does nothing, the console stays open
+   */
+  @Override
+  public void close() {
+  }
+}
@@ -16,25 +16,27 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
- * Defines the properties of and represents a Deer in the JunglePark application
+ * Defines the properties of and represents a Deer in the JunglePark application. A Deer object is
+ * a view of a slot of the deer of its world; the behavior of the deer is defined by the static
+ * methods, which operate on the slots directly.
  * 
  * @author Matthew Karrmann
  *
  */
 
 public class Deer extends Animal {
-  private static final int SCAN_RANGE = 175; // scan range area to check for a threat in the
-                                             // neighborhood
-  private static final String IMAGE_FILE_NAME = "images/deer.png";
-  private static int nextID = 1; // class variable that represents the identifier of the next deer
-                                 // to be created
+  // default scan range area to check for a threat in the neighborhood, see JungleParameters:
+  protected static final int SCAN_RANGE = 175;
+  protected static final String IMAGE_FILE_NAME = "images/deer.png";
 
   private static final String TYPE = "DR"; // A String that represents the deer type
   private final int id; // Deer's id:positive number that represents the order of the deer
-  private static final double SPEED = 2; // number of pixels deer moves per frame
-  // arbitrary exponent distance to tiger is taken to in objective function:
-  private static final double EXPONENT = -2.0;
-  public Integer timeAlive = 0; // how long given deer has been alive for
+  // default number of pixels deer moves per frame, see JungleParameters:
+  protected static final double SPEED = 2;
+  // default arbitrary exponent distance to tiger is taken to in objective function:
+  protected static final double EXPONENT = -2.0;
+  private int timeAlive = 0; // how long given deer has been alive for, while the deer is not part
+                             // of its world
 
   /**
    * Constructor that creates a new Deer object positioned at a random position of the display
@@ -47,9 +49,57 @@ public class Deer extends Animal {
     super(processing, IMAGE_FILE_NAME);
 
     // Set Deer identification fields
-    id = nextID;
+    id = world.takeDeerID();
     this.label = TYPE + id; // String that identifies the current deer
-    nextID++;
+  }
+
+  /**
+   * Constructor that creates a new Deer object positioned at a random position of a headless world
+   * 
+   * @param world world the deer lives in
+   */
+  public Deer(JungleWorld world) {
+    super(world);
+
+    // Set Deer identification fields
+    id = world.takeDeerID();
+    this.label = TYPE + id; // String that identifies the current deer
+  }
+
+  /**
+   * Getter for id
+   * 
+   * @return the deer's id
+   */
+  public int getID() {
+    return id;
+  }
+
+  /**
+   * Getter for timeAlive
+   * 
+   * @return how long given deer has been alive for, in frames
+   */
+  public int getTimeAlive() {
+    return slot >= 0 ? population.timeAlive.get(slot) : timeAlive;
+  }
+
+  /**
+   * Copies the time alive into the deer's slot when it is added to its world
+   */
+  @Override
+  protected void attach(Population population, int slot) {
+    super.attach(population, slot);
+    population.timeAlive.put(slot, timeAlive);
+  }
+
+  /**
+   * Copies the time alive back from the deer's slot when it is removed from its world
+   */
+  @Override
+  protected void detach() {
+    timeAlive = population.timeAlive.get(slot);
+    super.detach();
   }
 
   /**
@@ -60,16 +110,9 @@ public class Deer extends Animal {
    * @return true if threat is found within range, false otherwise
    */
   public boolean scanForThreat(int scanRange) {
-    boolean threatFound = false;
-    // Scan through each element of instance of listGUI
-    for (ParkGUI graphicalObject : processing.listGUI) {
-      // Threat is found if object is a Tiger and isClose returns true
-      if (graphicalObject instanceof Tiger && isClose((Animal) graphicalObject, SCAN_RANGE)) {
-        threatFound = true;
-        break;
-      }
-    }
-    return threatFound;
+    // Threat is found if a tiger of the world is close, as determined by its spatial index
+    return world.anyTigerWithin(getPositionX(), getPositionY(),
+        world.parameters.getDeerScanRange());
   }
 
 
@@ -82,12 +125,25 @@ public class Deer extends Animal {
    * @return x partial derivative of objective function
    */
   public double xDerivative() {
+    return xDerivative(world, getPositionX(), getPositionY());
+  }
+
+  /**
+   * Computes partial derivative with respect to x of objective function of a deer at a given
+   * position. See xDerivative().
+   * 
+   * @param world world the deer lives in
+   * @param x     x-coordinate of the deer
+   * @param y     y-coordinate of the deer
+   * @return x partial derivative of objective function
+   */
+  public static double xDerivative(JungleWorld world, float x, float y) {
     // Sum over the xComponent corresponding to each Tiger:
+    Population tigers = world.tigers;
+    double exponent = world.parameters.getDeerExponent();
     double sum = 0;
-    for (ParkGUI graphicalObject : processing.listGUI) {
-      if (graphicalObject instanceof Tiger) {
-        sum += this.xComponent((Tiger) graphicalObject, EXPONENT);
-      }
+    for (int i = 0; i < tigers.size; ++i) {
+      sum += xComponent(world, x, y, tigers.x.get(i), tigers.y.get(i), exponent);
     }
     return sum;
   }
@@ -101,37 +157,134 @@ public class Deer extends Animal {
    * @return y partial derivative of objective function
    */
   public double yDerivative() {
+    return yDerivative(world, getPositionX(), getPositionY());
+  }
+
+  /**
+   * Computes partial derivative with respect to y of objective function of a deer at a given
+   * position. See yDerivative().
+   * 
+   * @param world world the deer lives in
+   * @param x     x-coordinate of the deer
+   * @param y     y-coordinate of the deer
+   * @return y partial derivative of objective function
+   */
+  public static double yDerivative(JungleWorld world, float x, float y) {
     // Sum over the yComponent corresponding to each Tiger:
+    Population tigers = world.tigers;
+    double exponent = world.parameters.getDeerExponent();
     double sum = 0;
-    for (ParkGUI graphicalObject : processing.listGUI) {
-      if (graphicalObject instanceof Tiger) {
-        sum += this.yComponent((Tiger) graphicalObject, EXPONENT);
-      }
+    for (int i = 0; i < tigers.size; ++i) {
+      sum += yComponent(world, x, y, tigers.x.get(i), tigers.y.get(i), exponent);
     }
     return sum;
   }
 
   /**
-   * Defines the behavior of a Deer object in the Jungle park
+   * Computes both partial derivatives of the objective function, as configured by the gradient mode
+   * of the world
+   * 
+   * @param gradient array the x and y partial derivatives are stored in
+   */
+  public void gradient(double[] gradient) {
+    gradient(world, getPositionX(), getPositionY(), gradient, new int[BarnesHutTree.STACK_SIZE]);
+  }
+
+  /**
+   * Computes both partial derivatives of the objective function of a deer at a given position, as
+   * configured by the gradient mode of the world
+   * 
+   * @param world    world the deer lives in
+   * @param x        x-coordinate of the deer
+   * @param y        y-coordinate of the deer
+   * @param gradient array the x and y partial derivatives are stored in
+   * @param stack    array of BarnesHutTree.STACK_SIZE nodes used by the Barnes-Hut traversal
+   * @return the number of pair interactions evaluated
+   */
+  public static int gradient(JungleWorld world, float x, float y, double[] gradient,
+      int[] stack) {
+    BarnesHutTree tree = world.getTigerTree();
+    GradientField field = world.getTigerField();
+    double exponent = world.parameters.getDeerExponent();
+    if (tree != null) {
+      return tree.gradient(x, y, exponent, gradient, stack);
+    } else if (field != null) {
+      return field.sample(x, y, gradient);
+    } else if (world.getGradientMode() == GradientMode.FUSED) {
+      return fusedGradient(world, x, y, world.tigers, exponent, gradient);
+    } else if (world.getGradientMode() == GradientMode.UNROLLED) {
+      return unrolledGradient(world, x, y, world.tigers, exponent, gradient);
+    } else if (world.getGradientMode() == GradientMode.CUTOFF) {
+      return cutoffGradient(world, x, y, world.tigers, world.getCutoffRadius(), exponent, gradient);
+    } else {
+      gradient[0] = xDerivative(world, x, y);
+      gradient[1] = yDerivative(world, x, y);
+      return world.tigers.aliveCount(); // both derivatives sum over every living animal
+    }
+  }
+
+  /**
+   * Defines the behavior of a Deer object in the Jungle park. A deer which is not part of its world
+   * only returns to the other side of the screen if it left it.
    */
   @Override
   public void action() {
-    // Compute and save partial derivatives:
-    double xDerivative = this.xDerivative();
-    double yDerivative = this.yDerivative();
+    if (slot >= 0) {
+      move(world, slot, new double[2], new int[BarnesHutTree.STACK_SIZE]);
+      population.x.put(slot, population.nextX.get(slot));
+      population.y.put(slot, population.nextY.get(slot));
+    } else {
+      super.action();
+    }
+  }
+
+  /**
+   * Behavior of the deer of a given slot of the world: computes where the deer flees to, according
+   * to the objective function. Only reads the current positions and writes the deer's next
+   * position, so that every animal can move at once. See action().
+   * 
+   * @param world    world the deer lives in
+   * @param deer     slot of the deer
+   * @param gradient array of 2 partial derivatives used as scratch space
+   * @param stack    array of BarnesHutTree.STACK_SIZE nodes used as scratch space
+   * @return the number of pair interactions evaluated
+   */
+  protected static int move(JungleWorld world, int deer, double[] gradient, int[] stack) {
+    Population herd = world.deer;
+    float x = herd.x.get(deer);
+    float y = herd.y.get(deer);
+    // Compute and save partial derivatives, from the neighbor lists of the tick if there are any:
+    NeighborList neighbors = world.getDeerNeighbors();
+    int interactions = neighbors != null
+        ? neighbors.gradient(deer, x, y, world.parameters.getDeerExponent(), gradient)
+        : gradient(world, x, y, gradient, stack);
+    double xDerivative = gradient[0];
+    double yDerivative = gradient[1];
     // Norm of gradient:
     double gradientNorm = Math.sqrt(Math.pow(xDerivative, 2) + Math.pow(yDerivative, 2));
     // If tigers are present, move deer in direction of negative gradient (gradient descent) and
-    // magnitude SPEED and increment time alive
+    // magnitude of the deer speed and increment time alive
     if (gradientNorm > 0) {
-      this.changePosition(-(SPEED * xDerivative / gradientNorm),
-          -(SPEED * yDerivative / gradientNorm));
-      ++timeAlive; // Increment time alive each frame
+      double speed = world.parameters.getDeerSpeed();
+      x += -(speed * xDerivative / gradientNorm);
+      y += -(speed * yDerivative / gradientNorm);
+      herd.timeAlive.put(deer, herd.timeAlive.get(deer) + 1); // Increment time alive each frame
     }
 
-    super.action(); // Returns deer to other side of screen if they leave it
-    // Display time alive above deer:
-    this.processing.text(timeAlive / 60, this.getPositionX(),
-        this.getPositionY() - this.image.height / 2 - 4);
+    // Returns deer to other side of screen if they leave it:
+    herd.nextX.put(deer, wrap(x, world.WIDTH));
+    herd.nextY.put(deer, wrap(y, world.HEIGHT));
+    return interactions;
+  }
+
+  /**
+   * Draws the deer, and how long it has been alive above it
+   */
+  @Override
+  public void draw() {
+    super.draw();
+    // Display time alive above deer, in seconds:
+    this.processing.text(numberLabel(processing.timestep.toSeconds(getTimeAlive())),
+        this.getScreenX(), this.getScreenY() - this.image.height / 2 - 4);
   }
 }
@@ -0,0 +1,30 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Levels of detail a BatchRenderer draws the animals of a world at, from the most detailed to the
+ * cheapest. Denser populations are drawn at cheaper levels, whose cost does not grow with the
+ * number of draw calls.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public enum DetailLevel {
+  SPRITES, // the image of each animal, with its labels while they are readable
+  POINTS, // a dot of the color of its species per animal, drawn as a single image
+  HEATMAP // the number of animals of each species per cell of a coarse grid, drawn as one image
+}
@@ -0,0 +1,208 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Monte-Carlo ensemble of a configuration: many replicas of the same headless world, which only
+ * differ by their seed, run concurrently in a single JVM, and the statistics of their outcome.
+ *
+ * Each replica owns its world, and each world its own identifiers and generator of random numbers,
+ * so that replicas share no state. The seed of each replica is drawn from the seed of the ensemble,
+ * and the outcome of the ensemble does not depend on the number of threads it runs on. Only as many
+ * worlds as threads exist at once, so that hundreds of replicas fit in the memory of one JVM.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class Ensemble {
+  private final List<BatchRun> runs; // replicas of the ensemble, in the order of their seeds
+  private boolean done; // true once every replica was simulated
+
+  /**
+   * Creates an ensemble, which is only simulated once run
+   *
+   * @param parameters speeds, exponents and scan ranges of the worlds
+   * @param tigerCount number of tigers spawned initially in each world
+   * @param deerCount  number of deer spawned initially in each world
+   * @param ticks      maximum number of ticks each world is advanced by
+   * @param width      width of the worlds
+   * @param height     height of the worlds
+   * @param mode       how animals compute the gradient they follow
+   * @param seed       seed the seeds of the replicas are drawn from
+   * @param replicas   number of worlds in the ensemble
+   */
+  public Ensemble(JungleParameters parameters, int tigerCount, int deerCount, int ticks, int width,
+      int height, GradientMode mode, long seed, int replicas) {
+    if (replicas < 1) {
+      throw new IllegalArgumentException("replicas must be positive: " + replicas);
+    }
+    runs = new ArrayList<BatchRun>(replicas);
+    SplitMix64 seeds = new SplitMix64(seed);
+    for (int i = 0; i < replicas; ++i) {
+      runs.add(new BatchRun(parameters, tigerCount, deerCount, seeds.nextLong(), ticks, width,
+          height, mode));
+    }
+  }
+
+  /**
+   * Simulates every replica, at most threads of them at once, and waits until all of them are over
+   *
+   * @param threads number of replicas simulated at once
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public void run(int threads) throws InterruptedException {
+    BatchRunner.runAll(runs, threads);
+    done = true;
+  }
+
+  /**
+   * Getter for runs
+   *
+   * @return the replicas of the ensemble, with their seed and outcome
+   */
+  public List<BatchRun> getRuns() {
+    return Collections.unmodifiableList(runs);
+  }
+
+  /**
+   * Makes sure that the statistics of the ensemble are known
+   */
+  private void checkDone() {
+    if (!done) {
+      throw new IllegalStateException("The ensemble has not been run");
+    }
+  }
+
+  /**
+   * Getter for the number of replicas
+   *
+   * @return the number of worlds in the ensemble
+   */
+  public int getReplicas() {
+    return runs.size();
+  }
+
+  /**
+   * Counts the replicas in which every deer was eaten
+   *
+   * @return the number of extinctions
+   */
+  public int getExtinctions() {
+    checkDone();
+    int extinctions = 0;
+    for (BatchRun run : runs) {
+      extinctions += run.extinct ? 1 : 0;
+    }
+    return extinctions;
+  }
+
+  /**
+   * Computes the fraction of the replicas in which some deer are still alive after a given tick,
+   * i.e. the empirical survival function of the deer
+   *
+   * @param tick number of ticks elapsed, at most the number of ticks the worlds are advanced by
+   * @return the fraction of the replicas in which some deer survived the tick, between 0 and 1
+   */
+  public double getSurvivalFraction(int tick) {
+    checkDone();
+    int survivals = 0;
+    for (BatchRun run : runs) {
+      survivals += run.survivalTime > tick ? 1 : 0;
+    }
+    return (double) survivals / runs.size();
+  }
+
+  /**
+   * Computes the mean survival time of the deer. Survival times of the replicas in which some deer
+   * survived are the number of ticks run, so the mean is a lower bound unless every deer was eaten.
+   *
+   * @return the mean tick at which the last deer was eaten
+   */
+  public double getMeanSurvivalTime() {
+    checkDone();
+    double sum = 0;
+    for (BatchRun run : runs) {
+      sum += run.survivalTime;
+    }
+    return sum / runs.size();
+  }
+
+  /**
+   * Computes the sample standard deviation of the survival time of the deer
+   *
+   * @return the standard deviation of the tick at which the last deer was eaten
+   */
+  public double getSurvivalTimeDeviation() {
+    checkDone();
+    double sum = 0;
+    double squares = 0;
+    for (BatchRun run : runs) {
+      sum += run.survivalTime;
+      squares += (double) run.survivalTime * run.survivalTime;
+    }
+    return BatchRunner.standardDeviation(sum, squares, runs.size());
+  }
+
+  /**
+   * Computes the mean number of deer eaten in a replica
+   *
+   * @return the mean number of deer eaten
+   */
+  public double getMeanDeersEaten() {
+    checkDone();
+    double sum = 0;
+    for (BatchRun run : runs) {
+      sum += run.deersEaten;
+    }
+    return sum / runs.size();
+  }
+
+  /**
+   * Computes the mean longest time alive reached by a deer in a replica
+   *
+   * @return the mean of the longest time alive of each replica
+   */
+  public double getMeanMaxTimeAlive() {
+    checkDone();
+    double sum = 0;
+    for (BatchRun run : runs) {
+      sum += run.maxTimeAlive;
+    }
+    return sum / runs.size();
+  }
+
+  /**
+   * Formats the statistics of the ensemble
+   *
+   * @return the number of replicas and extinctions, and the mean outcome of the replicas
+   */
+  @Override
+  public String toString() {
+    if (!done) {
+      return "Ensemble of " + runs.size() + " replicas, not run";
+    }
+    return String.format(Locale.ROOT,
+        "Ensemble of %d replicas: %d extinctions, survival %.2f (sd %.2f), %.2f deer eaten, "
+            + "max time alive %.2f",
+        runs.size(), getExtinctions(), getMeanSurvivalTime(), getSurvivalTimeDeviation(),
+        getMeanDeersEaten(), getMeanMaxTimeAlive());
+  }
+}
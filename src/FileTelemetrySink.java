@@ -0,0 +1,69 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sink appending each sample to a CSV file, flushed once per batch.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class FileTelemetrySink implements TelemetrySink {
+  private final BufferedWriter writer; // writer of the CSV file
+
+  /**
+   * Creates a sink writing to a new CSV file, starting with its header
+   *
+   * @param file file the samples are written to, replaced if it exists
+   * @throws IOException if the file cannot be created
+   */
+  public FileTelemetrySink(File file) throws IOException {
+    writer = new BufferedWriter(new FileWriter(file));
+    writer.write(TelemetrySample.CSV_HEADER);
+    writer.newLine();
+  }
+
+  /**
+   * Appends a batch of samples to the file
+   *
+   * @param batch samples taken since the previous batch
+   * @throws IOException if the samples cannot be written
+   */
+  @Override
+  public void write(List<TelemetrySample> batch) throws IOException {
+    for (TelemetrySample sample : batch) {
+      writer.write(sample.toCsv());
+      writer.newLine();
+    }
+    writer.flush();
+  }
+
+  /**
+   * Closes the file
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
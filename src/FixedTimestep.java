@@ -0,0 +1,175 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Fixed-timestep clock of a world, decoupling its ticks from the frames of a display window. The
+ * time elapsed between frames is accumulated, and the world is ticked once for each whole time step
+ * accumulated, so that it advances at the same rate whatever the frame rate: several substeps per
+ * frame on a slow display, none on some frames of a fast one. The fraction of a step left in the
+ * accumulator is the interpolation factor the frame is rendered with.
+ *
+ * Since the world only ever advances by whole ticks, its state after a given number of ticks does
+ * not depend on the frames at all. After a stall longer than maxSubsteps steps, the steps which
+ * cannot be caught up are dropped, slowing the simulation down instead of freezing the display.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class FixedTimestep {
+  protected static final int DEFAULT_TICK_RATE = 60; // ticks per second the speeds are tuned for
+
+  private final JungleWorld world; // world ticked by the clock
+  private final int tickRate; // ticks per second
+  private final long stepNanos; // duration of a tick in nanoseconds
+  private int maxSubsteps; // maximum number of ticks run per frame
+  private long accumulator; // nanoseconds elapsed and not simulated yet, less than stepNanos
+                            // between frames
+  private long lastNanos; // time of the last frame, or -1 before the first one
+  private long droppedTicks; // number of ticks dropped after stalls
+
+  /**
+   * Creates a clock ticking a world at a given rate
+   *
+   * @param world       world ticked by the clock
+   * @param tickRate    number of ticks per second, e.g. 240 to run physics at 240 Hz
+   * @param maxSubsteps maximum number of ticks run per frame to catch up after a stall
+   */
+  public FixedTimestep(JungleWorld world, int tickRate, int maxSubsteps) {
+    if (tickRate < 1 || maxSubsteps < 1) {
+      throw new IllegalArgumentException(
+          "tick rate and substeps must be positive: " + tickRate + ", " + maxSubsteps);
+    }
+    this.world = world;
+    this.tickRate = tickRate;
+    this.stepNanos = 1000000000L / tickRate;
+    this.maxSubsteps = maxSubsteps;
+    this.lastNanos = -1;
+  }
+
+  /**
+   * Getter for tickRate
+   *
+   * @return the number of ticks per second
+   */
+  public int getTickRate() {
+    return tickRate;
+  }
+
+  /**
+   * Getter for the time step
+   *
+   * @return the duration of a tick in seconds
+   */
+  public double getTimeStep() {
+    return stepNanos / 1e9;
+  }
+
+  /**
+   * Getter for maxSubsteps
+   *
+   * @return the maximum number of ticks run per frame
+   */
+  public int getMaxSubsteps() {
+    return maxSubsteps;
+  }
+
+  /**
+   * Setter for maxSubsteps
+   *
+   * @param maxSubsteps maximum number of ticks run per frame, must be positive
+   */
+  public void setMaxSubsteps(int maxSubsteps) {
+    if (maxSubsteps < 1) {
+      throw new IllegalArgumentException("substeps must be positive: " + maxSubsteps);
+    }
+    this.maxSubsteps = maxSubsteps;
+  }
+
+  /**
+   * Getter for droppedTicks
+   *
+   * @return the number of ticks which were dropped instead of caught up after stalls
+   */
+  public long getDroppedTicks() {
+    return droppedTicks;
+  }
+
+  /**
+   * Converts a number of ticks into seconds of simulated time
+   *
+   * @param ticks number of ticks
+   * @return the number of whole seconds the ticks last
+   */
+  public int toSeconds(int ticks) {
+    return ticks / tickRate;
+  }
+
+  /**
+   * Advances the world by the time elapsed since the last call, read from System.nanoTime(). The
+   * first call only starts the clock.
+   *
+   * @return the number of ticks run
+   */
+  public int update() {
+    long now = System.nanoTime();
+    long elapsed = lastNanos < 0 ? 0 : now - lastNanos;
+    lastNanos = now;
+    return advance(elapsed);
+  }
+
+  /**
+   * Restarts the clock, so that the time elapsed until the next call to update(), e.g. while the
+   * display was paused, is not simulated
+   */
+  public void restart() {
+    lastNanos = -1;
+  }
+
+  /**
+   * Advances the world by a given duration, running one tick per whole time step accumulated, up to
+   * maxSubsteps ticks
+   *
+   * @param elapsedNanos time elapsed since the last frame in nanoseconds
+   * @return the number of ticks run
+   */
+  public int advance(long elapsedNanos) {
+    accumulator += Math.max(elapsedNanos, 0);
+    int substeps = 0;
+    while (accumulator >= stepNanos && substeps < maxSubsteps) {
+      world.tick();
+      accumulator -= stepNanos;
+      ++substeps;
+    }
+    if (accumulator >= stepNanos) { // stalled: drop the steps which could not be caught up
+      long dropped = accumulator / stepNanos;
+      droppedTicks += dropped;
+      accumulator -= dropped * stepNanos;
+    }
+    return substeps;
+  }
+
+  /**
+   * Computes the interpolation factor of the current frame: the fraction of a step accumulated
+   * since the last tick. Rendering the positions interpolated by this factor between the previous
+   * tick and the last one makes motion smooth even when the tick rate and the frame rate differ.
+   *
+   * @return the fraction of a step elapsed since the last tick, between 0 and 1
+   */
+  public float getAlpha() {
+    return (float) ((double) accumulator / stepNanos);
+  }
+}
@@ -0,0 +1,514 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Gradient field of the objective function with respect to the animals of one species, kept on a
+ * mesh over the torus and used in GradientMode.PARTICLE_MESH, in the manner of particle-mesh
+ * methods. Each animal deposits its mass on the four cells around it (cloud-in-cell), the density
+ * of the mesh is convolved with the gradient of d^a between cell centers, and an animal of the
+ * other species samples the resulting field by interpolating the same four cells, in constant time
+ * whatever the number of animals. Since the domain is periodic, the convolution is computed as a
+ * product of discrete Fourier transforms, so that solving the field takes O(M log M) on a mesh of
+ * M cells, which is a power of two along each side.
+ *
+ * Only the density is updated incrementally, from the moves of the animals since the last update:
+ * each animal whose deposit changed takes its mass back from its previous cells and deposits it on
+ * its new ones. Deposits are fixed-point, so that taking a mass back is exact, and the density
+ * after any number of updates is exactly the density of the current positions: two fields over the
+ * same animals give the same gradients, whatever their history. Adding or removing animals
+ * redeposits every animal, but sweeping the animals eaten during a tick does not: the field is
+ * swept alongside. The field itself is solved again from the whole density whenever any deposit
+ * changed, which in a running world is nearly every tick, so that the solve dominates the cost of
+ * an update; it is only skipped when no animal moved by a fraction of a cell.
+ *
+ * The field approximates the exact sum at the resolution of the mesh: animals within a cell of
+ * each other barely interact, which is harmless here, as such animals are within the scan range
+ * of the tigers.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class GradientField {
+  protected static final int DEFAULT_CELL_SIZE = 8; // default side of the cells, in pixels
+  private static final int MAX_SIDE = 512; // maximum number of cells along each side of the mesh
+  private static final int UNIT = 256; // fixed-point unit of the weight along each axis, so that
+                                       // the four deposits of an animal sum to UNIT * UNIT
+  private static final long NONE = -1; // deposit of an animal whose mass was taken back
+
+  private final JungleWorld world; // world whose animals deposit their mass
+  private final Population population; // animals whose gradient field is computed
+  private final double exp; // exponent distance function is taken to in objective function
+  private final int cellSize; // requested side of the cells, in pixels
+  private final int columns; // number of cells along the x-axis, a power of two
+  private final int rows; // number of cells along the y-axis, a power of two
+  private final double cellWidth; // width of the cells, so that columns cover the world
+  private final double cellHeight; // height of the cells, so that rows cover the world
+  private final long[] density; // fixed-point mass deposited on each cell, row after row
+  private final double[] kernelRe; // real part of the transform of the kernel
+  private final double[] kernelIm; // imaginary part of the transform of the kernel
+  private final double[] fieldX; // x partial derivative at the center of each cell
+  private final double[] fieldY; // y partial derivative at the center of each cell
+  private final double[] re; // real part of the mesh being transformed
+  private final double[] im; // imaginary part of the mesh being transformed
+  private final double[] lineRe; // real part of the row or column being transformed
+  private final double[] lineIm; // imaginary part of the row or column being transformed
+  private final double[] columnCos; // cos(2 pi k / columns) for each twiddle factor k
+  private final double[] columnSin; // sin(2 pi k / columns) for each twiddle factor k
+  private final double[] rowCos; // cos(2 pi k / rows) for each twiddle factor k
+  private final double[] rowSin; // sin(2 pi k / rows) for each twiddle factor k
+  private long[] deposits; // cells and weights of the deposit of each animal, NONE if eaten
+  private int depositedCount; // number of animals when the density was last updated
+  private int layoutVersion; // layout version of the population when its mass was deposited
+  private boolean built; // false until the mass is deposited, and once the field is invalidated
+  private boolean solved; // true if the field is the one of the density
+  private int solves; // number of times the field was solved
+
+  /**
+   * Creates an empty field, whose mass is deposited by the first call to update()
+   *
+   * @param world      world whose animals deposit their mass
+   * @param population animals whose gradient field is computed
+   * @param exp        exponent distance function is taken to in the objective function of the
+   *                   animals sampling the field
+   * @param cellSize   side of the cells in pixels, enlarged so that the mesh has at most
+   *                   MAX_SIDE cells along each side, and adjusted so that a power of two of them
+   *                   covers the world
+   */
+  public GradientField(JungleWorld world, Population population, double exp, int cellSize) {
+    if (cellSize < 1) {
+      throw new IllegalArgumentException("cell size must be positive: " + cellSize);
+    }
+    this.world = world;
+    this.population = population;
+    this.exp = exp;
+    this.cellSize = cellSize;
+    columns = side(world.WIDTH, cellSize);
+    rows = side(world.HEIGHT, cellSize);
+    cellWidth = (double) world.WIDTH / columns;
+    cellHeight = (double) world.HEIGHT / rows;
+    int cells = columns * rows;
+    density = new long[cells];
+    kernelRe = new double[cells];
+    kernelIm = new double[cells];
+    fieldX = new double[cells];
+    fieldY = new double[cells];
+    re = new double[cells];
+    im = new double[cells];
+    lineRe = new double[Math.max(columns, rows)];
+    lineIm = new double[Math.max(columns, rows)];
+    columnCos = new double[columns / 2];
+    columnSin = new double[columns / 2];
+    rowCos = new double[rows / 2];
+    rowSin = new double[rows / 2];
+    twiddles(columnCos, columnSin, columns);
+    twiddles(rowCos, rowSin, rows);
+    deposits = new long[16];
+    transformKernel();
+  }
+
+  /**
+   * Computes the number of cells along one side of the mesh
+   *
+   * @param size     width or height of the world
+   * @param cellSize requested side of the cells
+   * @return the smallest power of two of cells at most cellSize wide covering the side, up to
+   *         MAX_SIDE
+   */
+  private static int side(int size, int cellSize) {
+    int cells = 1;
+    while (cells < MAX_SIDE && (long) cells * cellSize < size) {
+      cells *= 2;
+    }
+    return cells;
+  }
+
+  /**
+   * Fills the tables of twiddle factors of the transforms along one side of the mesh
+   *
+   * @param cos table of the cosines, n / 2 long
+   * @param sin table of the sines, n / 2 long
+   * @param n   number of cells along the side
+   */
+  private static void twiddles(double[] cos, double[] sin, int n) {
+    for (int k = 0; k < cos.length; ++k) {
+      cos[k] = Math.cos(2 * Math.PI * k / n);
+      sin[k] = Math.sin(2 * Math.PI * k / n);
+    }
+  }
+
+  /**
+   * Computes the transform of the kernel: the gradient of d^a at each offset between two cell
+   * centers, on the torus, with its x partial derivative as real part and its y partial derivative
+   * as imaginary part. Since the density is real, the inverse transform of its product with the
+   * kernel holds both partial derivatives of the field at once.
+   */
+  private void transformKernel() {
+    for (int row = 0; row < rows; ++row) {
+      // Shortest offset on the torus, none along a side when both ways are as short:
+      int j = row <= rows / 2 ? row : row - rows;
+      double dy = j == rows / 2 ? 0 : j * cellHeight;
+      double distanceY = j * cellHeight;
+      for (int column = 0; column < columns; ++column) {
+        int i = column <= columns / 2 ? column : column - columns;
+        double dx = i == columns / 2 ? 0 : i * cellWidth;
+        double distanceX = i * cellWidth;
+        int cell = row * columns + column;
+        if (i == 0 && j == 0) {
+          kernelRe[cell] = 0; // an animal does not pull on its own cell
+          kernelIm[cell] = 0;
+          continue;
+        }
+        double factor =
+            Animal.componentFactor(distanceX * distanceX + distanceY * distanceY, exp);
+        kernelRe[cell] = factor * dx;
+        kernelIm[cell] = factor * dy;
+      }
+    }
+    transform(kernelRe, kernelIm, false);
+  }
+
+  /**
+   * Getter for cellSize
+   *
+   * @return the requested side of the cells, in pixels
+   */
+  public int getCellSize() {
+    return cellSize;
+  }
+
+  /**
+   * Getter for columns
+   *
+   * @return the number of cells along the x-axis
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Getter for rows
+   *
+   * @return the number of cells along the y-axis
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Getter for solves
+   *
+   * @return the number of times the field was solved
+   */
+  public int getSolves() {
+    return solves;
+  }
+
+  /**
+   * Invalidates the field, so that the next call to update() redeposits every animal
+   */
+  public void invalidate() {
+    built = false;
+  }
+
+  /**
+   * Computes the deposit of an animal: the cell above and left of it, and its fixed-point weights
+   * along each axis, so that two positions whose deposits are equal leave the density unchanged
+   *
+   * @param x x-coordinate of the animal
+   * @param y y-coordinate of the animal
+   * @return the column, row, x weight and y weight of the deposit, 16 bits each
+   */
+  private long depositOf(float x, float y) {
+    // Coordinates relative to the cell centers, whose integer parts are the cell left or above:
+    double u = x / cellWidth - 0.5;
+    double v = y / cellHeight - 0.5;
+    int column = (int) Math.floor(u);
+    int row = (int) Math.floor(v);
+    // Rounding each axis on its own keeps the four weights summing to UNIT * UNIT exactly:
+    long weightX = Math.round((u - column) * UNIT);
+    long weightY = Math.round((v - row) * UNIT);
+    return (long) (column & (columns - 1)) << 48 | (long) (row & (rows - 1)) << 32
+        | weightX << 16 | weightY; // the masks wrap -1 to the last column or row
+  }
+
+  /**
+   * Adds the mass of an animal to the four cells around it, or takes it back
+   *
+   * @param deposit deposit of the animal, see depositOf()
+   * @param sign    1 to add the mass, -1 to take it back
+   */
+  private void deposit(long deposit, int sign) {
+    int column = (int) (deposit >>> 48);
+    int row = (int) (deposit >>> 32) & 0xffff;
+    int weightX = (int) (deposit >>> 16) & 0xffff;
+    int weightY = (int) deposit & 0xffff;
+    int left = column;
+    int right = (column + 1) & (columns - 1);
+    int top = row * columns;
+    int bottom = ((row + 1) & (rows - 1)) * columns;
+    density[top + left] += sign * (UNIT - weightX) * (UNIT - weightY);
+    density[top + right] += sign * weightX * (UNIT - weightY);
+    density[bottom + left] += sign * (UNIT - weightX) * weightY;
+    density[bottom + right] += sign * weightX * weightY;
+  }
+
+  /**
+   * Brings the field up to date with the positions of the living animals, moving the mass of the
+   * animals whose deposit changed since the last update, or redepositing every animal after animals
+   * were added or removed, then solving the field again if the density changed
+   */
+  public void update() {
+    int size = population.size;
+    if (!built || population.getLayoutVersion() != layoutVersion) {
+      if (deposits.length < size) {
+        deposits = new long[population.capacity()];
+      }
+      Arrays.fill(density, 0);
+      Arrays.fill(deposits, 0, size, NONE);
+      depositedCount = size;
+      layoutVersion = population.getLayoutVersion();
+      built = true;
+      solved = false;
+    }
+    for (int i = 0; i < depositedCount; ++i) {
+      long old = deposits[i];
+      if (!population.isAlive(i)) {
+        if (old != NONE) { // eaten since the last update
+          deposit(old, -1);
+          deposits[i] = NONE;
+          solved = false;
+        }
+        continue;
+      }
+      long current = depositOf(population.x.get(i), population.y.get(i));
+      if (current != old) { // moved by a fraction of a cell at least
+        if (old != NONE) {
+          deposit(old, -1);
+        }
+        deposit(current, 1);
+        deposits[i] = current;
+        solved = false;
+      }
+    }
+    if (!solved) {
+      solve();
+    }
+  }
+
+  /**
+   * Removes the animals marked dead from the field, renumbering the slots of the other ones the way
+   * Population.compact() does. Must be called right before the population is compacted, so that
+   * the field stays valid across the compaction.
+   */
+  public void sweep() {
+    if (!built) {
+      return;
+    }
+    int kept = 0;
+    for (int i = 0; i < depositedCount; ++i) {
+      if (population.isAlive(i)) {
+        deposits[kept++] = deposits[i];
+      } else if (deposits[i] != NONE) { // eaten since the last update
+        deposit(deposits[i], -1);
+        solved = false;
+      }
+    }
+    depositedCount = kept;
+  }
+
+  /**
+   * Convolves the density with the kernel: transforms the density, multiplies it by the transform
+   * of the kernel, and transforms the product back into both partial derivatives of the field
+   */
+  private void solve() {
+    double mass = (double) UNIT * UNIT;
+    for (int cell = 0; cell < density.length; ++cell) {
+      re[cell] = density[cell] / mass;
+      im[cell] = 0;
+    }
+    transform(re, im, false);
+    for (int cell = 0; cell < re.length; ++cell) {
+      double productRe = re[cell] * kernelRe[cell] - im[cell] * kernelIm[cell];
+      double productIm = re[cell] * kernelIm[cell] + im[cell] * kernelRe[cell];
+      re[cell] = productRe;
+      im[cell] = productIm;
+    }
+    transform(re, im, true);
+    double scale = 1.0 / re.length;
+    for (int cell = 0; cell < re.length; ++cell) {
+      fieldX[cell] = re[cell] * scale;
+      fieldY[cell] = im[cell] * scale;
+    }
+    solved = true;
+    ++solves;
+  }
+
+  /**
+   * Computes both partial derivatives of the objective function at a given position, interpolated
+   * between the four cell centers around it
+   *
+   * @param x        x-coordinate of the animal sampling the field
+   * @param y        y-coordinate of the animal sampling the field
+   * @param gradient array the x and y partial derivatives are stored in
+   * @return the number of cells read
+   */
+  public int sample(float x, float y, double[] gradient) {
+    double u = x / cellWidth - 0.5;
+    double v = y / cellHeight - 0.5;
+    int column = (int) Math.floor(u);
+    int row = (int) Math.floor(v);
+    double weightX = u - column;
+    double weightY = v - row;
+    int left = column & (columns - 1);
+    int right = (column + 1) & (columns - 1);
+    int top = (row & (rows - 1)) * columns;
+    int bottom = ((row + 1) & (rows - 1)) * columns;
+    double topLeft = (1 - weightX) * (1 - weightY);
+    double topRight = weightX * (1 - weightY);
+    double bottomLeft = (1 - weightX) * weightY;
+    double bottomRight = weightX * weightY;
+    gradient[0] = topLeft * fieldX[top + left] + topRight * fieldX[top + right]
+        + bottomLeft * fieldX[bottom + left] + bottomRight * fieldX[bottom + right];
+    gradient[1] = topLeft * fieldY[top + left] + topRight * fieldY[top + right]
+        + bottomLeft * fieldY[bottom + left] + bottomRight * fieldY[bottom + right];
+    return 4;
+  }
+
+  /**
+   * Computes the two-dimensional discrete Fourier transform of the mesh in place, row by row then
+   * along the columns. The columns are transformed all at once, with butterflies between whole
+   * rows, so that the mesh is always read along its rows.
+   *
+   * @param re      real part of the mesh
+   * @param im      imaginary part of the mesh
+   * @param inverse true for the inverse transform, without its 1 / M factor
+   */
+  private void transform(double[] re, double[] im, boolean inverse) {
+    for (int row = 0; row < rows; ++row) {
+      int first = row * columns;
+      System.arraycopy(re, first, lineRe, 0, columns);
+      System.arraycopy(im, first, lineIm, 0, columns);
+      transformLine(columns, columnCos, columnSin, inverse);
+      System.arraycopy(lineRe, 0, re, first, columns);
+      System.arraycopy(lineIm, 0, im, first, columns);
+    }
+    // Bit-reversal permutation of the rows:
+    for (int i = 1, j = 0; i < rows; ++i) {
+      j = reverse(i, j, rows);
+      if (i < j) {
+        swapRows(re, i, j);
+        swapRows(im, i, j);
+      }
+    }
+    double sign = inverse ? 1 : -1;
+    for (int length = 2; length <= rows; length <<= 1) {
+      int half = length >> 1;
+      int step = rows / length;
+      for (int first = 0; first < rows; first += length) {
+        for (int k = 0; k < half; ++k) {
+          double twiddleRe = rowCos[k * step];
+          double twiddleIm = sign * rowSin[k * step];
+          int a = (first + k) * columns;
+          int b = a + half * columns;
+          for (int column = 0; column < columns; ++column, ++a, ++b) {
+            double productRe = re[b] * twiddleRe - im[b] * twiddleIm;
+            double productIm = re[b] * twiddleIm + im[b] * twiddleRe;
+            re[b] = re[a] - productRe;
+            im[b] = im[a] - productIm;
+            re[a] += productRe;
+            im[a] += productIm;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the next index of the bit-reversal permutation
+   *
+   * @param i index, from 1 to n - 1 in turn
+   * @param j bit reversal of i - 1
+   * @param n length of the permutation, a power of two
+   * @return the bit reversal of i
+   */
+  private static int reverse(int i, int j, int n) {
+    int bit = n >> 1;
+    while ((j & bit) != 0) {
+      j ^= bit;
+      bit >>= 1;
+    }
+    return j | bit;
+  }
+
+  /**
+   * Swaps two rows of the mesh
+   *
+   * @param mesh real or imaginary part of the mesh
+   * @param i    first row
+   * @param j    second row
+   */
+  private void swapRows(double[] mesh, int i, int j) {
+    System.arraycopy(mesh, i * columns, lineRe, 0, columns);
+    System.arraycopy(mesh, j * columns, mesh, i * columns, columns);
+    System.arraycopy(lineRe, 0, mesh, j * columns, columns);
+  }
+
+  /**
+   * Computes the discrete Fourier transform of the line held by lineRe and lineIm in place, with
+   * the iterative radix-2 Cooley-Tukey algorithm
+   *
+   * @param n       length of the line, a power of two
+   * @param cos     cosines of the twiddle factors of the line
+   * @param sin     sines of the twiddle factors of the line
+   * @param inverse true for the inverse transform, without its 1 / n factor
+   */
+  private void transformLine(int n, double[] cos, double[] sin, boolean inverse) {
+    // Bit-reversal permutation:
+    for (int i = 1, j = 0; i < n; ++i) {
+      j = reverse(i, j, n);
+      if (i < j) {
+        double swap = lineRe[i];
+        lineRe[i] = lineRe[j];
+        lineRe[j] = swap;
+        swap = lineIm[i];
+        lineIm[i] = lineIm[j];
+        lineIm[j] = swap;
+      }
+    }
+    double sign = inverse ? 1 : -1; // e^(-2 pi i k / n) forward, e^(2 pi i k / n) backward
+    for (int length = 2; length <= n; length <<= 1) {
+      int half = length >> 1;
+      int step = n / length;
+      for (int first = 0; first < n; first += length) {
+        for (int k = 0; k < half; ++k) {
+          double twiddleRe = cos[k * step];
+          double twiddleIm = sign * sin[k * step];
+          int a = first + k;
+          int b = a + half;
+          double productRe = lineRe[b] * twiddleRe - lineIm[b] * twiddleIm;
+          double productIm = lineRe[b] * twiddleIm + lineIm[b] * twiddleRe;
+          lineRe[b] = lineRe[a] - productRe;
+          lineIm[b] = lineIm[a] - productIm;
+          lineRe[a] += productRe;
+          lineIm[a] += productIm;
+        }
+      }
+    }
+  }
+}
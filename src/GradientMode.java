@@ -0,0 +1,31 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Ways a JungleWorld can compute the gradient of the objective function each animal follows.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public enum GradientMode {
+  EXACT, // sums the contribution of every animal of the opposite species
+  FUSED, // same sum as EXACT, computing both partial derivatives in a single pass
+  BARNES_HUT, // approximates far away groups of animals by their center of mass
+  UNROLLED, // same sum as FUSED, four animals at a time without branches
+  CUTOFF, // only sums the animals within a cutoff radius, found through Verlet neighbor lists
+  PARTICLE_MESH // interpolates a gradient field solved on a mesh over the torus
+}
@@ -0,0 +1,140 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative values, such as durations in nanoseconds, with logarithmic buckets:
+ * each power of two is split into 8 buckets, so that percentiles are accurate within 12.5% whatever
+ * the magnitude of the values. Recording is constant time and does not allocate, so that it can be
+ * done on every tick.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class Histogram {
+  private static final int SUB_BUCKETS = 8; // buckets per power of two
+  private static final int SUB_BITS = 3; // log2(SUB_BUCKETS)
+  private static final int LINEAR = 2 * SUB_BUCKETS; // values below this have their own bucket
+  private static final int BUCKETS = LINEAR + (64 - SUB_BITS - 2) * SUB_BUCKETS;
+
+  private final long[] counts = new long[BUCKETS]; // number of values recorded in each bucket
+  private long count; // number of values recorded
+  private long total; // sum of the values recorded
+  private long max; // largest value recorded
+
+  /**
+   * Computes the bucket a value is counted in
+   *
+   * @param value non-negative value
+   * @return index of the bucket of the value
+   */
+  private static int bucket(long value) {
+    if (value < LINEAR) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value); // at least SUB_BITS + 1
+    int subBucket = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return LINEAR + (exponent - SUB_BITS - 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Computes the largest value counted in a bucket
+   *
+   * @param bucket index of the bucket
+   * @return the upper bound of the bucket, inclusive
+   */
+  private static long upperBound(int bucket) {
+    if (bucket < LINEAR) {
+      return bucket;
+    }
+    int exponent = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+    int subBucket = (bucket - LINEAR) % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BITS)) - 1;
+  }
+
+  /**
+   * Records a value
+   *
+   * @param value value to be recorded, negative values are counted as 0
+   */
+  public void record(long value) {
+    value = Math.max(value, 0);
+    ++counts[bucket(value)];
+    ++count;
+    total += value;
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Getter for count
+   *
+   * @return the number of values recorded
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Getter for max
+   *
+   * @return the largest value recorded
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Computes the mean of the values recorded
+   *
+   * @return the mean value, or 0 if none was recorded
+   */
+  public double getMean() {
+    return count == 0 ? 0 : (double) total / count;
+  }
+
+  /**
+   * Computes a percentile of the values recorded, e.g. 50 for the median
+   *
+   * @param percentile percentage of the values which are at most the result, from 0 to 100
+   * @return the upper bound of the bucket of the percentile, or 0 if no value was recorded
+   */
+  public long getPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBound(i), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Forgets every value recorded
+   */
+  public void reset() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    total = 0;
+    max = 0;
+  }
+}
@@ -0,0 +1,77 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.HashMap;
+
+/**
+ * Cache of the images of a display window, keyed by file name. Every animal of a species shares
+ * the same PImage, so that spawning an animal neither reads its image from disk nor stores another
+ * copy of it. Headless worlds have no display window, and therefore never load any image.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class ImageCache {
+  private final PApplet processing; // display window the images are loaded for
+  private final HashMap<String, PImage> images; // images loaded so far, keyed by file name
+
+  /**
+   * Creates an empty cache
+   *
+   * @param processing display window the images are loaded for
+   */
+  public ImageCache(PApplet processing) {
+    this.processing = processing;
+    this.images = new HashMap<String, PImage>();
+  }
+
+  /**
+   * Gets the image of a file, loading it the first time it is requested
+   *
+   * @param fileName name of the image file
+   * @return the image shared by every caller requesting the same file
+   */
+  public PImage get(String fileName) {
+    PImage image = images.get(fileName);
+    if (image == null) {
+      image = processing.loadImage(fileName);
+      images.put(fileName, image);
+    }
+    return image;
+  }
+
+  /**
+   * Loads images ahead of time, e.g. in setup(), so that the first animals spawned afterwards do not
+   * wait for the disk
+   *
+   * @param fileNames names of the image files
+   */
+  public void preload(String... fileNames) {
+    for (String fileName : fileNames) {
+      get(fileName);
+    }
+  }
+
+  /**
+   * Getter for the number of images loaded
+   *
+   * @return the number of images currently in the cache
+   */
+  public int size() {
+    return images.size();
+  }
+}
@@ -0,0 +1,229 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Headless benchmarks of the simulation hot paths, run like JMH benchmarks: each benchmark is
+ * warmed up for a few iterations so that the JIT compiles it, then measured for a few more, and its
+ * mean time per operation is printed with the standard deviation across iterations. Results are
+ * accumulated into a sink so that the JIT cannot eliminate the measured code.
+ *
+ * Every benchmark runs on a world of the given population size, made of that many deer and one
+ * tiger per hundred deer. The pairwise kernels (distanceSquared, xComponent/yComponent) count one
+ * sweep over every deer of the world as an operation, the derivative sums one animal's gradient,
+ * scanForThreat one deer's scan and tick one full tick of the world.
+ *
+ * Usage: java JungleBenchmarks [sizes] [modes] [filter], e.g. java JungleBenchmarks 100,1000 FUSED
+ * tick, where sizes defaults to 100,1000,10000,100000, modes to every GradientMode, and only
+ * benchmarks whose name contains filter are run.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class JungleBenchmarks {
+  private static final int WARMUP_ITERATIONS = 3; // iterations run before measuring
+  private static final int MEASUREMENT_ITERATIONS = 5; // iterations measured
+  private static final long ITERATION_NANOS = 200000000L; // minimum duration of an iteration
+  private static final long SEED = 42; // seed of the worlds benchmarked
+
+  private static double sink; // receives every result, so that no benchmark is optimized away
+
+  /**
+   * Creates a world populated for the benchmarks
+   *
+   * @param size number of deer of the world
+   * @param mode how animals compute the gradient they follow
+   * @return the new world
+   */
+  private static JungleWorld createWorld(int size, GradientMode mode) {
+    JungleWorld world = new JungleWorld(800, 632, SEED);
+    world.setGradientMode(mode);
+    for (int i = 0; i < Math.max(size / 100, 1); ++i) {
+      world.spawnTiger();
+    }
+    for (int i = 0; i < size; ++i) {
+      world.spawnDeer();
+    }
+    return world;
+  }
+
+  /**
+   * Warms up and measures a benchmark, and prints its mean time per operation
+   *
+   * @param name      name of the benchmark
+   * @param size      population size the benchmark runs on
+   * @param mode      gradient mode the benchmark runs with
+   * @param benchmark operation measured, returning a result for the sink
+   */
+  private static void measure(String name, int size, GradientMode mode, DoubleSupplier benchmark) {
+    double[] nanosPerOp = new double[MEASUREMENT_ITERATIONS];
+    for (int iteration = -WARMUP_ITERATIONS; iteration < MEASUREMENT_ITERATIONS; ++iteration) {
+      double result = 0;
+      long ops = 0;
+      long start = System.nanoTime();
+      long elapsed;
+      do { // run the operation until the iteration lasted long enough
+        result += benchmark.getAsDouble();
+        ++ops;
+        elapsed = System.nanoTime() - start;
+      } while (elapsed < ITERATION_NANOS);
+      sink += result;
+      if (iteration >= 0) {
+        nanosPerOp[iteration] = (double) elapsed / ops;
+      }
+    }
+
+    double mean = 0;
+    for (double value : nanosPerOp) {
+      mean += value / MEASUREMENT_ITERATIONS;
+    }
+    double variance = 0;
+    for (double value : nanosPerOp) {
+      variance += (value - mean) * (value - mean) / (MEASUREMENT_ITERATIONS - 1);
+    }
+    System.out.printf("%-20s %8d %-11s %16.1f %14.1f%n", name, size, mode, mean,
+        Math.sqrt(variance));
+  }
+
+  /**
+   * Runs the benchmarks of the pairwise kernels of Animal, which do not depend on the gradient mode
+   *
+   * @param size   population size the benchmarks run on
+   * @param filter only benchmarks whose name contains filter are run
+   */
+  private static void benchmarkKernels(int size, String filter) {
+    final JungleWorld world = createWorld(size, GradientMode.EXACT);
+    final Population deer = world.getDeer();
+    if ("distanceSquared".contains(filter)) {
+      measure("distanceSquared", size, GradientMode.EXACT, new DoubleSupplier() {
+        @Override
+        public double getAsDouble() {
+          double sum = 0;
+          for (int i = 0; i < deer.size(); ++i) {
+            sum += Animal.distanceSquared(world, 400, 300, deer.x.get(i), deer.y.get(i));
+          }
+          return sum;
+        }
+      });
+    }
+    if ("xComponent/yComponent".contains(filter)) {
+      measure("xComponent/yComponent", size, GradientMode.EXACT, new DoubleSupplier() {
+        @Override
+        public double getAsDouble() {
+          double sum = 0;
+          for (int i = 0; i < deer.size(); ++i) {
+            sum += Animal.xComponent(world, 400, 300, deer.x.get(i), deer.y.get(i), -2.0);
+            sum += Animal.yComponent(world, 400, 300, deer.x.get(i), deer.y.get(i), -2.0);
+          }
+          return sum;
+        }
+      });
+    }
+  }
+
+  /**
+   * Runs the benchmarks whose cost depends on the gradient mode
+   *
+   * @param size   population size the benchmarks run on
+   * @param mode   gradient mode the benchmarks run with
+   * @param filter only benchmarks whose name contains filter are run
+   */
+  private static void benchmarkModes(final int size, final GradientMode mode, String filter) {
+    final JungleWorld world = createWorld(size, mode);
+    final double[] gradient = new double[2];
+    final int[] stack = new int[BarnesHutTree.STACK_SIZE];
+    if ("Tiger.gradient".contains(filter)) {
+      measure("Tiger.gradient", size, mode, new DoubleSupplier() {
+        private int next; // tiger whose gradient is computed next
+
+        @Override
+        public double getAsDouble() {
+          Population tigers = world.getTigers();
+          next = (next + 1) % tigers.size();
+          Tiger.gradient(world, tigers.x.get(next), tigers.y.get(next), gradient, stack);
+          return gradient[0] + gradient[1];
+        }
+      });
+    }
+    if ("Deer.gradient".contains(filter)) {
+      measure("Deer.gradient", size, mode, new DoubleSupplier() {
+        private int next; // deer whose gradient is computed next
+
+        @Override
+        public double getAsDouble() {
+          Population deer = world.getDeer();
+          next = (next + 1) % deer.size();
+          Deer.gradient(world, deer.x.get(next), deer.y.get(next), gradient, stack);
+          return gradient[0] + gradient[1];
+        }
+      });
+    }
+    if ("Deer.scanForThreat".contains(filter)) {
+      final Deer deer = new Deer(world);
+      world.add(deer);
+      measure("Deer.scanForThreat", size, mode, new DoubleSupplier() {
+        @Override
+        public double getAsDouble() {
+          return deer.scanForThreat(Deer.SCAN_RANGE) ? 1 : 0;
+        }
+      });
+    }
+    if ("tick".contains(filter)) {
+      measure("tick", size, mode, new DoubleSupplier() {
+        private JungleWorld ticked = createWorld(size, mode); // world advanced by the benchmark
+
+        @Override
+        public double getAsDouble() {
+          if (ticked.tickCounter == 60) {
+            ticked = createWorld(size, mode); // keep the population close to its initial size
+          }
+          ticked.tick();
+          return ticked.getDeer().x.get(0);
+        }
+      });
+    }
+  }
+
+  /**
+   * Runs the benchmarks and prints a table of their results
+   *
+   * @param args optional comma separated sizes, comma separated gradient modes and name filter
+   */
+  public static void main(String[] args) {
+    String[] sizes = (args.length > 0 ? args[0] : "100,1000,10000,100000").split(",");
+    GradientMode[] modes = GradientMode.values();
+    if (args.length > 1) {
+      String[] names = args[1].split(",");
+      modes = new GradientMode[names.length];
+      for (int i = 0; i < names.length; ++i) {
+        modes[i] = GradientMode.valueOf(names[i].toUpperCase());
+      }
+    }
+    String filter = args.length > 2 ? args[2] : "";
+
+    System.out.printf("%-20s %8s %-11s %16s %14s%n", "Benchmark", "Size", "Mode", "ns/op",
+        "Error (sd)");
+    for (String size : sizes) {
+      benchmarkKernels(Integer.parseInt(size), filter);
+      for (GradientMode mode : modes) {
+        benchmarkModes(Integer.parseInt(size), mode, filter);
+      }
+    }
+    System.out.println("Sink: " + sink);
+  }
+}
@@ -0,0 +1,228 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Parameters of the dynamics of a world: how fast each species moves, the exponent of the distance
+ * in its objective function, and its scan range. A new object holds the constants of Tiger and
+ * Deer; a world copies the parameters it is created with, so that changing them afterwards only
+ * affects the worlds created from then on.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class JungleParameters {
+  private double tigerSpeed; // number of pixels tigers move per tick
+  private double tigerExponent; // exponent of the distance to deer in the tigers' objective
+  private int tigerScanRange; // range within which tigers eat deer
+  private double deerSpeed; // number of pixels deer move per tick
+  private double deerExponent; // exponent of the distance to tigers in the deer's objective
+  private int deerScanRange; // range within which deer see a threat
+
+  /**
+   * Creates the default parameters, i.e. the constants of Tiger and Deer
+   */
+  public JungleParameters() {
+    tigerSpeed = Tiger.SPEED;
+    tigerExponent = Tiger.EXPONENT;
+    tigerScanRange = Tiger.SCAN_RANGE;
+    deerSpeed = Deer.SPEED;
+    deerExponent = Deer.EXPONENT;
+    deerScanRange = Deer.SCAN_RANGE;
+  }
+
+  /**
+   * Creates a copy of other parameters
+   *
+   * @param other parameters to be copied
+   */
+  public JungleParameters(JungleParameters other) {
+    tigerSpeed = other.tigerSpeed;
+    tigerExponent = other.tigerExponent;
+    tigerScanRange = other.tigerScanRange;
+    deerSpeed = other.deerSpeed;
+    deerExponent = other.deerExponent;
+    deerScanRange = other.deerScanRange;
+  }
+
+  /**
+   * Checks that a scan range can be indexed, i.e. that it is positive
+   *
+   * @param scanRange scan range to be checked
+   * @return the scan range
+   */
+  private static int checkScanRange(int scanRange) {
+    if (scanRange <= 0) {
+      throw new IllegalArgumentException("scan range must be positive: " + scanRange);
+    }
+    return scanRange;
+  }
+
+  /**
+   * Getter for tigerSpeed
+   *
+   * @return the number of pixels tigers move per tick
+   */
+  public double getTigerSpeed() {
+    return tigerSpeed;
+  }
+
+  /**
+   * Setter for tigerSpeed
+   *
+   * @param tigerSpeed number of pixels tigers move per tick
+   */
+  public void setTigerSpeed(double tigerSpeed) {
+    this.tigerSpeed = tigerSpeed;
+  }
+
+  /**
+   * Getter for tigerExponent
+   *
+   * @return the exponent of the distance to deer in the tigers' objective function
+   */
+  public double getTigerExponent() {
+    return tigerExponent;
+  }
+
+  /**
+   * Setter for tigerExponent
+   *
+   * @param tigerExponent exponent of the distance to deer in the tigers' objective function
+   */
+  public void setTigerExponent(double tigerExponent) {
+    this.tigerExponent = tigerExponent;
+  }
+
+  /**
+   * Getter for tigerScanRange
+   *
+   * @return the range within which tigers eat deer
+   */
+  public int getTigerScanRange() {
+    return tigerScanRange;
+  }
+
+  /**
+   * Setter for tigerScanRange
+   *
+   * @param tigerScanRange range within which tigers eat deer, must be positive
+   */
+  public void setTigerScanRange(int tigerScanRange) {
+    this.tigerScanRange = checkScanRange(tigerScanRange);
+  }
+
+  /**
+   * Getter for deerSpeed
+   *
+   * @return the number of pixels deer move per tick
+   */
+  public double getDeerSpeed() {
+    return deerSpeed;
+  }
+
+  /**
+   * Setter for deerSpeed
+   *
+   * @param deerSpeed number of pixels deer move per tick
+   */
+  public void setDeerSpeed(double deerSpeed) {
+    this.deerSpeed = deerSpeed;
+  }
+
+  /**
+   * Getter for deerExponent
+   *
+   * @return the exponent of the distance to tigers in the deer's objective function
+   */
+  public double getDeerExponent() {
+    return deerExponent;
+  }
+
+  /**
+   * Setter for deerExponent
+   *
+   * @param deerExponent exponent of the distance to tigers in the deer's objective function
+   */
+  public void setDeerExponent(double deerExponent) {
+    this.deerExponent = deerExponent;
+  }
+
+  /**
+   * Getter for deerScanRange
+   *
+   * @return the range within which deer see a threat
+   */
+  public int getDeerScanRange() {
+    return deerScanRange;
+  }
+
+  /**
+   * Setter for deerScanRange
+   *
+   * @param deerScanRange range within which deer see a threat, must be positive
+   */
+  public void setDeerScanRange(int deerScanRange) {
+    this.deerScanRange = checkScanRange(deerScanRange);
+  }
+
+  /**
+   * Compares these parameters to another object
+   *
+   * @param other object to be compared
+   * @return true if other are parameters with the same values, false otherwise
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof JungleParameters)) {
+      return false;
+    }
+    JungleParameters that = (JungleParameters) other;
+    return Double.compare(tigerSpeed, that.tigerSpeed) == 0
+        && Double.compare(tigerExponent, that.tigerExponent) == 0
+        && tigerScanRange == that.tigerScanRange && Double.compare(deerSpeed, that.deerSpeed) == 0
+        && Double.compare(deerExponent, that.deerExponent) == 0
+        && deerScanRange == that.deerScanRange;
+  }
+
+  /**
+   * Computes a hash code consistent with equals()
+   *
+   * @return the hash code of the parameters
+   */
+  @Override
+  public int hashCode() {
+    long hash = Double.doubleToLongBits(tigerSpeed);
+    hash = 31 * hash + Double.doubleToLongBits(tigerExponent);
+    hash = 31 * hash + tigerScanRange;
+    hash = 31 * hash + Double.doubleToLongBits(deerSpeed);
+    hash = 31 * hash + Double.doubleToLongBits(deerExponent);
+    hash = 31 * hash + deerScanRange;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  /**
+   * Describes the parameters
+   *
+   * @return the value of each parameter
+   */
+  @Override
+  public String toString() {
+    return "tigerSpeed=" + tigerSpeed + " tigerExponent=" + tigerExponent + " tigerScanRange="
+        + tigerScanRange + " deerSpeed=" + deerSpeed + " deerExponent=" + deerExponent
+        + " deerScanRange=" + deerScanRange;
+  }
+}
@@ -16,6 +16,9 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 
 /**
@@ -26,13 +29,25 @@ import java.util.ArrayList;
  */
 public class JunglePark extends PApplet {
   private PImage backgroundImage; // PImage object that represents the background image
-  // ArrayList storing the current graphical objects(animals present in the Jungle Park and buttons)
+  // ArrayList storing the current graphical objects other than animals (buttons)
   protected ArrayList<ParkGUI> listGUI;
+  protected JungleWorld world; // simulated world whose animals are rendered by this applet
+  protected ImageCache images; // images of the display window, shared by every animal
+  protected BatchRenderer renderer; // draws the animals of the world species by species
+  protected Camera camera; // part of the world shown by the display window
+  protected FixedTimestep timestep; // clock ticking the world independently of the frame rate
+  protected TrajectoryRecorder recorder; // records the trajectories of the animals, or null if not
+  private static Long seed; // seed of the world given on the command line, or null if none
+  // ticks per second given on the command line:
+  private static int tickRate = FixedTimestep.DEFAULT_TICK_RATE;
+  // dimensions of the world given on the command line, independent of the display window:
+  private static int worldWidth = 800;
+  private static int worldHeight = 632;
+  // prefix of the trajectory files given on the command line, or null if not recorded:
+  private static Path trajectories;
 
   protected final int WIDTH = 800;
   protected final int HEIGHT = 632;
-  public int frameCounter;
-  public int deersEaten;
 
   /**
    * CallBack method Defines initial environment properties such as screen size and to load
@@ -54,62 +69,61 @@ public class JunglePark extends PApplet {
     // rect() method draws a rectangle to the display window
     this.focused = true; // Confirms that our Processing program is "focused," meaning that
     // it is active and will accept mouse or keyboard input.
-    backgroundImage = this.loadImage("images/background.png"); // load the background image
+    images = new ImageCache(this); // load every image once, before any animal is spawned
+    images.preload(Tiger.IMAGE_FILE_NAME, Deer.IMAGE_FILE_NAME);
+    backgroundImage = images.get("images/background.png"); // load the background image
+    renderer = new BatchRenderer(this);
 
     listGUI = new ArrayList<ParkGUI>(); // create the listGUI ArrayList that would store all the
-    // graphic objects (animals and buttons) that would be drawn on the display window
+    // graphic objects (buttons) that would be drawn on the display window
+    // create the world whose animals are displayed, reproducible if a seed was given. Speeds are
+    // in pixels per tick, tuned for the default tick rate: scale them so that animals move as fast
+    // on screen whatever the tick rate.
+    JungleParameters parameters = new JungleParameters();
+    double perTick = (double) FixedTimestep.DEFAULT_TICK_RATE / tickRate;
+    parameters.setTigerSpeed(parameters.getTigerSpeed() * perTick);
+    parameters.setDeerSpeed(parameters.getDeerSpeed() * perTick);
+    world = new JungleWorld(worldWidth, worldHeight,
+        seed == null ? SplitMix64.randomSeed() : seed, parameters);
+    camera = new Camera(worldWidth, worldHeight, WIDTH, HEIGHT);
+    // tick the world at a fixed rate, catching up to a quarter of a second after a stall
+    timestep = new FixedTimestep(world, tickRate, Math.max(tickRate / 4, 1));
+    // print information related to the current status in the console every half second, from a
+    // background thread so that console output does not hitch the frames
+    world.addTickListener(
+        new TelemetryReporter(Math.max(tickRate / 2, 1), new ConsoleTelemetrySink(tickRate)));
+    if (trajectories != null) {
+      recorder = new TrajectoryRecorder(trajectories, 1, true);
+      world.addTickListener(recorder);
+    }
 
     listGUI.add(new AddAnimalButton("Tiger", 43, 16, this));
     listGUI.add(new AddAnimalButton("Deer", 129, 16, this));
     listGUI.add(new ClearButton(215, 16, this));
-    frameCounter = 0;
-    deersEaten = 0;
   }
 
   /**
-   * Sets the size of the application display window
+   * Callback method called when the application stops. Closes the trajectory recorder, so that
+   * every recorded frame is written to disk.
    */
   @Override
-  public void settings() {
-    size(WIDTH, HEIGHT); // sets the size of the display window to 800 x 632 pixels
+  public void dispose() {
+    if (recorder != null) {
+      try {
+        recorder.close();
+      } catch (IOException e) {
+        System.out.println("Could not close the trajectory recorder: " + e.getMessage());
+      }
+    }
+    super.dispose();
   }
 
   /**
-   * Prints information related to current status in console.
-   * 
+   * Sets the size of the application display window
    */
-  private void printInfo() {
-    // Counts number of deer and tigers currently alive and, if info is to be displayed this frame,
-    // determines how long the longest living deer has been alive:
-    int deerCount = 0;
-    int tigerCount = 0;
-    int maxTimeAlive = 0;
-    for (ParkGUI graphicalObject : listGUI) {
-      if (graphicalObject instanceof Deer) {
-        ++deerCount;
-        if (frameCount % 30 == 0 && ((Deer) graphicalObject).timeAlive > maxTimeAlive) {
-          maxTimeAlive = ((Deer) graphicalObject).timeAlive;
-        }
-      }
-    }
-    for (ParkGUI graphicalObject : listGUI) {
-      if (graphicalObject instanceof Tiger) {
-        ++tigerCount;
-      }
-    }
-
-    // Every 30 frames, print info in console
-    if (frameCount % 30 == 0) {
-      System.out.println();
-      System.out.println("---------------");
-      System.out.println("Time: " + (frameCounter) / 60);
-      System.out.println("Deer count: " + deerCount);
-      System.out.println("Tiger count: " + tigerCount);
-      System.out.println("Max time alive: " + maxTimeAlive / 60);
-      System.out.println("Deers eaten: " + deersEaten);
-      System.out.println("---------------");
-      System.out.println();
-    }
+  @Override
+  public void settings() {
+    size(WIDTH, HEIGHT); // sets the size of the display window to 800 x 632 pixels
   }
 
   /**
@@ -122,39 +136,71 @@ public class JunglePark extends PApplet {
     this.image(backgroundImage, this.width / 2, this.height / 2); // draw the background image
                                                                   // at
     // the center of the display window
-    // traverse the tigers array and draw each stored tiger
+    // advance the simulation by as many ticks as time elapsed since the last frame, then sample it
+    // in between its last two ticks
+    timestep.update();
+    // draw the buttons, then the animals of the world in one pass per species
+    long renderStart = System.nanoTime();
     for (int i = 0; i < listGUI.size(); i++)
       listGUI.get(i).draw();
-    ++frameCounter;
-    this.printInfo();
+    renderer.draw(world);
+    world.getMetrics().record(TickPhase.RENDER, System.nanoTime() - renderStart);
     // ALTERNATIVE DEMONSTRATION: Add a set number of tigers and deer at the launch of application
     // or whenever all have been removed.
-    // if (deerCount == 0) {
+    // if (world.deer.size() == 0) {
     // for (int i = 0; i < 75; ++i) {
-    // listGUI.add(new Deer(this));
+    // world.add(new Deer(this));
     // }
     // }
-    // if (tigerCount == 0) {
+    // if (world.tigers.size() == 0) {
     // for (int j = 0; j < 10; ++j) {
-    // listGUI.add(new Tiger(this));
+    // world.add(new Tiger(this));
     // }
     // }
   }
 
 
 
+  /**
+   * Getter for the interpolation factor of the current frame
+   * 
+   * @return the fraction of a tick elapsed since the last tick of the world, see
+   *         FixedTimestep.getAlpha()
+   */
+  public float getInterpolation() {
+    return timestep == null ? 1 : timestep.getAlpha();
+  }
+
   /**
    * Callback method called each time the user presses the mouse
    */
   @Override
   public void mousePressed() {
-    // traverse listGUI and call mousePressed() of the first graphical object which the mouse is
-    // over
+    // traverse listGUI, then the animals of the world, and call mousePressed() of the first
+    // graphical object which the mouse is over
     for (int i = 0; i < listGUI.size(); i++)
       if (listGUI.get(i).isMouseOver()) {
         listGUI.get(i).mousePressed();
-        break;
+        return;
       }
+    Animal animal = animalUnderMouse();
+    if (animal != null)
+      animal.mousePressed();
+  }
+
+  /**
+   * Finds the first animal of the world which the mouse is over
+   * 
+   * @return the animal under the mouse, or null if there is none
+   */
+  private Animal animalUnderMouse() {
+    for (int i = 0; i < world.tigers.size(); i++)
+      if (world.tigers.view(i) != null && world.tigers.view(i).isMouseOver())
+        return world.tigers.view(i);
+    for (int i = 0; i < world.deer.size(); i++)
+      if (world.deer.view(i) != null && world.deer.view(i).isMouseOver())
+        return world.deer.view(i);
+    return null;
   }
 
   /**
@@ -165,6 +211,33 @@ public class JunglePark extends PApplet {
     // traverse listGUI and call mouseReleased() method defined for every graphic object
     for (int i = 0; i < listGUI.size(); i++)
       listGUI.get(i).mouseReleased();
+    for (int i = 0; i < world.tigers.size(); i++)
+      if (world.tigers.view(i) != null)
+        world.tigers.view(i).mouseReleased();
+    for (int i = 0; i < world.deer.size(); i++)
+      if (world.deer.view(i) != null)
+        world.deer.view(i).mouseReleased();
+  }
+
+  /**
+   * Callback method called each time the mouse moves while a button is pressed: dragging with the
+   * right button pans the camera
+   */
+  @Override
+  public void mouseDragged() {
+    if (mouseButton == RIGHT)
+      camera.pan(pmouseX - mouseX, pmouseY - mouseY);
+  }
+
+  /**
+   * Callback method called each time the mouse wheel turns: zooms the camera in or out around the
+   * mouse
+   * 
+   * @param event wheel event, whose amount is negative when the wheel turns up
+   */
+  @Override
+  public void mouseWheel(MouseEvent event) {
+    camera.zoomAt((float) Math.pow(1.1, -event.getCount()), mouseX, mouseY);
   }
 
   /**
@@ -172,22 +245,52 @@ public class JunglePark extends PApplet {
    */
   @Override
   public void keyPressed() {
+    if (this.key == CODED) { // the arrow keys pan the camera by a tenth of the window
+      switch (this.keyCode) {
+        case LEFT:
+          camera.pan(-WIDTH / 10, 0);
+          break;
+        case RIGHT:
+          camera.pan(WIDTH / 10, 0);
+          break;
+        case UP:
+          camera.pan(0, -HEIGHT / 10);
+          break;
+        case DOWN:
+          camera.pan(0, HEIGHT / 10);
+          break;
+      }
+      return;
+    }
     switch (Character.toUpperCase(this.key)) {
+      case '+': // zoom in around the center of the window
+      case '=':
+        camera.zoomAt(1.25f, WIDTH / 2, HEIGHT / 2);
+        break;
+      case '-': // zoom out around the center of the window
+        camera.zoomAt(0.8f, WIDTH / 2, HEIGHT / 2);
+        break;
       case 'T': // add new tiger to the Jungle Park
-        listGUI.add(new Tiger(this));
+        world.add(new Tiger(this));
         break;
       case 'D': // add new deer to the Jungle Park
-        listGUI.add(new Deer(this));
+        world.add(new Deer(this));
         break;
       case 'R': // remove an animal from the Jungle Park if the mouse is over it
-        // traverse the listGUI list and consider only animal objects to be removed if any
-        for (int i = 0; i < listGUI.size(); i++) {
-          if (listGUI.get(i) instanceof Animal && listGUI.get(i).isMouseOver()) {
-            listGUI.remove(i);
-            break; // remove the first animal which the mouse is over it while the r-key
-                   // is pressed
-          }
-        }
+        // remove the first animal which the mouse is over it while the r-key is pressed
+        Animal animal = animalUnderMouse();
+        if (animal != null)
+          world.remove(animal);
+        break;
+      case 'L': // cycle through the levels of detail: automatic, then each level in turn
+        DetailLevel forced = renderer.getForcedLevel();
+        DetailLevel[] levels = DetailLevel.values();
+        if (forced == null)
+          renderer.setForcedLevel(levels[0]);
+        else if (forced.ordinal() + 1 < levels.length)
+          renderer.setForcedLevel(levels[forced.ordinal() + 1]);
+        else
+          renderer.setForcedLevel(null);
     }
   }
 
@@ -195,22 +298,34 @@ public class JunglePark extends PApplet {
    * Removes all the animals from the park
    */
   public void clear() {
-    for (int i = 0; i < listGUI.size(); i++) {
-      if (listGUI.get(i) instanceof Animal) {
-        listGUI.remove(i);
-        i--;
-      }
-    }
+    world.clear();
   }
 
 
 
   /**
-   * This main method starts the application
+   * This main method starts the application. Usage: java JunglePark [seed] [ticks per second]
+   * [world width] [world height] [trajectory prefix]
    * 
-   * @param args
+   * @param args optional seed of the random positions of the animals, number of ticks per second,
+   *             independent of the frame rate (60 by default), dimensions of the world,
+   *             independent of the display window (800 x 632 by default), and prefix of the files
+   *             the trajectories of the animals are recorded to (not recorded by default)
    */
   public static void main(String[] args) {
+    if (args.length > 0) {
+      seed = Long.parseLong(args[0]);
+    }
+    if (args.length > 1) {
+      tickRate = Integer.parseInt(args[1]);
+    }
+    if (args.length > 3) {
+      worldWidth = Integer.parseInt(args[2]);
+      worldHeight = Integer.parseInt(args[3]);
+    }
+    if (args.length > 4) {
+      trajectories = Paths.get(args[4]);
+    }
     // starts the application (calls PApplet main() method with the name
     // of the PApplet class to run as parameter)
     PApplet.main("JunglePark");
@@ -54,7 +54,7 @@ public class JungleParkTests extends JunglePark {
         }
 
         /////////////////////////////////////
-        park.listGUI.clear(); // clear all the content of listGUI to get ready for a next scenario
+        park.world.clear(); // clear all the animals of the world to get ready for a next scenario
 
         return passed;
     }
@@ -81,7 +81,7 @@ public class JungleParkTests extends JunglePark {
             passed = false;
         }
         /////////////////////////////////////
-        park.listGUI.clear(); // clear all the content of listGUI to get ready for a next scenario
+        park.world.clear(); // clear all the animals of the world to get ready for a next scenario
 
         return passed;
     }
@@ -109,7 +109,7 @@ public class JungleParkTests extends JunglePark {
             passed = false;
         }
         /////////////////////////////////////
-        park.listGUI.clear(); // clear all the content of listGUI to get ready for a next scenario
+        park.world.clear(); // clear all the animals of the world to get ready for a next scenario
 
         return passed;
     }
@@ -138,7 +138,7 @@ public class JungleParkTests extends JunglePark {
             passed = false;
         }
         /////////////////////////////////////
-        park.listGUI.clear(); // clear all the content of listGUI to get ready for a next scenario
+        park.world.clear(); // clear all the animals of the world to get ready for a next scenario
 
         return passed;
     }
@@ -146,7 +146,7 @@ public class JungleParkTests extends JunglePark {
     /**
      * This method checks whether the tiger hops on the deer provided to the hop() method as input
      * argument. (1) The tiger should take the position of the deer. (2) The unfortunate deer should
-     * be removed from the JunglePark listGUI. (3) The eatenDeerCount should be incremented.
+     * be removed from the JunglePark world. (3) The eatenDeerCount should be incremented.
      * 
      * @return true when test verifies correct functionality, and false otherwise.
      */
@@ -164,16 +164,16 @@ public class JungleParkTests extends JunglePark {
         // Set the tiger at position(300,300) tiger is 70.71px away from deer d1
         t.setPositionX(300);
         t.setPositionY(300);
-        // add the tiger and the deer to the JunglePark (i.e. to listGUI)
-        park.listGUI.add(d);
-        park.listGUI.add(t);
+        // add the tiger and the deer to the JunglePark (i.e. to its world)
+        park.world.add(d);
+        park.world.add(t);
         t.hop(d); // tiger hops on the deer
         if (t.getPositionX() != d.getPositionX() && t.getPositionY() != d.getPositionY()) {
             // tiger should move to the position of the deer
             System.out.println("Tiger did not move correctly when hopping.");
             passed = false;
         }
-        if (park.listGUI.contains(d)) {
+        if (park.world.contains(d)) {
             // deer should be removed from the park
             System.out.println("Deer was not removed after being hopped on.");
             passed = false;
@@ -186,11 +186,70 @@ public class JungleParkTests extends JunglePark {
         }
 
         /////////////////////////////////////
-        park.listGUI.clear(); // clear all the content of listGUI to get ready for a next scenario
+        park.world.clear(); // clear all the animals of the world to get ready for a next scenario
 
         return passed;
     }
 
+    /**
+     * This method checks whether animals of the same species share a single image, loaded once by
+     * the image cache of the park
+     * 
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testSharedImages() {
+        boolean passed = true;
+        int loaded = park.images.size();
+        Tiger t1 = new Tiger(park);
+        Tiger t2 = new Tiger(park);
+        Deer d1 = new Deer(park);
+        Deer d2 = new Deer(park);
+        if (t1.getImage() != t2.getImage() || d1.getImage() != d2.getImage()) {
+            System.out.println("Animals of the same species do not share their image.");
+            passed = false;
+        }
+        if (park.images.size() != loaded) {
+            // tiger and deer images should have been loaded in setup()
+            System.out.println("Spawning animals loaded images which were already loaded.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the batched renderer only draws labels while the animals are
+     * sparse enough, and draws them again once animals are removed
+     * 
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testBatchRendererLabels() {
+        boolean passed = true;
+        park.world.clear();
+        for (int i = 0; i < 10; ++i) {
+            park.world.add(new Deer(park));
+        }
+        park.renderer.draw(park.world);
+        if (!park.renderer.areLabelsDrawn()) {
+            System.out.println("Labels of 10 deer were not drawn.");
+            passed = false;
+        }
+        for (int i = 0; i < 1000; ++i) { // more than one deer per 64 x 64 pixels
+            park.world.spawnDeer();
+        }
+        park.renderer.draw(park.world);
+        if (park.renderer.areLabelsDrawn()) {
+            System.out.println("Labels of 1010 deer were drawn.");
+            passed = false;
+        }
+        park.world.clear();
+        park.renderer.draw(park.world);
+        if (!park.renderer.areLabelsDrawn()) {
+            System.out.println("Labels were not drawn again once the deer were removed.");
+            passed = false;
+        }
+        return passed;
+    }
+
     /**
      * runs JungleParkTests program as a PApplet client
      * 
@@ -218,6 +277,8 @@ public class JungleParkTests extends JunglePark {
         System.out.println("test2isCloseMethod(): " + test2isCloseMethod());
         System.out.println("test1DeerScanForThreatMethod(): " + test1DeerScanForThreatMethod());
         System.out.println("test2DeerScanForThreatMethod(): " + test2DeerScanForThreatMethod());
+        System.out.println("testSharedImages(): " + testSharedImages());
+        System.out.println("testBatchRendererLabels(): " + testBatchRendererLabels());
 
         // close PApplet display window (No need for the graphic mode for these tests)
         park.exit();
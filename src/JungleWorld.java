@@ -0,0 +1,904 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Headless simulation engine. Owns the tigers and deer living on the toroidal domain, its
+ * dimensions and the tick counter, and advances the dynamics independently of any display window.
+ * JunglePark is only an optional renderer that samples the world once per frame.
+ *
+ * The animals of each species are stored in a Population, a structure-of-arrays the simulation
+ * runs on. Tiger and Deer objects added to the world become views of their slot.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class JungleWorld {
+  // Default radius beyond which animals do not interact in GradientMode.CUTOFF, where the
+  // contribution of an animal is below a thousandth of one 15 pixels away with the exponent -2:
+  protected static final int DEFAULT_CUTOFF_RADIUS = 150;
+  // Default skin of the neighbor lists, about 4 ticks of the animals at their default speeds:
+  protected static final int DEFAULT_VERLET_SKIN = 15;
+  protected final int WIDTH; // width of the toroidal domain
+  protected final int HEIGHT; // height of the toroidal domain
+  protected Population tigers; // tigers currently alive in the world
+  protected Population deer; // deer currently alive in the world
+  public int tickCounter; // number of ticks the world has been advanced by
+  public int deersEaten; // total number of deer eaten since the world was created
+  private int maxTimeAlive; // time alive of the longest living deer, maintained by each tick
+  private boolean maxTimeAliveStale; // true if deer were removed since maxTimeAlive was computed
+  private final long seed; // seed the random numbers of the world are generated from
+  protected final JungleParameters parameters; // speeds, exponents and scan ranges of the species
+  private final SplitMix64 randGen; // generator of random positions for spawned animals
+  private int nextTigerID; // identifier of the next tiger created in the world
+  private int nextDeerID; // identifier of the next deer created in the world
+  private GradientMode gradientMode; // how animals compute the gradient they follow
+  // Spatial index answering the radius queries of the tigers, and Barnes-Hut trees approximating
+  // gradients. Each one is only valid while the species it indexes cannot move, i.e. the deer
+  // indexes while tigers act and the tiger indexes while deer act. The deer do not scan for tigers
+  // during a tick, so tigers are not indexed by a grid.
+  private SpatialGrid deerGrid;
+  private BarnesHutTree deerTree;
+  private BarnesHutTree tigerTree;
+  private boolean deerIndexed;
+  private boolean tigersIndexed;
+  // Verlet neighbor lists of each species among the other one, valid during the movement phase of
+  // the ticks run in GradientMode.CUTOFF:
+  private NeighborList tigerNeighbors;
+  private NeighborList deerNeighbors;
+  private boolean neighborsListed;
+  // Gradient fields of each species on a mesh, created by the first tick run in
+  // GradientMode.PARTICLE_MESH, and valid during the movement phase of those ticks:
+  private int meshCellSize; // side of the cells of the meshes, in pixels
+  private GradientField deerField; // field of the deer, sampled by the tigers
+  private GradientField tigerField; // field of the tigers, sampled by the deer
+  private boolean fieldsSolved;
+  private boolean ticking; // true while tick() runs, when eaten animals are only marked dead
+  private int[] nearbyDeer; // slots found by the last call to deerWithin()
+  // Movement phase of a tick, split into one task per thread:
+  private int parallelism; // number of threads the animals move on
+  private ForkJoinPool pool; // pool the move tasks run on, null while parallelism is 1
+  private MoveTask[] moveTasks; // tasks moving each chunk of the animals
+  private RecursiveAction moveAll; // task forking every move task
+  private final TickMetrics metrics; // durations of the phases of each tick
+  private final ArrayList<TickListener> listeners; // stages run at the end of each tick
+
+  /**
+   * Creates a new empty world of the given dimensions, whose random numbers differ from one run to
+   * the next
+   *
+   * @param width  width of the toroidal domain
+   * @param height height of the toroidal domain
+   */
+  public JungleWorld(int width, int height) {
+    this(width, height, SplitMix64.randomSeed());
+  }
+
+  /**
+   * Creates a new empty world of the given dimensions. Two worlds created with the same seed, to
+   * which the same animals are added in the same order, evolve identically whatever their
+   * parallelism.
+   *
+   * @param width  width of the toroidal domain
+   * @param height height of the toroidal domain
+   * @param seed   seed the random numbers of the world are generated from
+   */
+  public JungleWorld(int width, int height, long seed) {
+    this(width, height, seed, new JungleParameters());
+  }
+
+  /**
+   * Creates a new empty world of the given dimensions, whose animals behave according to the given
+   * parameters instead of the constants of Tiger and Deer
+   *
+   * @param width      width of the toroidal domain
+   * @param height     height of the toroidal domain
+   * @param seed       seed the random numbers of the world are generated from
+   * @param parameters speeds, exponents and scan ranges of the species, copied by the world
+   */
+  public JungleWorld(int width, int height, long seed, JungleParameters parameters) {
+    this.WIDTH = width;
+    this.HEIGHT = height;
+    tigers = new Population(Population.TIGER, 16);
+    deer = new Population(Population.DEER, 64);
+    tickCounter = 0;
+    deersEaten = 0;
+    this.seed = seed;
+    randGen = new SplitMix64(seed);
+    nextTigerID = 1;
+    nextDeerID = 1;
+    this.parameters = new JungleParameters(parameters);
+    gradientMode = GradientMode.EXACT;
+    deerGrid = new SpatialGrid(this, deer, parameters.getTigerScanRange());
+    deerTree = new BarnesHutTree(width, height, 0.5);
+    tigerTree = new BarnesHutTree(width, height, 0.5);
+    setCutoff(DEFAULT_CUTOFF_RADIUS, DEFAULT_VERLET_SKIN);
+    meshCellSize = GradientField.DEFAULT_CELL_SIZE;
+    nearbyDeer = new int[64];
+    setParallelism(1);
+    maxTimeAliveStale = true;
+    metrics = new TickMetrics();
+    listeners = new ArrayList<TickListener>();
+  }
+
+  /**
+   * Adds a stage run at the end of each tick, after the stages added before it
+   *
+   * @param listener stage to be added
+   */
+  public void addTickListener(TickListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a stage run at the end of each tick
+   *
+   * @param listener stage to be removed
+   * @return true if the stage was run by the world, false otherwise
+   */
+  public boolean removeTickListener(TickListener listener) {
+    return listeners.remove(listener);
+  }
+
+  /**
+   * Getter for metrics
+   *
+   * @return the metrics recorded during the ticks of the world
+   */
+  public TickMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Getter for parallelism
+   *
+   * @return the number of threads the animals move on during each tick
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Setter for parallelism. With a parallelism of 1, ticks run on the calling thread only. The
+   * outcome of a tick does not depend on the parallelism, since each animal moves according to the
+   * positions of the previous tick.
+   *
+   * @param parallelism number of threads the animals move on during each tick
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+    }
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+    this.parallelism = parallelism;
+    moveTasks = new MoveTask[parallelism];
+    for (int i = 0; i < parallelism; ++i) {
+      moveTasks[i] = new MoveTask(this, i, parallelism);
+    }
+    if (parallelism > 1) {
+      pool = new ForkJoinPool(parallelism);
+      moveAll = new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+          invokeAll(moveTasks);
+        }
+      };
+    }
+  }
+
+  /**
+   * Shuts down the threads the animals move on, if any. The world keeps working on the calling
+   * thread only afterwards.
+   */
+  public void shutdown() {
+    setParallelism(1);
+  }
+
+  /**
+   * Getter for parameters
+   *
+   * @return a copy of the speeds, exponents and scan ranges the animals of the world behave by
+   */
+  public JungleParameters getParameters() {
+    return new JungleParameters(parameters);
+  }
+
+  /**
+   * Getter for seed
+   *
+   * @return the seed the random numbers of the world are generated from
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Getter for the generator of random numbers of the world. It must only be used by the thread
+   * running the world; other threads should use a generator split from it.
+   *
+   * @return the generator of random numbers of the world
+   */
+  public SplitMix64 getRandom() {
+    return randGen;
+  }
+
+  /**
+   * Returns the identifier of the next tiger created in the world, and increments it. Each world
+   * numbers its own animals, so that worlds running side by side do not share any state.
+   *
+   * @return the identifier of a new tiger
+   */
+  protected int takeTigerID() {
+    return nextTigerID++;
+  }
+
+  /**
+   * Returns the identifier of the next deer created in the world, and increments it
+   *
+   * @return the identifier of a new deer
+   */
+  protected int takeDeerID() {
+    return nextDeerID++;
+  }
+
+  /**
+   * Getter for nextTigerID
+   *
+   * @return the identifier of the next tiger created in the world
+   */
+  protected int peekTigerID() {
+    return nextTigerID;
+  }
+
+  /**
+   * Getter for nextDeerID
+   *
+   * @return the identifier of the next deer created in the world
+   */
+  protected int peekDeerID() {
+    return nextDeerID;
+  }
+
+  /**
+   * Makes sure that the identifiers of the animals created from now on are at least given ones,
+   * e.g. after restoring animals which were created by another run
+   *
+   * @param tigerID smallest identifier of the next tiger created in the world
+   * @param deerID  smallest identifier of the next deer created in the world
+   */
+  protected void skipIDsBelow(int tigerID, int deerID) {
+    nextTigerID = Math.max(nextTigerID, tigerID);
+    nextDeerID = Math.max(nextDeerID, deerID);
+  }
+
+  /**
+   * Generates a random x-coordinate for a spawned animal
+   *
+   * @return a random x-coordinate within the world
+   */
+  public float randomX() {
+    return randGen.nextInt(WIDTH);
+  }
+
+  /**
+   * Generates a random y-coordinate for a spawned animal, below the buttons of the display window
+   *
+   * @return a random y-coordinate within the world
+   */
+  public float randomY() {
+    return Math.max(randGen.nextInt(HEIGHT), 100);
+  }
+
+  /**
+   * Getter for gradientMode
+   *
+   * @return how animals compute the gradient they follow
+   */
+  public GradientMode getGradientMode() {
+    return gradientMode;
+  }
+
+  /**
+   * Setter for gradientMode
+   *
+   * @param gradientMode how animals compute the gradient they follow
+   */
+  public void setGradientMode(GradientMode gradientMode) {
+    if (gradientMode != this.gradientMode) {
+      // Lists are only swept by the ticks run in GradientMode.CUTOFF:
+      tigerNeighbors.invalidate();
+      deerNeighbors.invalidate();
+      // And fields only by the ticks run in GradientMode.PARTICLE_MESH:
+      if (deerField != null) {
+        deerField.invalidate();
+        tigerField.invalidate();
+      }
+    }
+    this.gradientMode = gradientMode;
+  }
+
+  /**
+   * Setter for the cutoff radius and the skin of the neighbor lists used in GradientMode.CUTOFF.
+   * Animals farther apart than the radius do not interact. The lists hold the animals within the
+   * radius plus the skin, and are rebuilt once the animals moved farther than the skin in total, so
+   * a larger skin rebuilds them less often but makes them longer.
+   *
+   * @param radius radius beyond which animals do not interact, 150 by default
+   * @param skin   distance the animals can move before the lists are rebuilt, 15 by default
+   */
+  public void setCutoff(int radius, int skin) {
+    tigerNeighbors = new NeighborList(this, tigers, deer, radius, skin);
+    deerNeighbors = new NeighborList(this, deer, tigers, radius, skin);
+  }
+
+  /**
+   * Getter for the cutoff radius used in GradientMode.CUTOFF
+   *
+   * @return the radius beyond which animals do not interact
+   */
+  public int getCutoffRadius() {
+    return tigerNeighbors.getCutoff();
+  }
+
+  /**
+   * Getter for the skin of the neighbor lists used in GradientMode.CUTOFF
+   *
+   * @return the distance the animals can move before the lists are rebuilt
+   */
+  public int getVerletSkin() {
+    return tigerNeighbors.getSkin();
+  }
+
+  /**
+   * Counts the times the neighbor lists were built since the cutoff was set
+   *
+   * @return the number of rebuilds of the lists of the tigers, which are rebuilt along with the
+   *         lists of the deer
+   */
+  public int getNeighborListRebuilds() {
+    return tigerNeighbors.getRebuilds();
+  }
+
+  /**
+   * Getter for the neighbor lists of the tigers
+   *
+   * @return the deer near each tiger, or null if they are not valid (outside of the movement
+   *         phase, or if the gradient mode is not CUTOFF)
+   */
+  public NeighborList getTigerNeighbors() {
+    return neighborsListed ? tigerNeighbors : null;
+  }
+
+  /**
+   * Getter for the neighbor lists of the deer
+   *
+   * @return the tigers near each deer, or null if they are not valid (outside of the movement
+   *         phase, or if the gradient mode is not CUTOFF)
+   */
+  public NeighborList getDeerNeighbors() {
+    return neighborsListed ? deerNeighbors : null;
+  }
+
+  /**
+   * Setter for the side of the cells of the meshes used in GradientMode.PARTICLE_MESH. Smaller
+   * cells approximate the exact gradient more closely, but make the fields slower to solve.
+   *
+   * @param cellSize side of the cells in pixels, 8 by default, see GradientField
+   */
+  public void setMeshCellSize(int cellSize) {
+    if (cellSize < 1) {
+      throw new IllegalArgumentException("cell size must be positive: " + cellSize);
+    }
+    meshCellSize = cellSize;
+    deerField = null; // created again by the next tick, with cells of the new size
+    tigerField = null;
+  }
+
+  /**
+   * Getter for meshCellSize
+   *
+   * @return the side of the cells of the meshes used in GradientMode.PARTICLE_MESH, in pixels
+   */
+  public int getMeshCellSize() {
+    return meshCellSize;
+  }
+
+  /**
+   * Getter for the gradient field of the deer
+   *
+   * @return the field sampled by the tigers, or null if it is not valid (outside of the movement
+   *         phase, or if the gradient mode is not PARTICLE_MESH)
+   */
+  public GradientField getDeerField() {
+    return fieldsSolved ? deerField : null;
+  }
+
+  /**
+   * Getter for the gradient field of the tigers
+   *
+   * @return the field sampled by the deer, or null if it is not valid (outside of the movement
+   *         phase, or if the gradient mode is not PARTICLE_MESH)
+   */
+  public GradientField getTigerField() {
+    return fieldsSolved ? tigerField : null;
+  }
+
+  /**
+   * Setter for the opening angle used in GradientMode.BARNES_HUT. Groups of animals whose size
+   * divided by their distance is below theta are approximated by their center of mass, so 0 gives
+   * the exact sum and larger values trade accuracy for speed.
+   *
+   * @param theta opening angle, 0.5 by default
+   */
+  public void setBarnesHutTheta(double theta) {
+    deerTree.setTheta(theta);
+    tigerTree.setTheta(theta);
+  }
+
+  /**
+   * Getter for the opening angle used in GradientMode.BARNES_HUT
+   *
+   * @return the opening angle
+   */
+  public double getBarnesHutTheta() {
+    return deerTree.getTheta();
+  }
+
+  /**
+   * Getter for the Barnes-Hut tree of the deer
+   *
+   * @return the tree approximating the gradient with respect to the deer, or null if it is not
+   *         valid (outside of the tigers' turn, or if the gradient mode is not BARNES_HUT)
+   */
+  public BarnesHutTree getDeerTree() {
+    return deerIndexed && gradientMode == GradientMode.BARNES_HUT ? deerTree : null;
+  }
+
+  /**
+   * Getter for the Barnes-Hut tree of the tigers
+   *
+   * @return the tree approximating the gradient with respect to the tigers, or null if it is not
+   *         valid (outside of the deer's turn, or if the gradient mode is not BARNES_HUT)
+   */
+  public BarnesHutTree getTigerTree() {
+    return tigersIndexed && gradientMode == GradientMode.BARNES_HUT ? tigerTree : null;
+  }
+
+  /**
+   * Adds an animal to the world. The animal becomes a view of its new slot.
+   *
+   * @param animal Tiger or Deer to be added
+   */
+  public void add(Animal animal) {
+    if (animal.isAttached()) {
+      return; // already part of the world
+    }
+    if (animal instanceof Tiger) {
+      int slot = tigers.add(((Tiger) animal).getID(), animal.getPositionX(),
+          animal.getPositionY(), animal);
+      animal.attach(tigers, slot);
+    } else if (animal instanceof Deer) {
+      int slot =
+          deer.add(((Deer) animal).getID(), animal.getPositionX(), animal.getPositionY(), animal);
+      animal.attach(deer, slot);
+      maxTimeAliveStale = true; // the deer may carry the time alive it had before
+    }
+  }
+
+  /**
+   * Adds a tiger to the world without creating any Tiger object
+   *
+   * @param x x-coordinate of the tiger
+   * @param y y-coordinate of the tiger
+   * @return the slot of the new tiger
+   */
+  public int spawnTiger(float x, float y) {
+    return tigers.add(takeTigerID(), x, y, null);
+  }
+
+  /**
+   * Adds a deer to the world without creating any Deer object
+   *
+   * @param x x-coordinate of the deer
+   * @param y y-coordinate of the deer
+   * @return the slot of the new deer
+   */
+  public int spawnDeer(float x, float y) {
+    return deer.add(takeDeerID(), x, y, null);
+  }
+
+  /**
+   * Adds a tiger at a random position of the world without creating any Tiger object
+   *
+   * @return the slot of the new tiger
+   */
+  public int spawnTiger() {
+    return spawnTiger(randomX(), randomY());
+  }
+
+  /**
+   * Adds a deer at a random position of the world without creating any Deer object
+   *
+   * @return the slot of the new deer
+   */
+  public int spawnDeer() {
+    return spawnDeer(randomX(), randomY());
+  }
+
+  /**
+   * Removes an animal from the world
+   *
+   * @param animal Tiger or Deer to be removed
+   * @return true if the animal was present in the world, false otherwise
+   */
+  public boolean remove(Animal animal) {
+    if (!animal.isAttached()) {
+      return false;
+    }
+    remove(animal.population, animal.slot);
+    return true;
+  }
+
+  /**
+   * Removes the animal of a slot from the world. During a tick, the animal is only marked dead and
+   * unindexed, so that the other slots stay valid until the end of the tick.
+   *
+   * @param population population of the animal
+   * @param slot       slot of the animal
+   */
+  public void remove(Population population, int slot) {
+    if (!ticking) {
+      population.remove(slot);
+      maxTimeAliveStale = true;
+      return;
+    }
+    kill(population, slot);
+  }
+
+  /**
+   * Marks the animal of a slot dead and unindexes it, so that the other slots stay valid until the
+   * animals killed are swept: at the end of the tick during a tick, and by the next call to
+   * sweepKilled() otherwise.
+   *
+   * @param population population of the animal
+   * @param slot       slot of the animal
+   */
+  public void kill(Population population, int slot) {
+    if (!population.isAlive(slot)) {
+      return; // already eaten
+    }
+    population.kill(slot);
+    if (population == deer && deerIndexed) {
+      deerGrid.remove(slot);
+      if (gradientMode == GradientMode.BARNES_HUT) {
+        deerTree.remove(slot);
+      }
+    }
+  }
+
+  /**
+   * Removes the animals killed outside of a tick in a single sweep, e.g. the deer eaten by a tiger
+   * acting on its own. Does nothing during a tick, whose end sweeps them.
+   */
+  public void sweepKilled() {
+    if (!ticking && tigers.aliveCount() + deer.aliveCount() < tigers.size + deer.size) {
+      compact();
+      maxTimeAliveStale = true;
+    }
+  }
+
+  /**
+   * Removes the animals marked dead from both populations, sweeping the neighbor lists or gradient
+   * fields of the world alongside, so that they stay valid across the compaction
+   */
+  private void compact() {
+    if (gradientMode == GradientMode.CUTOFF) {
+      tigerNeighbors.sweep();
+      deerNeighbors.sweep();
+    } else if (gradientMode == GradientMode.PARTICLE_MESH && deerField != null) {
+      deerField.sweep();
+      tigerField.sweep();
+    }
+    tigers.compact();
+    deer.compact();
+  }
+
+  /**
+   * Determines if an animal is currently present in the world
+   *
+   * @param animal animal to look for
+   * @return true if the animal is present in the world, false otherwise
+   */
+  public boolean contains(Animal animal) {
+    return animal.isAttached() && animal.world == this && animal.population.isAlive(animal.slot);
+  }
+
+  /**
+   * Removes all the animals from the world
+   */
+  public void clear() {
+    tigers.clear();
+    deer.clear();
+    maxTimeAlive = 0;
+    maxTimeAliveStale = false;
+  }
+
+  /**
+   * Getter for the tigers
+   *
+   * @return the population of tigers currently alive in the world
+   */
+  public Population getTigers() {
+    return tigers;
+  }
+
+  /**
+   * Getter for the deer
+   *
+   * @return the population of deer currently alive in the world
+   */
+  public Population getDeer() {
+    return deer;
+  }
+
+  /**
+   * Getter for how long the longest living deer has been alive for. The value is maintained by
+   * each tick, and only recomputed after deer were removed outside of a tick.
+   *
+   * @return the maximum time alive of the deer, in ticks
+   */
+  public int maxTimeAlive() {
+    if (maxTimeAliveStale) {
+      maxTimeAlive = 0;
+      for (int i = 0; i < deer.size; ++i) {
+        maxTimeAlive = Math.max(maxTimeAlive, deer.timeAlive.get(i));
+      }
+      maxTimeAliveStale = false;
+    }
+    return maxTimeAlive;
+  }
+
+  /**
+   * Determines if any tiger is within a given range of a position, scanning every tiger
+   *
+   * @param x     x-coordinate at the center of the query
+   * @param y     y-coordinate at the center of the query
+   * @param range range within which tigers are considered close
+   * @return true if a tiger is within range of the position, false otherwise
+   */
+  public boolean anyTigerWithin(float x, float y, int range) {
+    for (int i = 0; i < tigers.size; i++) {
+      if (Animal.isClose(this, x, y, tigers.x.get(i), tigers.y.get(i), range)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds every living deer within a given range of a position. Uses the spatial index while it
+   * is valid, and scans every deer otherwise. The slots found are read with nearbyDeer(), in slot
+   * order whatever the layout of the index, until the next call.
+   *
+   * @param x     x-coordinate at the center of the query
+   * @param y     y-coordinate at the center of the query
+   * @param range range within which deer are considered close
+   * @return the number of deer within range of the position
+   */
+  public int deerWithin(float x, float y, int range) {
+    if (nearbyDeer.length < deer.size) {
+      nearbyDeer = new int[Math.max(deer.size, 2 * nearbyDeer.length)];
+    }
+    if (deerIndexed) {
+      int count = deerGrid.within(x, y, range, nearbyDeer);
+      Arrays.sort(nearbyDeer, 0, count); // the grid finds them cell by cell
+      return count;
+    }
+    int count = 0;
+    for (int i = 0; i < deer.size; i++) {
+      if (deer.isAlive(i) && Animal.isClose(this, x, y, deer.x.get(i), deer.y.get(i), range)) {
+        nearbyDeer[count++] = i;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Getter for the result of deerWithin()
+   *
+   * @param index index of the result, less than the count returned by deerWithin()
+   * @return the slot of a deer found by the last call to deerWithin()
+   */
+  public int nearbyDeer(int index) {
+    return nearbyDeer[index];
+  }
+
+  /**
+   * Advances the world by a single tick, in two phases. First, tigers eat the deer within their
+   * scan range, one tiger at a time. Then every animal moves at once, chasing or fleeing according
+   * to the positions left by the first phase: moves are written to the next position buffers of
+   * the populations, which become the current ones when every animal has moved. Each species is
+   * indexed before the phase reading it, since it cannot move in the meantime. Deer eaten during
+   * the tick are removed in a single sweep at its end. The duration of each phase is recorded in
+   * the metrics of the world, unless they are disabled.
+   *
+   * Once the buffers of the world have grown to the size of its populations, its neighbor lists
+   * to the number of animals near each other, and its meshes were created, a tick with a
+   * parallelism of 1 does not allocate anything on the heap, unless metrics are dumped to a file.
+   * Larger parallelisms only allocate the few bytes ForkJoinPool.invoke() needs.
+   */
+  public void tick() {
+    boolean timed = metrics.isEnabled();
+    long start = timed ? System.nanoTime() : 0;
+    ticking = true;
+    deerGrid.rebuild();
+    if (gradientMode == GradientMode.BARNES_HUT) {
+      deerTree.build(deer);
+    }
+    deerIndexed = true;
+    long predationStart = timed ? System.nanoTime() : 0;
+    for (int i = 0; i < tigers.size; i++) {
+      Tiger.eat(this, i);
+    }
+
+    long predationEnd = timed ? System.nanoTime() : 0;
+    if (gradientMode == GradientMode.BARNES_HUT) {
+      tigerTree.build(tigers);
+    }
+    tigersIndexed = true;
+    if (gradientMode == GradientMode.CUTOFF) {
+      tigerNeighbors.update();
+      deerNeighbors.update();
+      neighborsListed = true;
+    }
+    long fieldStart = timed ? System.nanoTime() : 0;
+    if (gradientMode == GradientMode.PARTICLE_MESH) {
+      if (deerField == null) {
+        deerField = new GradientField(this, deer, parameters.getTigerExponent(), meshCellSize);
+        tigerField = new GradientField(this, tigers, parameters.getDeerExponent(), meshCellSize);
+      }
+      deerField.update();
+      tigerField.update();
+      fieldsSolved = true;
+    }
+    long movementStart = timed ? System.nanoTime() : 0;
+    long interactions = moveAnimals();
+    deerIndexed = false;
+    tigersIndexed = false;
+    neighborsListed = false;
+    fieldsSolved = false;
+
+    long sweepStart = timed ? System.nanoTime() : 0;
+    tigers.swapBuffers();
+    deer.swapBuffers();
+    compact();
+    ticking = false;
+    ++tickCounter;
+
+    if (timed) {
+      long end = System.nanoTime();
+      metrics.record(TickPhase.INDEX, (predationStart - start) + (fieldStart - predationEnd));
+      metrics.record(TickPhase.FIELD, movementStart - fieldStart);
+      metrics.record(TickPhase.PREDATION, predationEnd - predationStart);
+      metrics.record(TickPhase.MOVEMENT, sweepStart - movementStart);
+      metrics.record(TickPhase.SWEEP, end - sweepStart);
+      metrics.record(TickPhase.TICK, end - start);
+      metrics.endTick(interactions);
+    }
+    for (int i = 0; i < listeners.size(); ++i) { // indexed, so that no iterator is allocated
+      listeners.get(i).afterTick(this);
+    }
+  }
+
+  /**
+   * Runs every move task, on the pool if there is one and on the calling thread otherwise, and
+   * gathers the time alive of the longest living deer they found
+   *
+   * @return the number of pair interactions evaluated by the tasks
+   */
+  private long moveAnimals() {
+    if (pool == null) {
+      for (MoveTask task : moveTasks) {
+        task.reinitialize();
+        task.invoke();
+      }
+    } else {
+      for (MoveTask task : moveTasks) {
+        task.reinitialize();
+      }
+      moveAll.reinitialize();
+      pool.invoke(moveAll);
+    }
+    long interactions = 0;
+    maxTimeAlive = 0;
+    for (MoveTask task : moveTasks) {
+      interactions += task.interactions;
+      maxTimeAlive = Math.max(maxTimeAlive, task.maxTimeAlive);
+    }
+    maxTimeAliveStale = false;
+    return interactions;
+  }
+
+  /**
+   * Advances the world by the given number of ticks as fast as possible
+   *
+   * @param ticks number of ticks to run
+   */
+  public void run(int ticks) {
+    for (int i = 0; i < ticks; i++) {
+      tick();
+    }
+  }
+
+  /**
+   * Runs a headless simulation and prints its outcome in the console. Usage: java JungleWorld
+   * [tigers] [deer] [ticks] [gradient mode] [threads] [seed]
+   *
+   * @param args optional number of tigers, number of deer, number of ticks, gradient mode, number
+   *             of threads and seed
+   */
+  public static void main(String[] args) {
+    int tigerCount = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    int deerCount = args.length > 1 ? Integer.parseInt(args[1]) : 75;
+    // A minute at the rate the speeds are tuned for by default:
+    int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 60 * FixedTimestep.DEFAULT_TICK_RATE;
+
+    long seed = args.length > 5 ? Long.parseLong(args[5]) : SplitMix64.randomSeed();
+
+    JungleWorld world = new JungleWorld(800, 632, seed);
+    if (args.length > 3) {
+      world.setGradientMode(GradientMode.valueOf(args[3].toUpperCase()));
+    }
+    if (args.length > 4) {
+      world.setParallelism(Integer.parseInt(args[4]));
+    }
+    for (int i = 0; i < tigerCount; ++i) {
+      world.spawnTiger();
+    }
+    for (int i = 0; i < deerCount; ++i) {
+      world.spawnDeer();
+    }
+
+    long start = System.nanoTime();
+    world.run(ticks);
+    long elapsed = System.nanoTime() - start;
+
+    System.out.println("Seed: " + world.getSeed());
+    System.out.println("Ticks: " + world.tickCounter);
+    System.out.println("Deer count: " + world.deer.size());
+    System.out.println("Tiger count: " + world.tigers.size());
+    System.out.println("Max time alive: " + world.maxTimeAlive() / FixedTimestep.DEFAULT_TICK_RATE);
+    System.out.println("Deers eaten: " + world.deersEaten);
+    System.out.println("Elapsed (ms): " + elapsed / 1000000);
+    try {
+      world.getMetrics().writeCsv(System.out);
+    } catch (IOException e) {
+      // System.out does not throw
+    }
+    world.shutdown();
+  }
+}
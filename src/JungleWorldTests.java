@@ -0,0 +1,1398 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests of the headless simulation engine. Unlike JungleParkTests, these do not need a display
+ * window and can be run on a server.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class JungleWorldTests {
+
+    /**
+     * This method checks whether a headless world advances its tick counter and moves its animals
+     * without any display window
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testHeadlessTick() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632);
+        Deer deer = new Deer(world);
+        Tiger tiger = new Tiger(world);
+        // Set deer at position(100, 100) and tiger at position(300, 100)
+        deer.setPositionX(100);
+        deer.setPositionY(100);
+        tiger.setPositionX(300);
+        tiger.setPositionY(100);
+        world.add(deer);
+        world.add(tiger);
+        world.run(10);
+        if (world.tickCounter != 10) {
+            System.out.println("tickCounter should be 10 after running 10 ticks.");
+            passed = false;
+        }
+        if (tiger.getPositionX() >= 300) {
+            // tiger should chase the deer to its left
+            System.out.println("Tiger did not move towards the deer.");
+            passed = false;
+        }
+        if (deer.getPositionX() >= 100) {
+            // deer should flee the tiger to its right
+            System.out.println("Deer did not move away from the tiger.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a tiger eats a deer within its scan range during a headless tick
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testHeadlessPredation() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632);
+        Deer deer = new Deer(world);
+        Tiger tiger = new Tiger(world);
+        // Set deer at position(200, 200) and tiger 5px away from it
+        deer.setPositionX(200);
+        deer.setPositionY(200);
+        tiger.setPositionX(205);
+        tiger.setPositionY(200);
+        world.add(deer);
+        world.add(tiger);
+        world.tick();
+        if (world.contains(deer)) {
+            System.out.println("Deer was not eaten by the tiger next to it.");
+            passed = false;
+        }
+        if (world.deersEaten != 1 || tiger.getDeerEatenCount() != 1) {
+            System.out.println("deersEaten and deerEatenCount should be 1 after eating a deer.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether Deer views keep pointing at their own animal after an eaten deer
+     * is swept out of the population at the end of a tick
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testViewsAfterCompaction() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632);
+        Deer eaten = new Deer(world);
+        Deer survivor = new Deer(world);
+        Tiger tiger = new Tiger(world);
+        // Set eaten deer next to the tiger, and the survivor far from both
+        eaten.setPositionX(100);
+        eaten.setPositionY(100);
+        survivor.setPositionX(500);
+        survivor.setPositionY(400);
+        tiger.setPositionX(104);
+        tiger.setPositionY(100);
+        world.add(eaten);
+        world.add(survivor);
+        world.add(tiger);
+        world.tick();
+        if (world.contains(eaten) || eaten.isAttached()) {
+            System.out.println("Eaten deer is still part of the world after the tick.");
+            passed = false;
+        }
+        if (world.getDeer().size() != 1 || world.getDeer().view(0) != survivor
+            || world.getDeer().x.get(0) != survivor.getPositionX()) {
+            System.out.println("Surviving deer view does not point at its slot anymore.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a tiger acting outside of a tick eats every deer within its scan
+     * range, and only those, keeping the views of the other deer pointed at their own animal
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testTigerActionEatsSeveralDeer() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632);
+        Tiger tiger = new Tiger(world);
+        tiger.setPositionX(100);
+        tiger.setPositionY(300);
+        world.add(tiger);
+        Deer[] deer = new Deer[3];
+        float[] xs = {100, 500, 103};
+        for (int i = 0; i < deer.length; ++i) {
+            deer[i] = new Deer(world);
+            deer[i].setPositionX(xs[i]);
+            deer[i].setPositionY(300);
+            world.add(deer[i]);
+        }
+        tiger.action();
+        if (world.deersEaten != 2 || tiger.getDeerEatenCount() != 2
+            || world.getDeer().size() != 1) {
+            System.out.println("Tiger ate " + world.deersEaten + " deer, "
+                + world.getDeer().size() + " left.");
+            passed = false;
+        }
+        if (deer[0].isAttached() || deer[2].isAttached() || !world.contains(deer[1])
+            || world.getDeer().view(0) != deer[1] || deer[1].getPositionX() != 500) {
+            System.out.println("Views do not match the deer left after the tiger acted.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a tiger chain-eats deer: after hopping on a deer, it eats the next
+     * deer within its scan range of its new position, although that deer was out of range of its
+     * position before the hop. Checked both within a tick and for a tiger acting on its own.
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testTigerChainEatsDeer() {
+        boolean passed = true;
+        for (boolean ticked : new boolean[] {true, false}) {
+            JungleWorld world = new JungleWorld(800, 632, 31);
+            Tiger tiger = new Tiger(world);
+            tiger.setPositionX(100);
+            tiger.setPositionY(300);
+            world.add(tiger);
+            world.spawnDeer(108, 300); // within range of the tiger
+            world.spawnDeer(116, 300); // only within range of the first deer
+            if (ticked) {
+                world.tick();
+            } else {
+                tiger.action();
+            }
+            if (world.deersEaten != 2 || world.getDeer().size() != 0) {
+                System.out.println("Tiger ate " + world.deersEaten + " deer of the chain "
+                    + (ticked ? "during a tick." : "acting on its own."));
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether removing an animal outside of a tick keeps the other views
+     * pointed at their own animal, and whether clearing the world detaches every view
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testRemoveAndClear() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632);
+        Deer[] deer = new Deer[5];
+        for (int i = 0; i < deer.length; ++i) {
+            deer[i] = new Deer(world);
+            deer[i].setPositionX(100 * i);
+            world.add(deer[i]);
+        }
+        world.remove(deer[1]);
+        if (world.contains(deer[1]) || world.getDeer().size() != 4) {
+            System.out.println("Removed deer is still part of the world.");
+            passed = false;
+        }
+        for (int i = 0; i < deer.length; ++i) {
+            if (i != 1 && (!world.contains(deer[i]) || deer[i].getPositionX() != 100 * i)) {
+                System.out.println("Remaining deer view does not point at its animal anymore.");
+                passed = false;
+            }
+        }
+        world.clear();
+        for (int i = 0; i < deer.length; ++i) {
+            if (deer[i].isAttached() || deer[i].getPositionX() != 100 * i) {
+                System.out.println("Cleared deer is still attached or lost its position.");
+                passed = false;
+            }
+        }
+        if (world.getDeer().size() != 0) {
+            System.out.println("World is not empty after clear().");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the spatial grid finds animals across the wrap-around edges of the
+     * torus, and ignores animals outside the queried range
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testSpatialGridWrapAround() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632);
+        // Set near deer at position(3, 629): 10px away from position(795, 5) across both edges
+        int near = world.spawnDeer(3, 629);
+        // Set far deer at position(400, 300)
+        world.spawnDeer(400, 300);
+        SpatialGrid grid = new SpatialGrid(world, world.getDeer(), 10);
+        grid.rebuild();
+        int[] result = new int[2];
+        if (grid.within(795, 5, 12, result) != 1 || result[0] != near) {
+            System.out.println("Spatial grid did not find exactly the deer across the edges.");
+            passed = false;
+        }
+        grid.remove(near);
+        if (grid.anyWithin(795, 5, 12)) {
+            System.out.println("Spatial grid still finds a deer after it was removed.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the Barnes-Hut gradient matches the exact sum when theta is 0, and
+     * stays within a few percent of it with a moderate opening angle
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testBarnesHutGradient() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632);
+        Random random = new Random(42); // fixed layout, so that the error bound is reproducible
+        for (int i = 0; i < 500; ++i) {
+            world.spawnDeer(random.nextInt(800), random.nextInt(632));
+        }
+        Tiger tiger = new Tiger(world);
+        tiger.setPositionX(790); // close to the edge so that wrapped distances matter
+        tiger.setPositionY(20);
+        double exactX = tiger.xDerivative();
+        double exactY = tiger.yDerivative();
+        double exactNorm = Math.sqrt(exactX * exactX + exactY * exactY);
+        double[] gradient = new double[2];
+
+        BarnesHutTree tree = new BarnesHutTree(800, 632, 0);
+        tree.build(world.getDeer());
+        tree.gradient(790, 20, -2.0, gradient, new int[BarnesHutTree.STACK_SIZE]);
+        if (Math.hypot(gradient[0] - exactX, gradient[1] - exactY) > 1e-9 * exactNorm) {
+            System.out.println("Barnes-Hut gradient with theta 0 differs from the exact sum.");
+            passed = false;
+        }
+
+        tree.setTheta(0.3);
+        tree.gradient(790, 20, -2.0, gradient, new int[BarnesHutTree.STACK_SIZE]);
+        if (Math.hypot(gradient[0] - exactX, gradient[1] - exactY) > 0.05 * exactNorm) {
+            System.out.println("Barnes-Hut gradient with theta 0.3 is more than 5% off.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * Checks whether the animals of two populations are at the same positions within a tolerance
+     *
+     * @param a         first population
+     * @param b         second population
+     * @param tolerance maximum difference of each coordinate
+     * @return true if both populations have the same size and positions, false otherwise
+     */
+    private static boolean samePositions(Population a, Population b, double tolerance) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); ++i) {
+            if (Math.abs(a.x.get(i) - b.x.get(i)) > tolerance
+                || Math.abs(a.y.get(i) - b.y.get(i)) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method checks whether the fused gradient kernel produces the same trajectories as the
+     * exact xDerivative()/yDerivative() path, within rounding tolerance
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testFusedGradientTrajectories() {
+        boolean passed = true;
+        JungleWorld exact = new JungleWorld(800, 632);
+        JungleWorld fused = new JungleWorld(800, 632);
+        fused.setGradientMode(GradientMode.FUSED);
+        Random random = new Random(7);
+        for (int i = 0; i < 40; ++i) {
+            float x = random.nextInt(800);
+            float y = random.nextInt(632);
+            if (i < 5) {
+                exact.spawnTiger(x, y);
+                fused.spawnTiger(x, y);
+            } else {
+                exact.spawnDeer(x, y);
+                fused.spawnDeer(x, y);
+            }
+        }
+        exact.run(100);
+        fused.run(100);
+        if (!samePositions(exact.getTigers(), fused.getTigers(), 1e-2)) {
+            System.out.println("Fused gradient moved a tiger differently.");
+            passed = false;
+        }
+        if (!samePositions(exact.getDeer(), fused.getDeer(), 1e-2)) {
+            System.out.println("Fused gradient moved or ate a deer differently.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether moving the animals on several threads produces exactly the same
+     * outcome as moving them on a single thread
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testParallelTickDeterminism() {
+        boolean passed = true;
+        JungleWorld sequential = new JungleWorld(800, 632);
+        JungleWorld parallel = new JungleWorld(800, 632);
+        parallel.setParallelism(4);
+        Random random = new Random(11);
+        for (int i = 0; i < 500; ++i) {
+            float x = random.nextInt(800);
+            float y = random.nextInt(632);
+            if (i < 20) {
+                sequential.spawnTiger(x, y);
+                parallel.spawnTiger(x, y);
+            } else {
+                sequential.spawnDeer(x, y);
+                parallel.spawnDeer(x, y);
+            }
+        }
+        sequential.run(100);
+        parallel.run(100);
+        parallel.shutdown();
+        if (!samePositions(sequential.getTigers(), parallel.getTigers(), 0)) {
+            System.out.println("Parallel tick moved a tiger differently.");
+            passed = false;
+        }
+        if (!samePositions(sequential.getDeer(), parallel.getDeer(), 0)) {
+            System.out.println("Parallel tick moved or ate a deer differently.");
+            passed = false;
+        }
+        if (sequential.deersEaten != parallel.deersEaten) {
+            System.out.println("Parallel tick ate a different number of deer.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether two worlds created with the same seed spawn their animals at the
+     * same positions and evolve identically, whatever their parallelism, and whether a generator
+     * restored to a saved state repeats the same numbers
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testSeededReproducibility() {
+        boolean passed = true;
+        JungleWorld first = new JungleWorld(800, 632, 2024);
+        JungleWorld second = new JungleWorld(800, 632, 2024);
+        second.setParallelism(3);
+        for (int i = 0; i < 200; ++i) {
+            if (i < 10) {
+                first.spawnTiger();
+                second.spawnTiger();
+            } else {
+                first.add(new Deer(first));
+                second.add(new Deer(second));
+            }
+        }
+        if (!samePositions(first.getTigers(), second.getTigers(), 0)
+            || !samePositions(first.getDeer(), second.getDeer(), 0)) {
+            System.out.println("Worlds with the same seed spawned animals differently.");
+            passed = false;
+        }
+        first.run(100);
+        second.run(100);
+        second.shutdown();
+        if (!samePositions(first.getTigers(), second.getTigers(), 0)
+            || !samePositions(first.getDeer(), second.getDeer(), 0)) {
+            System.out.println("Worlds with the same seed evolved differently.");
+            passed = false;
+        }
+
+        SplitMix64 random = first.getRandom();
+        long state = random.getState();
+        long expected = random.nextLong();
+        random.setState(state);
+        if (random.nextLong() != expected) {
+            System.out.println("Restored generator did not repeat the same number.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the metrics of a world record every phase of each tick and the
+     * pair interactions evaluated, and whether the histograms compute percentiles within their
+     * precision
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testTickMetrics() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632, 5);
+        for (int i = 0; i < 2; ++i) {
+            world.spawnTiger();
+        }
+        for (int i = 0; i < 50; ++i) {
+            world.spawnDeer();
+        }
+        world.run(20);
+        TickMetrics metrics = world.getMetrics();
+        for (TickPhase phase : TickPhase.values()) {
+            long expected = phase == TickPhase.RENDER ? 0 : 20;
+            if (metrics.getHistogram(phase).getCount() != expected) {
+                System.out.println(phase + " was not recorded once per tick.");
+                passed = false;
+            }
+        }
+        // Every tiger sums over every deer, and every deer over every tiger (barring predation)
+        if (metrics.getInteractions().getMax() != 2 * 2 * 50) {
+            System.out.println("Pair interactions of the first tick were not counted.");
+            passed = false;
+        }
+
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; ++i) {
+            histogram.record(1000 * i);
+        }
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        if (Math.abs(p50 - 500000) > 500000 / 8 || Math.abs(p99 - 990000) > 990000 / 8
+            || histogram.getMax() != 1000000) {
+            System.out.println("Histogram percentiles are off: " + p50 + ", " + p99);
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a tick allocates nothing on the heap once the world reached its
+     * steady state, in each gradient mode, as measured by the allocated bytes of the thread. The JIT
+     * compiler may allocate a few hundred bytes once, when it recompiles the tick, so the test
+     * fails when ticks allocate on average, i.e. when any object is allocated every tick.
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testAllocationFreeTick() {
+        boolean passed = true;
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("Allocated bytes cannot be measured on this JVM, test skipped.");
+            return true;
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(thread); // the first call may allocate by itself
+        for (GradientMode mode : GradientMode.values()) {
+            JungleWorld world = new JungleWorld(800, 632, 3);
+            world.setGradientMode(mode);
+            for (int i = 0; i < 20; ++i) {
+                world.spawnTiger();
+            }
+            for (int i = 0; i < 2000; ++i) {
+                world.spawnDeer();
+            }
+            // Let the buffers grow and the JIT compile the tick. Neighbor lists keep growing
+            // while the deer gather, until about 150 ticks in this world:
+            world.run(mode == GradientMode.CUTOFF ? 200 : 50);
+            long before = threads.getThreadAllocatedBytes(thread);
+            world.run(100);
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            if (allocated / 100 >= 16) { // the smallest object takes 16 bytes
+                System.out.println(mode + " ticks allocated " + allocated + " bytes.");
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a world restored from a snapshot holds the same state as the world
+     * the snapshot was taken from, and keeps evolving exactly like it
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testSnapshotRestore() {
+        boolean passed = true;
+        JungleWorld original = new JungleWorld(800, 632, 13);
+        original.setGradientMode(GradientMode.FUSED);
+        for (int i = 0; i < 10; ++i) {
+            original.spawnTiger();
+        }
+        for (int i = 0; i < 30000; ++i) { // large enough to span several buffers
+            original.spawnDeer();
+        }
+        original.run(30);
+
+        JungleWorld restored;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            WorldSnapshot.write(original, Channels.newChannel(bytes));
+            restored = WorldSnapshot.read(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (IOException e) {
+            System.out.println("Snapshot could not be written or read: " + e.getMessage());
+            return false;
+        }
+        if (restored.tickCounter != original.tickCounter
+            || restored.deersEaten != original.deersEaten
+            || restored.getGradientMode() != original.getGradientMode()
+            || restored.getRandom().getState() != original.getRandom().getState()) {
+            System.out.println("Restored world has a different header.");
+            passed = false;
+        }
+        Population deer = restored.getDeer();
+        for (int i = 0; i < deer.size(); ++i) {
+            if (deer.id.get(i) != original.getDeer().id.get(i)
+                || deer.timeAlive.get(i) != original.getDeer().timeAlive.get(i)) {
+                System.out.println("Restored deer has a different id or time alive.");
+                passed = false;
+                break;
+            }
+        }
+        original.run(20);
+        restored.run(20);
+        if (!samePositions(original.getTigers(), restored.getTigers(), 0)
+            || !samePositions(original.getDeer(), restored.getDeer(), 0)
+            || original.deersEaten != restored.deersEaten) {
+            System.out.println("Restored world evolved differently.");
+            passed = false;
+        }
+
+        // A snapshot of another version, or whose gradient mode is unknown, is rejected as a format
+        // error. Offsets of the lowest byte of the little-endian version and mode:
+        for (int offset : new int[] {4, 40}) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                WorldSnapshot.write(new JungleWorld(800, 632, 13), Channels.newChannel(bytes));
+                byte[] corrupt = bytes.toByteArray();
+                corrupt[offset] = 99;
+                WorldSnapshot.read(Channels.newChannel(new ByteArrayInputStream(corrupt)));
+                System.out.println("Snapshot with a corrupt byte " + offset + " was read.");
+                passed = false;
+            } catch (IOException e) {
+                // expected
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * Checks whether the animals of two populations of a world of size 800 x 632 are at the same
+     * positions within a tolerance, measured across the edges of the world
+     *
+     * @param a         first population
+     * @param b         second population
+     * @param tolerance maximum distance along each axis
+     * @return true if both populations have the same size and positions, false otherwise
+     */
+    private static boolean samePositionsOnTorus(Population a, Population b, double tolerance) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); ++i) {
+            double dx = Math.abs(a.x.get(i) - b.x.get(i));
+            double dy = Math.abs(a.y.get(i) - b.y.get(i));
+            if (Math.min(dx, 800 - dx) > tolerance || Math.min(dy, 632 - dy) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the trajectories of a world, and checks whether seeking to recorded ticks decodes the
+     * positions the world had at these ticks
+     *
+     * @param deltaEncoding whether delta frames are recorded
+     * @param tolerance     maximum difference of each decoded coordinate
+     * @param maxSegments   number of segment files kept by the recorder, or 0 to keep them all
+     * @return true if every frame still recorded was decoded correctly, false otherwise
+     * @throws IOException if the recording cannot be written or read
+     */
+    private static boolean checkTrajectories(boolean deltaEncoding, double tolerance,
+        int maxSegments) throws IOException {
+        boolean passed = true;
+        Path directory = Files.createTempDirectory("trajectories");
+        Path prefix = directory.resolve("run");
+        JungleWorld world = new JungleWorld(800, 632, 21);
+        for (int i = 0; i < 20; ++i) {
+            world.spawnTiger();
+        }
+        for (int i = 0; i < 300; ++i) {
+            world.spawnDeer();
+        }
+        // Small segments, so that the recording rolls over several files
+        TrajectoryRecorder recorder =
+            new TrajectoryRecorder(prefix, 2, deltaEncoding, 16 << 10, 8, maxSegments);
+        world.addTickListener(recorder);
+        Population[] expected = new Population[101];
+        for (int tick = 2; tick <= 200; tick += 2) {
+            world.run(2);
+            Population copy = new Population(Population.DEER, world.getDeer().size());
+            Population deer = world.getDeer();
+            for (int i = 0; i < deer.size(); ++i) {
+                copy.add(deer.id.get(i), deer.x.get(i), deer.y.get(i), null);
+            }
+            expected[tick / 2] = copy;
+        }
+        recorder.close();
+        world.run(2); // a closed recorder does not record anymore
+
+        TrajectoryReader reader = new TrajectoryReader(prefix);
+        if (reader.getLastTick() != 200 || (maxSegments == 0 && reader.getFirstTick() != 2)) {
+            System.out.println("Recording does not span the expected ticks.");
+            passed = false;
+        }
+        // Seek backwards, then forwards, through every frame still present
+        for (int tick = 200; tick >= reader.getFirstTick(); tick -= 14) {
+            passed &= reader.seek(tick + 1) && reader.getTick() == tick
+                && samePositionsOnTorus(reader.getDeer(), expected[tick / 2], tolerance);
+        }
+        for (int tick = reader.getFirstTick(); tick <= 200; tick += 2) {
+            passed &= reader.seek(tick)
+                && samePositionsOnTorus(reader.getDeer(), expected[tick / 2], tolerance);
+        }
+        if (!passed) {
+            System.out.println("Decoded positions differ from the recorded ones.");
+        }
+        DirectoryStream<Path> files = Files.newDirectoryStream(directory);
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        files.close();
+        Files.delete(directory);
+        return passed;
+    }
+
+    /**
+     * This method checks whether trajectories recorded with key frames only, with delta frames,
+     * and with a rolling limited number of segments, are decoded back at any recorded tick
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testTrajectoryRecording() {
+        try {
+            return checkTrajectories(false, 0, 0)
+                && checkTrajectories(true, 1.0 / TrajectoryRecorder.DELTA_SCALE, 0)
+                && checkTrajectories(true, 1.0 / TrajectoryRecorder.DELTA_SCALE, 3);
+        } catch (IOException e) {
+            System.out.println("Trajectories could not be recorded: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * This method checks whether a telemetry reporter hands a sample of the running counters of a
+     * world every given number of ticks to its sink, from its background thread
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testTelemetryReporter() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632, 8);
+        for (int i = 0; i < 5; ++i) {
+            world.spawnTiger();
+        }
+        for (int i = 0; i < 200; ++i) {
+            world.spawnDeer();
+        }
+        RingBufferTelemetrySink sink = new RingBufferTelemetrySink(4);
+        TelemetryReporter reporter = new TelemetryReporter(10, sink);
+        world.addTickListener(reporter);
+        world.run(100);
+        try {
+            reporter.close();
+        } catch (IOException e) {
+            System.out.println("Reporter could not be closed: " + e.getMessage());
+            return false;
+        }
+        List<TelemetrySample> samples = sink.getSamples();
+        if (samples.size() != 4 || samples.get(0).tick != 70 || sink.getLatest().tick != 100) {
+            System.out.println("Ring buffer does not hold the 4 latest samples.");
+            passed = false;
+        }
+        int maxTimeAlive = 0;
+        for (int i = 0; i < world.getDeer().size(); ++i) {
+            maxTimeAlive = Math.max(maxTimeAlive, world.getDeer().timeAlive.get(i));
+        }
+        TelemetrySample latest = sink.getLatest();
+        if (latest == null || latest.deerCount != world.getDeer().size()
+            || latest.deersEaten != world.deersEaten || latest.maxTimeAlive != maxTimeAlive) {
+            System.out.println("Latest sample does not match the world.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the parameters a world is created with drive its dynamics, and
+     * whether a snapshot restores them
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testJungleParameters() {
+        boolean passed = true;
+        JungleParameters parameters = new JungleParameters();
+        if (parameters.getTigerScanRange() != Tiger.SCAN_RANGE
+            || parameters.getDeerSpeed() != Deer.SPEED) {
+            System.out.println("Default parameters differ from the constants.");
+            passed = false;
+        }
+        parameters.setDeerSpeed(0);
+        parameters.setTigerScanRange(40);
+        JungleWorld world = new JungleWorld(800, 632, 21, parameters);
+        parameters.setDeerSpeed(5); // must not affect the world created before
+        for (int i = 0; i < 5; ++i) {
+            world.spawnTiger();
+        }
+        for (int i = 0; i < 300; ++i) {
+            world.spawnDeer();
+        }
+        float x = world.getDeer().x.get(0);
+        float y = world.getDeer().y.get(0);
+        world.run(1);
+        if (world.getDeer().size() == 300 && (world.getDeer().x.get(0) != x
+            || world.getDeer().y.get(0) != y)) {
+            System.out.println("Deer of speed 0 moved.");
+            passed = false;
+        }
+
+        // A larger scan range eats more deer than the default one from the same start:
+        JungleWorld defaults = new JungleWorld(800, 632, 21);
+        for (int i = 0; i < 5; ++i) {
+            defaults.spawnTiger();
+        }
+        for (int i = 0; i < 300; ++i) {
+            defaults.spawnDeer();
+        }
+        world.run(99);
+        defaults.run(100);
+        if (world.deersEaten <= defaults.deersEaten) {
+            System.out.println("A larger scan range did not eat more deer.");
+            passed = false;
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            WorldSnapshot.write(world, Channels.newChannel(bytes));
+            JungleWorld restored = WorldSnapshot.read(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+            if (!restored.getParameters().equals(world.getParameters())) {
+                System.out.println("Snapshot did not restore the parameters.");
+                passed = false;
+            }
+        } catch (IOException e) {
+            System.out.println("Snapshot could not be written or read: " + e.getMessage());
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a batch runner runs every point of its grid, independently of the
+     * number of threads, and summarizes each configuration across its seeds
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testBatchRunner() {
+        boolean passed = true;
+        String[] args = {"--tiger-scan-range", "10,60", "--tigers", "3", "--deer", "50",
+            "--seeds", "1..3", "--ticks", "200", "--mode", "fused"};
+        List<BatchRun> sequential = BatchRunner.createRuns(BatchRunner.parseOptions(args));
+        List<BatchRun> concurrent = BatchRunner.createRuns(BatchRunner.parseOptions(args));
+        StringBuilder sequentialCsv = new StringBuilder();
+        StringBuilder concurrentCsv = new StringBuilder();
+        StringBuilder summary = new StringBuilder();
+        try {
+            BatchRunner.runAll(sequential, 1);
+            BatchRunner.runAll(concurrent, 3);
+            BatchRunner.writeRuns(sequential, sequentialCsv);
+            BatchRunner.writeRuns(concurrent, concurrentCsv);
+            BatchRunner.writeSummary(concurrent, summary);
+        } catch (InterruptedException | IOException e) {
+            System.out.println("Batch could not be run: " + e.getMessage());
+            return false;
+        }
+        if (sequential.size() != 6) {
+            System.out.println("Grid of 2 scan ranges and 3 seeds does not have 6 runs.");
+            passed = false;
+        }
+        if (!sequentialCsv.toString().equals(concurrentCsv.toString())) {
+            System.out.println("Runs depend on the number of threads.");
+            passed = false;
+        }
+        String[] lines = summary.toString().split("\n");
+        if (lines.length != 3 || !lines[0].equals(BatchRunner.SUMMARY_HEADER)
+            || !lines[1].startsWith("1.5,-2.0,10,2.0,-2.0,175,3,50,3,")
+            || !lines[2].startsWith("1.5,-2.0,60,2.0,-2.0,175,3,50,3,")) {
+            System.out.println("Summary does not have one line per configuration: " + summary);
+            passed = false;
+        }
+        for (BatchRun run : concurrent) {
+            if (run.deersEaten + (run.extinct ? 0 : 1) > 50 || run.survivalTime > 200
+                || run.extinct != (run.deersEaten == 50)) {
+                System.out.println("Run has an inconsistent outcome.");
+                passed = false;
+                break;
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a fixed-timestep clock advances a world by whole ticks whatever
+     * the frames, drops the ticks it cannot catch up, and interpolates positions across the edges of
+     * the torus
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testFixedTimestep() {
+        boolean passed = true;
+        JungleWorld clocked = new JungleWorld(800, 632, 34);
+        JungleWorld reference = new JungleWorld(800, 632, 34);
+        for (JungleWorld world : new JungleWorld[] {clocked, reference}) {
+            for (int i = 0; i < 5; ++i) {
+                world.spawnTiger();
+            }
+            for (int i = 0; i < 200; ++i) {
+                world.spawnDeer();
+            }
+        }
+        FixedTimestep timestep = new FixedTimestep(clocked, 240, 1000);
+        Random frames = new Random(3);
+        int ticks = 0;
+        for (int frame = 0; frame < 100; ++frame) { // irregular frames of 0 to 50 ms
+            ticks += timestep.advance(frames.nextInt(50000000));
+            float alpha = timestep.getAlpha();
+            if (alpha < 0 || alpha >= 1) {
+                System.out.println("Interpolation factor out of range: " + alpha);
+                passed = false;
+            }
+        }
+        reference.run(ticks);
+        if (clocked.tickCounter != ticks
+            || !samePositions(clocked.getDeer(), reference.getDeer(), 0)
+            || !samePositions(clocked.getTigers(), reference.getTigers(), 0)) {
+            System.out.println("Clocked world differs from the world ticked directly.");
+            passed = false;
+        }
+
+        timestep.setMaxSubsteps(4);
+        int caughtUp = timestep.advance(1000000000L); // a one second stall
+        if (caughtUp != 4 || timestep.getDroppedTicks() != 240 - 4 || timestep.getAlpha() >= 1) {
+            System.out.println("Stall was not capped to the maximum number of substeps.");
+            passed = false;
+        }
+
+        Population population = new Population(Population.DEER, 1);
+        population.add(1, 799, 10, null);
+        population.nextX.put(0, 1); // crosses the right edge
+        population.nextY.put(0, 10);
+        population.swapBuffers();
+        float x = population.interpolateX(0, 0.5f, 800);
+        if (Math.abs(x - 0) > 1e-3 && Math.abs(x - 800) > 1e-3) {
+            System.out.println("Interpolation across the edge should be near 0, not " + x);
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the cheap levels of detail rasterize the animals of a world where
+     * they are, wrapping dots around the edges of the torus and counting animals per heatmap cell
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testLevelOfDetailRasterization() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632, 55);
+        world.spawnTiger(799.5f, 631.5f); // in the bottom right corner
+        for (int i = 0; i < 3; ++i) {
+            world.spawnDeer(100, 200);
+        }
+        Camera camera = new Camera(800, 632, 800, 632); // shows the whole world
+        PImage points = new PImage(800, 632, PConstants.ARGB);
+        BatchRenderer.rasterizePoints(world, camera, 1, points);
+        if (points.pixels[200 * 800 + 100] != BatchRenderer.DEER_COLOR
+            || points.pixels[201 * 800 + 101] != BatchRenderer.DEER_COLOR
+            || points.pixels[631 * 800 + 799] != BatchRenderer.TIGER_COLOR
+            || points.pixels[0] != 0 // clipped to the window
+            || points.pixels[300 * 800 + 300] != 0) {
+            System.out.println("Points are not rasterized where the animals are.");
+            passed = false;
+        }
+        camera.lookAt(0, 0); // the corners of the world meet at the center of the window
+        BatchRenderer.rasterizePoints(world, camera, 1, points);
+        if (points.pixels[315 * 800 + 399] != BatchRenderer.TIGER_COLOR
+            || points.pixels[631 * 800 + 799] != 0) {
+            System.out.println("Points are not rasterized where the panned camera shows them.");
+            passed = false;
+        }
+        camera.lookAt(400, 316);
+
+        PImage heatmap = new PImage(100, 79, PConstants.ARGB);
+        BatchRenderer.rasterizeHeatmap(world, camera, heatmap);
+        int deerCell = heatmap.pixels[200 / 8 * 100 + 100 / 8];
+        int tigerCell = heatmap.pixels[631 / 8 * 100 + 799 / 8];
+        if (deerCell >>> 24 == 0 || (deerCell >> 16 & 0xff) != 0 || tigerCell >>> 24 == 0
+            || (tigerCell >> 16 & 0xff) == 0 || heatmap.pixels[0] != 0) {
+            System.out.println("Heatmap does not show the animals of each cell.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether a camera maps a large world to a smaller window and back, across
+     * the edges of the torus, and whether animals of a large sparse world still meet
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testLargeWorldCamera() {
+        boolean passed = true;
+        Camera camera = new Camera(100000, 100000, 800, 632);
+        camera.lookAt(99990, 50);
+        if (Math.abs(camera.screenX(10) - 420) > 1e-2 || Math.abs(camera.screenY(50) - 316) > 1e-2
+            || Math.abs(camera.worldX(420) - 10) > 1e-2) {
+            System.out.println("Camera does not map across the edge of the world.");
+            passed = false;
+        }
+        camera.zoomAt(2, 600, 100); // the point under (600, 100) stays there
+        float x = camera.worldX(600);
+        float y = camera.worldY(100);
+        camera.zoomAt(4, 600, 100);
+        if (Math.abs(camera.worldX(600) - x) > 1e-1 || Math.abs(camera.worldY(100) - y) > 1e-1
+            || camera.getZoom() != 8) {
+            System.out.println("Zooming moved the point under the mouse, or exceeded its maximum.");
+            passed = false;
+        }
+        camera.setZoom(0);
+        if (camera.getZoom() != 0.008f) { // the width of the window is the width of the world
+            System.out.println("Camera zoomed out beyond the world: " + camera.getZoom());
+            passed = false;
+        }
+
+        // A large sparse world keeps a small spatial index, and its animals still meet:
+        JungleWorld world = new JungleWorld(100000, 100000, 89);
+        world.setGradientMode(GradientMode.FUSED);
+        world.spawnTiger(50000, 50000);
+        world.spawnDeer(50008, 50000);
+        for (int i = 0; i < 1000; ++i) {
+            world.spawnDeer();
+        }
+        world.run(5);
+        if (world.deersEaten < 1) {
+            System.out.println("Tiger of a large world did not eat the deer next to it.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether worlds number their animals independently, and whether an
+     * ensemble of replicas has the same outcome whatever the number of threads it runs on
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testEnsemble() {
+        boolean passed = true;
+        JungleWorld first = new JungleWorld(800, 632, 1);
+        JungleWorld second = new JungleWorld(800, 632, 1);
+        first.spawnTiger();
+        first.spawnTiger();
+        Tiger tiger = new Tiger(second);
+        Deer deer = new Deer(second);
+        if (first.getTigers().id.get(1) != 2 || tiger.getID() != 1 || deer.getID() != 1) {
+            System.out.println("Worlds share the identifiers of their animals.");
+            passed = false;
+        }
+
+        JungleParameters parameters = new JungleParameters();
+        parameters.setTigerScanRange(40);
+        Ensemble sequential =
+            new Ensemble(parameters, 3, 30, 150, 400, 300, GradientMode.FUSED, 55, 8);
+        Ensemble concurrent =
+            new Ensemble(parameters, 3, 30, 150, 400, 300, GradientMode.FUSED, 55, 8);
+        try {
+            sequential.run(1);
+            concurrent.run(4);
+        } catch (InterruptedException e) {
+            System.out.println("Ensemble could not be run: " + e.getMessage());
+            return false;
+        }
+        if (!sequential.toString().equals(concurrent.toString())) {
+            System.out.println("Ensemble depends on the number of threads: " + sequential + " / "
+                + concurrent);
+            passed = false;
+        }
+        List<BatchRun> runs = concurrent.getRuns();
+        for (int i = 0; i < runs.size(); ++i) {
+            BatchRun run = runs.get(i);
+            BatchRun other = sequential.getRuns().get(i);
+            if (run.seed != other.seed || run.survivalTime != other.survivalTime
+                || run.deersEaten != other.deersEaten || (i > 0 && run.seed == runs.get(0).seed)) {
+                System.out.println("Replicas do not have distinct seeds and matching outcomes.");
+                passed = false;
+                break;
+            }
+        }
+        double survival = concurrent.getSurvivalFraction(149);
+        if (concurrent.getReplicas() != 8 || concurrent.getMeanDeersEaten() <= 0
+            || Math.abs(survival - (8 - concurrent.getExtinctions()) / 8.0) > 1e-9
+            || concurrent.getSurvivalFraction(-1) != 1) {
+            System.out.println("Ensemble statistics are inconsistent: " + concurrent);
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether populations keep their animals off the heap when they grow and
+     * compact, only allocate views once one is added, and whether a world of a million deer ticks
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testOffHeapPopulation() {
+        boolean passed = true;
+        Population population = new Population(Population.DEER, 1);
+        for (int i = 0; i < 1000; ++i) {
+            population.add(i + 1, i, 2 * i, null);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            population.kill(i);
+        }
+        population.compact();
+        if (!population.x.isDirect() || !population.id.isDirect() || population.size() != 500
+            || population.capacity() < 1000 || population.id.get(0) != 2
+            || population.x.get(499) != 999 || population.y.get(499) != 1998
+            || !population.isAlive(499) || population.view(499) != null) {
+            System.out.println("Population did not keep its animals off the heap in order.");
+            passed = false;
+        }
+
+        JungleWorld world = new JungleWorld(4000, 4000, 144);
+        world.setGradientMode(GradientMode.FUSED);
+        for (int i = 0; i < 10; ++i) {
+            world.spawnTiger();
+        }
+        for (int i = 0; i < 1000000; ++i) {
+            world.spawnDeer();
+        }
+        world.run(2);
+        Population deer = world.getDeer();
+        if (deer.size() + world.deersEaten != 1000000 || deer.view(0) != null
+            || deer.timeAlive.get(deer.size() - 1) > 2) {
+            System.out.println("World of a million deer did not tick.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the unrolled gradient kernel sums the same gradient as the fused
+     * one, including over the animals left over by the unrolling and the eaten ones, and whether
+     * both modes move the animals alike
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testUnrolledGradient() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632, 233);
+        Random random = new Random(13);
+        for (int i = 0; i < 7; ++i) {
+            world.spawnTiger(random.nextInt(800), random.nextInt(632));
+        }
+        for (int i = 0; i < 43; ++i) { // not a multiple of the four lanes
+            world.spawnDeer(random.nextInt(800), random.nextInt(632));
+        }
+        Population tigers = world.getTigers();
+        Population deer = world.getDeer();
+        deer.x.put(5, tigers.x.get(0)); // eaten by the first tiger, and lying under it
+        deer.y.put(5, tigers.y.get(0));
+        deer.kill(5);
+        deer.kill(42);
+        double[] fused = new double[2];
+        double[] unrolled = new double[2];
+        for (double exponent : new double[] {-2.0, -1.5}) {
+            for (int i = 0; i < tigers.size(); ++i) {
+                int fusedCount = Animal.fusedGradient(world, tigers.x.get(i), tigers.y.get(i),
+                    deer, exponent, fused);
+                int unrolledCount = Animal.unrolledGradient(world, tigers.x.get(i),
+                    tigers.y.get(i), deer, exponent, unrolled);
+                if (fusedCount != 41 || unrolledCount != 41
+                    || Math.abs(fused[0] - unrolled[0]) > 1e-9 * Math.abs(fused[0])
+                    || Math.abs(fused[1] - unrolled[1]) > 1e-9 * Math.abs(fused[1])) {
+                    System.out.println("Unrolled gradient of a tiger differs: "
+                        + Arrays.toString(fused) + " / " + Arrays.toString(unrolled));
+                    passed = false;
+                }
+            }
+        }
+        for (int i = 0; i < deer.size(); ++i) {
+            Animal.fusedGradient(world, deer.x.get(i), deer.y.get(i), tigers, -2.0, fused);
+            Animal.unrolledGradient(world, deer.x.get(i), deer.y.get(i), tigers, -2.0, unrolled);
+            if (Math.abs(fused[0] - unrolled[0]) > 1e-9 * Math.abs(fused[0])
+                || Math.abs(fused[1] - unrolled[1]) > 1e-9 * Math.abs(fused[1])) {
+                System.out.println("Unrolled gradient of a deer differs.");
+                passed = false;
+                break;
+            }
+        }
+
+        JungleWorld fusedWorld = new JungleWorld(800, 632, 377);
+        JungleWorld unrolledWorld = new JungleWorld(800, 632, 377);
+        fusedWorld.setGradientMode(GradientMode.FUSED);
+        unrolledWorld.setGradientMode(GradientMode.UNROLLED);
+        for (JungleWorld populated : new JungleWorld[] {fusedWorld, unrolledWorld}) {
+            for (int i = 0; i < 6; ++i) {
+                populated.spawnTiger();
+            }
+            for (int i = 0; i < 61; ++i) {
+                populated.spawnDeer();
+            }
+            populated.run(100);
+        }
+        if (!samePositions(fusedWorld.getTigers(), unrolledWorld.getTigers(), 1e-2)
+            || !samePositions(fusedWorld.getDeer(), unrolledWorld.getDeer(), 1e-2)) {
+            System.out.println("Unrolled gradient moved or ate animals differently.");
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * This method checks whether the cutoff mode moves the animals exactly alike whether its
+     * neighbor lists are rebuilt every tick or only once the animals moved far enough, matches the
+     * fused mode when the radius covers the whole world, and whether snapshots keep the cutoff
+     *
+     * @return true when test verifies correct functionality, and false otherwise.
+     */
+    public static boolean testCutoffNeighborLists() {
+        boolean passed = true;
+        JungleWorld everyTick = new JungleWorld(2000, 1600, 610);
+        JungleWorld amortized = new JungleWorld(2000, 1600, 610);
+        everyTick.setCutoff(120, 0); // any move invalidates the lists
+        amortized.setCutoff(120, 12);
+        for (JungleWorld world : new JungleWorld[] {everyTick, amortized}) {
+            world.setGradientMode(GradientMode.CUTOFF);
+            for (int i = 0; i < 30; ++i) {
+                world.spawnTiger();
+            }
+            for (int i = 0; i < 600; ++i) {
+                world.spawnDeer();
+            }
+            world.run(60);
+        }
+        if (!samePositions(everyTick.getTigers(), amortized.getTigers(), 0)
+            || !samePositions(everyTick.getDeer(), amortized.getDeer(), 0)
+            || everyTick.deersEaten != amortized.deersEaten) {
+            System.out.println("Neighbor lists changed the trajectories.");
+            passed = false;
+        }
+        if (everyTick.getNeighborListRebuilds() != 60
+            || amortized.getNeighborListRebuilds() >= 40) {
+            System.out.println("Neighbor lists were rebuilt " + amortized.getNeighborListRebuilds()
+                + " times in 60 ticks.");
+            passed = false;
+        }
+
+        // A radius beyond half the diagonal of the world covers every animal:
+        JungleWorld fused = new JungleWorld(800, 632, 987);
+        JungleWorld cutoff = new JungleWorld(800, 632, 987);
+        fused.setGradientMode(GradientMode.FUSED);
+        cutoff.setGradientMode(GradientMode.CUTOFF);
+        cutoff.setCutoff(520, 8);
+        for (JungleWorld world : new JungleWorld[] {fused, cutoff}) {
+            for (int i = 0; i < 5; ++i) {
+                world.spawnTiger();
+            }
+            for (int i = 0; i < 80; ++i) {
+                world.spawnDeer();
+            }
+            world.run(100);
+        }
+        if (!samePositions(fused.getTigers(), cutoff.getTigers(), 1e-4)
+            || !samePositions(fused.getDeer(), cutoff.getDeer(), 1e-4)) {
+            System.out.println("Cutoff covering the whole world differs from the fused sum.");
+            passed = false;
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WorldSnapshot.write(amortized, Channels.newChannel(out));
+            JungleWorld restored = WorldSnapshot
+                .read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+            restored.run(30);
+            amortized.run(30);
+            if (restored.getCutoffRadius() != 120 || restored.getVerletSkin() != 12
+                || !samePositions(restored.getDeer(), amortized.getDeer(), 0)) {
+                System.out.println("Restored world does not keep its cutoff.");
+                passed = false;
+            }
+        } catch (IOException e) {
+            System.out.println("Snapshot could not be written or read: " + e.getMessage());
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * Checks that the gradient fields of GradientMode.PARTICLE_MESH point the same way as the exact
+     * sum away from the animals, that they are only solved again once the animals moved, and that
+     * a world restored from a snapshot evolves exactly like the world whose fields were updated
+     * incrementally over many ticks
+     *
+     * @return true if the fields behave as expected, false otherwise
+     */
+    public static boolean testParticleMeshField() {
+        boolean passed = true;
+        JungleWorld world = new JungleWorld(800, 632, 4242);
+        for (int i = 0; i < 400; ++i) {
+            world.spawnDeer();
+        }
+        GradientField field = new GradientField(world, world.deer, -2, 8);
+        field.update();
+        double[] sampled = new double[2];
+        double[] exact = new double[2];
+        int probes = 0;
+        int aligned = 0;
+        for (int x = 3; x < 800; x += 17) {
+            for (int y = 5; y < 632; y += 13) {
+                field.sample(x, y, sampled);
+                Animal.fusedGradient(world, x, y, world.deer, -2, exact);
+                double dot = sampled[0] * exact[0] + sampled[1] * exact[1];
+                double norms = Math.hypot(sampled[0], sampled[1]) * Math.hypot(exact[0], exact[1]);
+                ++probes;
+                if (dot > 0.9 * norms) {
+                    ++aligned;
+                }
+            }
+        }
+        if (aligned < 0.9 * probes) {
+            System.out.println("Only " + aligned + " of " + probes
+                + " sampled gradients point the way of the exact ones.");
+            passed = false;
+        }
+        field.update();
+        world.deer.x.put(0, world.deer.x.get(0) + 0.001f); // far below a 256th of a cell
+        field.update();
+        if (field.getSolves() != 1) {
+            System.out.println("Field was solved again although no deposit changed.");
+            passed = false;
+        }
+        world.deer.x.put(0, world.deer.x.get(0) + 3);
+        field.update();
+        if (field.getSolves() != 2) {
+            System.out.println("Field was not solved again after a deer moved.");
+            passed = false;
+        }
+
+        JungleWorld mesh = new JungleWorld(800, 632, 2718);
+        mesh.setGradientMode(GradientMode.PARTICLE_MESH);
+        mesh.setMeshCellSize(6);
+        for (int i = 0; i < 10; ++i) {
+            mesh.spawnTiger();
+        }
+        for (int i = 0; i < 300; ++i) {
+            mesh.spawnDeer();
+        }
+        mesh.run(80);
+        if (mesh.deersEaten == 0 || mesh.getDeerField() != null) {
+            System.out.println("No deer were eaten, or the fields are valid between ticks.");
+            passed = false;
+        }
+        if (mesh.getMetrics().getHistogram(TickPhase.FIELD).getMax() == 0) {
+            System.out.println("Solving the fields was not timed.");
+            passed = false;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WorldSnapshot.write(mesh, Channels.newChannel(out));
+            JungleWorld restored = WorldSnapshot
+                .read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+            restored.run(60);
+            mesh.run(60);
+            if (restored.getMeshCellSize() != 6
+                || !samePositions(restored.getTigers(), mesh.getTigers(), 0)
+                || !samePositions(restored.getDeer(), mesh.getDeer(), 0)) {
+                System.out.println("Incrementally updated fields differ from deposited ones.");
+                passed = false;
+            }
+        } catch (IOException e) {
+            System.out.println("Snapshot could not be written or read: " + e.getMessage());
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * Runs the headless tests
+     *
+     * @param args
+     */
+    public static void main(String[] args) {
+        System.out.println("testHeadlessTick(): " + testHeadlessTick());
+        System.out.println("testHeadlessPredation(): " + testHeadlessPredation());
+        System.out.println("testViewsAfterCompaction(): " + testViewsAfterCompaction());
+        System.out.println(
+            "testTigerActionEatsSeveralDeer(): " + testTigerActionEatsSeveralDeer());
+        System.out.println("testTigerChainEatsDeer(): " + testTigerChainEatsDeer());
+        System.out.println("testRemoveAndClear(): " + testRemoveAndClear());
+        System.out.println("testSpatialGridWrapAround(): " + testSpatialGridWrapAround());
+        System.out.println("testBarnesHutGradient(): " + testBarnesHutGradient());
+        System.out.println(
+            "testFusedGradientTrajectories(): " + testFusedGradientTrajectories());
+        System.out.println("testParallelTickDeterminism(): " + testParallelTickDeterminism());
+        System.out.println("testSeededReproducibility(): " + testSeededReproducibility());
+        System.out.println("testTickMetrics(): " + testTickMetrics());
+        System.out.println("testAllocationFreeTick(): " + testAllocationFreeTick());
+        System.out.println("testSnapshotRestore(): " + testSnapshotRestore());
+        System.out.println("testTrajectoryRecording(): " + testTrajectoryRecording());
+        System.out.println("testTelemetryReporter(): " + testTelemetryReporter());
+        System.out.println("testJungleParameters(): " + testJungleParameters());
+        System.out.println("testBatchRunner(): " + testBatchRunner());
+        System.out.println("testFixedTimestep(): " + testFixedTimestep());
+        System.out.println(
+            "testLevelOfDetailRasterization(): " + testLevelOfDetailRasterization());
+        System.out.println("testLargeWorldCamera(): " + testLargeWorldCamera());
+        System.out.println("testEnsemble(): " + testEnsemble());
+        System.out.println("testOffHeapPopulation(): " + testOffHeapPopulation());
+        System.out.println("testUnrolledGradient(): " + testUnrolledGradient());
+        System.out.println("testCutoffNeighborLists(): " + testCutoffNeighborLists());
+        System.out.println("testParticleMeshField(): " + testParticleMeshField());
+    }
+}
@@ -0,0 +1,82 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Moves one chunk of the tigers and one chunk of the deer of a world during the movement phase of
+ * a tick. Each task only writes the next positions of its own slots, so the tasks of a tick can run
+ * in parallel on a ForkJoinPool. Tasks are created once per world and reinitialized each tick, and
+ * own the scratch space the gradient computations need.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class MoveTask extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  private final JungleWorld world; // world whose animals are moved
+  private final int chunk; // index of the chunk of slots moved by this task
+  private final int chunkCount; // number of chunks the slots of each population are split into
+  private final double[] gradient = new double[2]; // partial derivatives of the moving animal
+  private final int[] stack = new int[BarnesHutTree.STACK_SIZE]; // Barnes-Hut traversal stack
+  protected long interactions; // pair interactions evaluated by the last run of the task
+  protected int maxTimeAlive; // longest time alive of the living deer moved by the last run
+
+  /**
+   * Creates a task moving one chunk of the animals of a world
+   *
+   * @param world      world whose animals are moved
+   * @param chunk      index of the chunk of slots moved by this task
+   * @param chunkCount number of chunks the slots of each population are split into
+   */
+  public MoveTask(JungleWorld world, int chunk, int chunkCount) {
+    this.world = world;
+    this.chunk = chunk;
+    this.chunkCount = chunkCount;
+  }
+
+  /**
+   * Moves the tigers and deer of this task's chunk
+   */
+  @Override
+  protected void compute() {
+    long interactions = 0;
+    int maxTimeAlive = 0;
+    Population tigers = world.tigers;
+    int first = (int) ((long) chunk * tigers.size / chunkCount);
+    int last = (int) ((long) (chunk + 1) * tigers.size / chunkCount);
+    for (int i = first; i < last; ++i) {
+      interactions += Tiger.move(world, i, gradient, stack);
+    }
+
+    Population deer = world.deer;
+    first = (int) ((long) chunk * deer.size / chunkCount);
+    last = (int) ((long) (chunk + 1) * deer.size / chunkCount);
+    for (int i = first; i < last; ++i) {
+      if (deer.isAlive(i)) {
+        interactions += Deer.move(world, i, gradient, stack);
+        maxTimeAlive = Math.max(maxTimeAlive, deer.timeAlive.get(i));
+      } else { // eaten this tick: stays in place until it is swept out
+        deer.nextX.put(i, deer.x.get(i));
+        deer.nextY.put(i, deer.y.get(i));
+      }
+    }
+    this.interactions = interactions;
+    this.maxTimeAlive = maxTimeAlive;
+  }
+}
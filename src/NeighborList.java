@@ -0,0 +1,350 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Verlet neighbor lists of the animals of one species among the animals of the other, used in
+ * GradientMode.CUTOFF. The list of each source animal holds the slots of every target animal
+ * within the cutoff radius plus a skin distance when the lists were built. As long as the sources
+ * and the targets together have moved less than the skin since, every target within the cutoff
+ * radius of a source is still in its list, so the lists are only rebuilt once some animals moved
+ * far enough, and the spatial search is amortized over many ticks.
+ *
+ * The lists are stored in a compressed form: the targets of every source one after the other, and
+ * where the targets of each source start. The targets of each source are kept in slot order, so
+ * that a gradient summed from the lists is exactly the one Animal.cutoffGradient() sums, whenever
+ * the lists were built. Adding or removing animals invalidates the lists, but
+ * sweeping the animals eaten during a tick does not: the lists are swept alongside.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class NeighborList {
+  private final JungleWorld world; // world whose animals are listed
+  private final Population sources; // animals whose neighbors are listed
+  private final Population targets; // animals listed as neighbors
+  private final int cutoff; // radius within which targets contribute to the gradient of a source
+  private final int skin; // distance added to the cutoff radius when the lists are built
+  private final SpatialGrid grid; // grid of the sources, queried when the lists are built
+  private int[] start; // index in neighbors of the first target of each source, and the end
+  private int[] neighbors; // slots of the targets of each source, source after source
+  private int[] found; // slots of the sources found by the last query of the grid
+  private int[] pairSources; // source of each pair within range while building the lists
+  private int[] pairTargets; // target of each pair within range while building the lists
+  private float[] sourceX; // x-coordinate of each source when the lists were built
+  private float[] sourceY; // y-coordinate of each source when the lists were built
+  private float[] targetX; // x-coordinate of each target when the lists were built
+  private float[] targetY; // y-coordinate of each target when the lists were built
+  private int[] targetSlots; // new slot of each target while sweeping, or -1 if it was eaten
+  private int sourceCount; // number of sources listed
+  private int targetCount; // number of targets when the lists were built
+  private int sourceVersion; // layout version of the sources when the lists were built
+  private int targetVersion; // layout version of the targets when the lists were built
+  private boolean built; // false until the lists are built, and once they are invalidated
+  private int rebuilds; // number of times the lists were built
+
+  /**
+   * Creates empty lists, built by the first call to update()
+   *
+   * @param world   world whose animals are listed
+   * @param sources animals whose neighbors are listed
+   * @param targets animals listed as neighbors
+   * @param cutoff  radius within which targets contribute to the gradient of a source
+   * @param skin    distance added to the cutoff radius when the lists are built, so that they stay
+   *                valid until the animals moved that far
+   */
+  public NeighborList(JungleWorld world, Population sources, Population targets, int cutoff,
+      int skin) {
+    if (cutoff < 1 || skin < 0) {
+      throw new IllegalArgumentException(
+          "cutoff must be positive and skin nonnegative: " + cutoff + ", " + skin);
+    }
+    this.world = world;
+    this.sources = sources;
+    this.targets = targets;
+    this.cutoff = cutoff;
+    this.skin = skin;
+    grid = new SpatialGrid(world, sources, cutoff + skin);
+    start = new int[17];
+    neighbors = new int[64];
+    found = new int[17];
+    pairSources = new int[64];
+    pairTargets = new int[64];
+    sourceX = new float[16];
+    sourceY = new float[16];
+    targetX = new float[16];
+    targetY = new float[16];
+    targetSlots = new int[16];
+  }
+
+  /**
+   * Getter for cutoff
+   *
+   * @return the radius within which targets contribute to the gradient of a source
+   */
+  public int getCutoff() {
+    return cutoff;
+  }
+
+  /**
+   * Getter for skin
+   *
+   * @return the distance added to the cutoff radius when the lists are built
+   */
+  public int getSkin() {
+    return skin;
+  }
+
+  /**
+   * Getter for rebuilds
+   *
+   * @return the number of times the lists were built
+   */
+  public int getRebuilds() {
+    return rebuilds;
+  }
+
+  /**
+   * Invalidates the lists, so that the next call to update() rebuilds them
+   */
+  public void invalidate() {
+    built = false;
+  }
+
+  /**
+   * Computes the largest distance any animal of a population moved since the lists were built
+   *
+   * @param population population whose animals moved
+   * @param count      number of animals of the population when the lists were built
+   * @param builtX     x-coordinate of each animal when the lists were built
+   * @param builtY     y-coordinate of each animal when the lists were built
+   * @return the largest distance moved
+   */
+  private double maxDisplacement(Population population, int count, float[] builtX,
+      float[] builtY) {
+    double max = 0;
+    for (int i = 0; i < count; ++i) {
+      max = Math.max(max, Animal.distanceSquared(world, population.x.get(i), population.y.get(i),
+          builtX[i], builtY[i]));
+    }
+    return Math.sqrt(max);
+  }
+
+  /**
+   * Determines whether the lists still hold every target within the cutoff radius of each source
+   *
+   * @return true if the lists were built, no animal was added or removed since, and the sources
+   *         and targets moved less than the skin in total, false otherwise
+   */
+  public boolean isValid() {
+    return built && sources.getLayoutVersion() == sourceVersion
+        && targets.getLayoutVersion() == targetVersion
+        && maxDisplacement(sources, sourceCount, sourceX, sourceY)
+            + maxDisplacement(targets, targetCount, targetX, targetY) <= skin;
+  }
+
+  /**
+   * Rebuilds the lists if they are not valid anymore. Must be called before computing gradients
+   * from the lists, while neither species moves.
+   *
+   * @return true if the lists were rebuilt, false otherwise
+   */
+  public boolean update() {
+    if (isValid()) {
+      return false;
+    }
+    rebuild();
+    return true;
+  }
+
+  /**
+   * Copies the current positions of a population
+   *
+   * @param population population whose positions are copied
+   * @param builtX     array the x-coordinates are copied to
+   * @param builtY     array the y-coordinates are copied to
+   * @param count      number of animals copied
+   */
+  private static void savePositions(Population population, float[] builtX, float[] builtY,
+      int count) {
+    for (int i = 0; i < count; ++i) {
+      builtX[i] = population.x.get(i);
+      builtY[i] = population.y.get(i);
+    }
+  }
+
+  /**
+   * Builds the lists from scratch from the current positions of the living animals. The sources
+   * near each target are found target after target and scattered to the lists of the sources, so
+   * that each list is filled in slot order without sorting it.
+   */
+  public void rebuild() {
+    sourceCount = sources.size;
+    targetCount = targets.size;
+    if (start.length < sourceCount + 1) {
+      start = new int[Math.max(sourceCount + 1, 2 * start.length)];
+      found = new int[start.length];
+      sourceX = new float[start.length];
+      sourceY = new float[start.length];
+    }
+    if (targetX.length < targetCount) {
+      targetX = new float[Math.max(targetCount, 2 * targetX.length)];
+      targetY = new float[targetX.length];
+      targetSlots = new int[targetX.length];
+    }
+    savePositions(sources, sourceX, sourceY, sourceCount);
+    savePositions(targets, targetX, targetY, targetCount);
+
+    // Collect every pair of a source and a target within range, in target order, and count the
+    // targets of each source:
+    grid.rebuild();
+    Arrays.fill(start, 0, sourceCount + 1, 0);
+    int pairs = 0;
+    for (int j = 0; j < targetCount; ++j) {
+      if (!targets.isAlive(j)) {
+        continue; // eaten earlier this tick, is nobody's neighbor
+      }
+      int nearby = grid.within(targets.x.get(j), targets.y.get(j), cutoff + skin, found);
+      if (pairs + nearby > pairSources.length) {
+        pairSources = Arrays.copyOf(pairSources, Math.max(pairs + nearby, 2 * pairs));
+        pairTargets = Arrays.copyOf(pairTargets, pairSources.length);
+      }
+      for (int k = 0; k < nearby; ++k) {
+        pairSources[pairs] = found[k];
+        pairTargets[pairs] = j;
+        ++pairs;
+        ++start[found[k]];
+      }
+    }
+    // Turn the counts into the end of each list, then scatter the pairs backwards, so that each
+    // end moves back to the start of its list and the targets keep their order:
+    for (int i = 1; i < sourceCount; ++i) {
+      start[i] += start[i - 1];
+    }
+    // Keep a quarter of the slots spare, so that lists which grow a little as the animals gather
+    // are not reallocated by every rebuild:
+    if (4L * pairs > 3L * neighbors.length) {
+      neighbors = new int[2 * pairs];
+    }
+    for (int p = pairs - 1; p >= 0; --p) {
+      neighbors[--start[pairSources[p]]] = pairTargets[p];
+    }
+    if (4L * pairs > 3L * pairSources.length) {
+      pairSources = new int[2 * pairs];
+      pairTargets = new int[2 * pairs];
+    }
+    start[sourceCount] = pairs;
+    sourceVersion = sources.getLayoutVersion();
+    targetVersion = targets.getLayoutVersion();
+    built = true;
+    ++rebuilds;
+  }
+
+  /**
+   * Removes the animals marked dead from the lists, renumbering the slots of the other ones the
+   * way Population.compact() does. Must be called right before the populations are compacted, so
+   * that the lists stay valid across the compaction.
+   */
+  public void sweep() {
+    if (!built) {
+      return;
+    }
+    // New slot of each target, as compact() keeps the order of the remaining animals:
+    int kept = 0;
+    for (int i = 0; i < targetCount; ++i) {
+      if (targets.isAlive(i)) {
+        targetX[kept] = targetX[i];
+        targetY[kept] = targetY[i];
+        targetSlots[i] = kept++;
+      } else {
+        targetSlots[i] = -1;
+      }
+    }
+    targetCount = kept;
+
+    int count = 0;
+    int keptSources = 0;
+    for (int i = 0; i < sourceCount; ++i) {
+      int first = start[i];
+      int last = start[i + 1];
+      if (!sources.isAlive(i)) {
+        continue;
+      }
+      start[keptSources] = count;
+      sourceX[keptSources] = sourceX[i];
+      sourceY[keptSources] = sourceY[i];
+      ++keptSources;
+      for (int k = first; k < last; ++k) {
+        int slot = targetSlots[neighbors[k]];
+        if (slot >= 0) {
+          neighbors[count++] = slot;
+        }
+      }
+    }
+    sourceCount = keptSources;
+    start[sourceCount] = count;
+  }
+
+  /**
+   * Computes both partial derivatives of the objective function of a source over the living
+   * targets of its list within the cutoff radius
+   *
+   * @param source   slot of the source
+   * @param x        x-coordinate of the source
+   * @param y        y-coordinate of the source
+   * @param exp      exponent distance function is taken to in objective function
+   * @param gradient array the x and y partial derivatives are stored in
+   * @return the number of pair interactions evaluated, i.e. of targets within the cutoff radius
+   */
+  public int gradient(int source, float x, float y, double exp, double[] gradient) {
+    int width = world.WIDTH;
+    int height = world.HEIGHT;
+    int halfWidth = width / 2;
+    int halfHeight = height / 2;
+    double cutoffSquared = (double) cutoff * cutoff;
+    double xSum = 0;
+    double ySum = 0;
+    int interactions = 0;
+    for (int k = start[source]; k < start[source + 1]; ++k) {
+      int i = neighbors[k];
+      if (!targets.isAlive(i)) {
+        continue; // eaten earlier this tick
+      }
+      double xDistanceSigned = x - targets.x.get(i);
+      if (Math.abs(xDistanceSigned) > halfWidth) {
+        xDistanceSigned += xDistanceSigned < 0 ? width : -width;
+      }
+      double yDistanceSigned = y - targets.y.get(i);
+      if (Math.abs(yDistanceSigned) > halfHeight) {
+        yDistanceSigned += yDistanceSigned < 0 ? height : -height;
+      }
+      double distanceSquared =
+          xDistanceSigned * xDistanceSigned + yDistanceSigned * yDistanceSigned;
+      if (distanceSquared > cutoffSquared) {
+        continue; // within the skin only
+      }
+      ++interactions;
+      double factor = Animal.componentFactor(distanceSquared, exp);
+      xSum += factor * xDistanceSigned;
+      ySum += factor * yDistanceSigned;
+    }
+    gradient[0] = xSum;
+    gradient[1] = ySum;
+    return interactions;
+  }
+}
@@ -0,0 +1,456 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays store of the animals of one species. Each animal occupies a slot, i.e. the
+ * same index in each of the columns, so that the simulation loops stream over contiguous
+ * coordinates. Tiger and Deer objects are only optional views of a slot, used by the GUI.
+ *
+ * The columns live off the heap, in direct buffers of the native byte order, so that the garbage
+ * collector neither scans nor copies them however many animals there are: a population of millions
+ * of animals only costs the heap a few objects. Their size is bounded by -XX:MaxDirectMemorySize
+ * instead of -Xmx. The columns are always accessed by index, never through their position.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class Population {
+  protected static final byte TIGER = 0; // species of a population of tigers
+  protected static final byte DEER = 1; // species of a population of deer
+
+  protected final byte species; // species of every animal of the population
+  protected int size; // number of occupied slots
+  private int capacity; // number of slots of each column
+  private int deadCount; // number of slots marked dead since the last compaction
+  private int layoutVersion; // incremented whenever animals are added or removed, but not swept
+  protected FloatBuffer x; // x-coordinate of each animal
+  protected FloatBuffer y; // y-coordinate of each animal
+  protected FloatBuffer nextX; // x-coordinate of each animal at the next tick, written by moves
+  protected FloatBuffer nextY; // y-coordinate of each animal at the next tick, written by moves
+  protected FloatBuffer prevX; // x-coordinate of each animal at the previous tick, interpolated
+  protected FloatBuffer prevY; // y-coordinate of each animal at the previous tick, interpolated
+  protected ByteBuffer alive; // 0 once an animal is eaten, until the end of the tick, 1 otherwise
+  protected IntBuffer timeAlive; // number of ticks each deer has been fleeing
+  protected IntBuffer deerEatenCount; // number of deer each tiger has eaten
+  protected IntBuffer id; // identifier of each animal, used in its label
+  private Animal[] views; // Tiger or Deer object viewing each slot, or null until a view is added
+
+  /**
+   * Creates an empty population
+   *
+   * @param species  TIGER or DEER
+   * @param capacity initial number of slots
+   */
+  public Population(byte species, int capacity) {
+    this.species = species;
+    this.capacity = Math.max(capacity, 1);
+    x = newFloats(this.capacity);
+    y = newFloats(this.capacity);
+    nextX = newFloats(this.capacity);
+    nextY = newFloats(this.capacity);
+    prevX = newFloats(this.capacity);
+    prevY = newFloats(this.capacity);
+    alive = newBytes(this.capacity);
+    timeAlive = newInts(this.capacity);
+    deerEatenCount = newInts(this.capacity);
+    id = newInts(this.capacity);
+  }
+
+  /**
+   * Allocates a column of bytes off the heap
+   *
+   * @param capacity number of slots of the column
+   * @return a direct buffer of capacity zeros
+   */
+  private static ByteBuffer newBytes(int capacity) {
+    return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Allocates a column of floats off the heap
+   *
+   * @param capacity number of slots of the column
+   * @return a direct buffer of capacity zeros
+   */
+  private static FloatBuffer newFloats(int capacity) {
+    return newBytes(4 * capacity).asFloatBuffer();
+  }
+
+  /**
+   * Allocates a column of ints off the heap
+   *
+   * @param capacity number of slots of the column
+   * @return a direct buffer of capacity zeros
+   */
+  private static IntBuffer newInts(int capacity) {
+    return newBytes(4 * capacity).asIntBuffer();
+  }
+
+  /**
+   * Copies the first values of a column into a larger one
+   *
+   * @param column   column to be copied
+   * @param size     number of values copied
+   * @param capacity number of slots of the new column
+   * @return the new column
+   */
+  private static FloatBuffer copyOf(FloatBuffer column, int size, int capacity) {
+    FloatBuffer copy = newFloats(capacity);
+    copy.put((FloatBuffer) column.duplicate().limit(size)).clear();
+    return copy;
+  }
+
+  /**
+   * Copies the first values of a column into a larger one
+   *
+   * @param column   column to be copied
+   * @param size     number of values copied
+   * @param capacity number of slots of the new column
+   * @return the new column
+   */
+  private static IntBuffer copyOf(IntBuffer column, int size, int capacity) {
+    IntBuffer copy = newInts(capacity);
+    copy.put((IntBuffer) column.duplicate().limit(size)).clear();
+    return copy;
+  }
+
+  /**
+   * Copies the first values of a column into a larger one
+   *
+   * @param column   column to be copied
+   * @param size     number of values copied
+   * @param capacity number of slots of the new column
+   * @return the new column
+   */
+  private static ByteBuffer copyOf(ByteBuffer column, int size, int capacity) {
+    ByteBuffer copy = newBytes(capacity);
+    copy.put((ByteBuffer) column.duplicate().limit(size)).clear();
+    return copy;
+  }
+
+  /**
+   * Getter for size
+   *
+   * @return the number of animals in the population
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Counts the animals which are alive, i.e. not eaten since the last compaction
+   *
+   * @return the number of living animals of the population
+   */
+  public int aliveCount() {
+    return size - deadCount;
+  }
+
+  /**
+   * Getter for layoutVersion. Structures which keep slots across ticks, e.g. neighbor lists, are
+   * stale once it changed. Sweeping the animals marked dead does not change it: the structures are
+   * expected to sweep their own slots alongside, see NeighborList.sweep().
+   *
+   * @return a number which changes whenever animals are added to or removed from the population
+   */
+  public int getLayoutVersion() {
+    return layoutVersion;
+  }
+
+  /**
+   * Getter for the view of a slot
+   *
+   * @param slot slot of an animal
+   * @return the Tiger or Deer viewing the slot, or null if there is none
+   */
+  public Animal view(int slot) {
+    return views == null ? null : views[slot];
+  }
+
+  /**
+   * Determines whether the animal of a slot is alive
+   *
+   * @param slot slot of an animal
+   * @return false if the animal was eaten since the last compaction, true otherwise
+   */
+  public boolean isAlive(int slot) {
+    return alive.get(slot) != 0;
+  }
+
+  /**
+   * Points a slot at its view, allocating the views the first time one is added, so that a
+   * population without any Tiger or Deer object holds no reference per animal
+   *
+   * @param slot slot of an animal
+   * @param view Tiger or Deer viewing the animal, or null
+   */
+  private void setView(int slot, Animal view) {
+    if (views == null) {
+      if (view == null) {
+        return;
+      }
+      views = new Animal[capacity];
+    }
+    views[slot] = view;
+  }
+
+  /**
+   * Getter for capacity
+   *
+   * @return the number of slots of each column
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Doubles the number of slots of each column
+   */
+  private void grow() {
+    reserve(2 * capacity);
+  }
+
+  /**
+   * Grows the columns so that they hold at least a given number of slots, keeping the existing
+   * animals. The previous columns are freed once they are garbage collected.
+   *
+   * @param capacity number of slots the columns must hold
+   */
+  public void reserve(int capacity) {
+    if (capacity <= this.capacity) {
+      return;
+    }
+    x = copyOf(x, size, capacity);
+    y = copyOf(y, size, capacity);
+    nextX = newFloats(capacity); // only meaningful while moving, nothing to keep
+    nextY = newFloats(capacity);
+    prevX = copyOf(prevX, size, capacity);
+    prevY = copyOf(prevY, size, capacity);
+    alive = copyOf(alive, size, capacity);
+    timeAlive = copyOf(timeAlive, size, capacity);
+    deerEatenCount = copyOf(deerEatenCount, size, capacity);
+    id = copyOf(id, size, capacity);
+    if (views != null) {
+      views = Arrays.copyOf(views, capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  /**
+   * Adds an animal at the end of the population
+   *
+   * @param id   identifier of the animal
+   * @param x    x-coordinate of the animal
+   * @param y    y-coordinate of the animal
+   * @param view Tiger or Deer viewing the animal, or null
+   * @return the slot of the new animal
+   */
+  public int add(int id, float x, float y, Animal view) {
+    if (size == capacity) {
+      grow();
+    }
+    int slot = size++;
+    ++layoutVersion;
+    this.x.put(slot, x);
+    this.y.put(slot, y);
+    prevX.put(slot, x); // appears where it is added, instead of moving in from elsewhere
+    prevY.put(slot, y);
+    alive.put(slot, (byte) 1);
+    timeAlive.put(slot, 0);
+    deerEatenCount.put(slot, 0);
+    this.id.put(slot, id);
+    setView(slot, view);
+    return slot;
+  }
+
+  /**
+   * Makes the positions written to nextX and nextY the current ones, once every animal has moved,
+   * and the current ones the previous ones. The three buffers of each coordinate are rotated, so
+   * that no position is copied.
+   */
+  public void swapBuffers() {
+    FloatBuffer swap = prevX;
+    prevX = x;
+    x = nextX;
+    nextX = swap;
+    swap = prevY;
+    prevY = y;
+    y = nextY;
+    nextY = swap;
+  }
+
+  /**
+   * Makes the current position of every animal its previous one too, e.g. after every animal was
+   * placed at once, so that no animal is interpolated from a stale position
+   */
+  public void resetPrevious() {
+    prevX.put((FloatBuffer) x.duplicate().limit(size)).clear();
+    prevY.put((FloatBuffer) y.duplicate().limit(size)).clear();
+  }
+
+  /**
+   * Interpolates the x-coordinate of an animal between the previous tick and the current one
+   *
+   * @param slot  slot of the animal
+   * @param alpha fraction of a tick elapsed since the previous tick, between 0 and 1
+   * @param width width of the toroidal domain
+   * @return the interpolated x-coordinate of the animal
+   */
+  public float interpolateX(int slot, float alpha, int width) {
+    return interpolate(prevX.get(slot), x.get(slot), alpha, width);
+  }
+
+  /**
+   * Interpolates the y-coordinate of an animal between the previous tick and the current one
+   *
+   * @param slot   slot of the animal
+   * @param alpha  fraction of a tick elapsed since the previous tick, between 0 and 1
+   * @param height height of the toroidal domain
+   * @return the interpolated y-coordinate of the animal
+   */
+  public float interpolateY(int slot, float alpha, int height) {
+    return interpolate(prevY.get(slot), y.get(slot), alpha, height);
+  }
+
+  /**
+   * Interpolates a coordinate on the torus, along the shortest way from one value to the other,
+   * so that an animal crossing an edge of the domain is not drawn sweeping across the whole domain
+   *
+   * @param from  coordinate at the previous tick
+   * @param to    coordinate at the current tick
+   * @param alpha fraction of the way from one coordinate to the other
+   * @param size  size of the toroidal domain along the coordinate
+   * @return the interpolated coordinate, within the domain
+   */
+  private static float interpolate(float from, float to, float alpha, int size) {
+    float delta = to - from;
+    if (delta > size / 2f) { // crossed the lower edge
+      delta -= size;
+    } else if (delta < -size / 2f) { // crossed the upper edge
+      delta += size;
+    }
+    return Animal.wrap(from + alpha * delta, size);
+  }
+
+  /**
+   * Moves an animal from one slot to another, keeping its view pointed at it
+   *
+   * @param from current slot of the animal
+   * @param to   new slot of the animal
+   */
+  private void move(int from, int to) {
+    x.put(to, x.get(from));
+    y.put(to, y.get(from));
+    prevX.put(to, prevX.get(from));
+    prevY.put(to, prevY.get(from));
+    alive.put(to, alive.get(from));
+    timeAlive.put(to, timeAlive.get(from));
+    deerEatenCount.put(to, deerEatenCount.get(from));
+    id.put(to, id.get(from));
+    if (views != null) {
+      views[to] = views[from];
+      if (views[to] != null) {
+        views[to].slot = to;
+      }
+    }
+  }
+
+  /**
+   * Removes the animal of a slot immediately, in constant time: the last animal of the population
+   * is moved into the freed slot. Must not be called while the slots are indexed during a tick.
+   *
+   * @param slot slot of the animal to be removed
+   */
+  public void remove(int slot) {
+    if (view(slot) != null) {
+      views[slot].detach();
+    }
+    if (!isAlive(slot)) {
+      --deadCount;
+    }
+    ++layoutVersion;
+    int last = --size;
+    if (slot != last) {
+      move(last, slot);
+    }
+    setView(last, null);
+  }
+
+  /**
+   * Marks the animal of a slot dead, without moving any animal, so that the slots stay valid until
+   * the next call to compact()
+   *
+   * @param slot slot of the animal to be marked dead
+   */
+  public void kill(int slot) {
+    if (isAlive(slot)) {
+      alive.put(slot, (byte) 0);
+      ++deadCount;
+    }
+  }
+
+  /**
+   * Removes every animal marked dead in a single sweep, keeping the order of the remaining animals
+   *
+   * @return the number of animals removed
+   */
+  public int compact() {
+    if (deadCount == 0) {
+      return 0; // nothing was killed, e.g. in a tick without predation
+    }
+    int kept = 0;
+    for (int i = 0; i < size; ++i) {
+      if (alive.get(i) != 0) {
+        if (kept != i) {
+          move(i, kept);
+        }
+        ++kept;
+      } else if (view(i) != null) {
+        views[i].detach();
+      }
+    }
+    int removed = size - kept;
+    if (views != null) {
+      Arrays.fill(views, kept, size, null);
+    }
+    size = kept;
+    deadCount = 0;
+    return removed;
+  }
+
+  /**
+   * Removes every animal of the population at once. Detaches the view of each slot which
+   * has one, no slot being visited if the population has no views.
+   */
+  public void clear() {
+    for (int i = 0; views != null && i < size; ++i) {
+      if (views[i] != null) {
+        views[i].detach();
+        views[i] = null;
+      }
+    }
+    size = 0;
+    deadCount = 0;
+    ++layoutVersion;
+  }
+}
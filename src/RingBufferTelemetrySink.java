@@ -0,0 +1,84 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink keeping the latest samples in memory, overwriting the oldest ones, so that they can be read
+ * in-process, e.g. by a dashboard or a test.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class RingBufferTelemetrySink implements TelemetrySink {
+  private final TelemetrySample[] samples; // latest samples, the oldest one at index next once full
+  private int next; // index the next sample is stored at
+  private int count; // number of samples stored, at most samples.length
+
+  /**
+   * Creates an empty ring buffer
+   *
+   * @param capacity number of samples kept
+   */
+  public RingBufferTelemetrySink(int capacity) {
+    samples = new TelemetrySample[capacity];
+  }
+
+  /**
+   * Stores a batch of samples, dropping the oldest ones if the buffer is full
+   *
+   * @param batch samples taken since the previous batch
+   */
+  @Override
+  public synchronized void write(List<TelemetrySample> batch) {
+    for (TelemetrySample sample : batch) {
+      samples[next] = sample;
+      next = (next + 1) % samples.length;
+      count = Math.min(count + 1, samples.length);
+    }
+  }
+
+  /**
+   * Copies the samples currently stored
+   *
+   * @return the samples stored, from the oldest to the latest
+   */
+  public synchronized List<TelemetrySample> getSamples() {
+    List<TelemetrySample> list = new ArrayList<TelemetrySample>(count);
+    for (int i = 0; i < count; ++i) {
+      list.add(samples[(next - count + i + samples.length) % samples.length]);
+    }
+    return list;
+  }
+
+  /**
+   * Getter for the latest sample
+   *
+   * @return the latest sample stored, or null if there is none
+   */
+  public synchronized TelemetrySample getLatest() {
+    return count == 0 ? null : samples[(next - 1 + samples.length) % samples.length];
+  }
+
+  /**
+   * Does nothing, the samples stay readable
+   */
+  @Override
+  public void close() {
+  }
+}
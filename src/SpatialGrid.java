@@ -0,0 +1,211 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the toroidal domain used to answer radius queries without walking every
+ * animal of a population. Cells wrap around the edges of the domain like the animals do. The grid
+ * stores slots of the population, is rebuilt with a counting sort, and slots can be removed from
+ * it incrementally (e.g. when their animal is eaten).
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class SpatialGrid {
+  // maximum number of cells, beyond which the cells of large sparse worlds are coarsened so that
+  // the grid stays small enough to be rebuilt each tick:
+  protected static final int MAX_CELLS = 1 << 18;
+
+  private final JungleWorld world; // world whose toroidal domain is covered
+  private final Population population; // population whose slots are indexed
+  private final int columns; // number of cells in the x direction
+  private final int rows; // number of cells in the y direction
+  private final double cellWidth; // width of a cell, at least the requested cell size
+  private final double cellHeight; // height of a cell, at least the requested cell size
+  private final int[] cellStart; // index in items of the first slot of each cell
+  private final int[] cellCount; // number of slots currently stored in each cell
+  private int[] items; // slots sorted by cell
+
+  /**
+   * Creates an empty grid covering the toroidal domain of a world
+   *
+   * @param world      world whose domain is covered
+   * @param population population whose slots are indexed
+   * @param cellSize   minimum size of a cell, typically the radius of the queries. Larger cells
+   *                   are used if the domain would be split into more than MAX_CELLS cells.
+   */
+  public SpatialGrid(JungleWorld world, Population population, double cellSize) {
+    this.world = world;
+    this.population = population;
+    if ((world.WIDTH / cellSize) * (world.HEIGHT / cellSize) > MAX_CELLS) {
+      cellSize = Math.sqrt((double) world.WIDTH * world.HEIGHT / MAX_CELLS);
+    }
+    columns = Math.max(1, (int) (world.WIDTH / cellSize));
+    rows = Math.max(1, (int) (world.HEIGHT / cellSize));
+    cellWidth = (double) world.WIDTH / columns;
+    cellHeight = (double) world.HEIGHT / rows;
+    cellStart = new int[columns * rows + 1];
+    cellCount = new int[columns * rows];
+    items = new int[16];
+  }
+
+  /**
+   * Computes the column of a given x-coordinate, wrapping it around the domain
+   *
+   * @param x x-coordinate
+   * @return column of the cell containing x
+   */
+  private int column(float x) {
+    int column = (int) Math.floor(x / cellWidth) % columns;
+    return column < 0 ? column + columns : column;
+  }
+
+  /**
+   * Computes the row of a given y-coordinate, wrapping it around the domain
+   *
+   * @param y y-coordinate
+   * @return row of the cell containing y
+   */
+  private int row(float y) {
+    int row = (int) Math.floor(y / cellHeight) % rows;
+    return row < 0 ? row + rows : row;
+  }
+
+  /**
+   * Computes the cell of a given slot
+   *
+   * @param slot slot of the animal to locate
+   * @return index of the cell containing the animal
+   */
+  private int cell(int slot) {
+    return row(population.y.get(slot)) * columns + column(population.x.get(slot));
+  }
+
+  /**
+   * Rebuilds the grid from scratch from the current positions of the living animals of the
+   * population
+   */
+  public void rebuild() {
+    int size = population.size;
+    if (items.length < size) {
+      items = new int[Math.max(size, items.length * 2)];
+    }
+    // Count the animals of each cell:
+    Arrays.fill(cellCount, 0);
+    for (int i = 0; i < size; ++i) {
+      if (population.isAlive(i)) {
+        ++cellCount[cell(i)];
+      }
+    }
+    // Compute where each cell starts:
+    cellStart[0] = 0;
+    for (int c = 0; c < cellCount.length; ++c) {
+      cellStart[c + 1] = cellStart[c] + cellCount[c];
+      cellCount[c] = 0;
+    }
+    // Place each animal in its cell:
+    for (int i = 0; i < size; ++i) {
+      if (population.isAlive(i)) {
+        int c = cell(i);
+        items[cellStart[c] + cellCount[c]++] = i;
+      }
+    }
+  }
+
+  /**
+   * Removes a slot from the grid. Its animal must not have moved since the grid was rebuilt.
+   *
+   * @param slot slot to be removed
+   */
+  public void remove(int slot) {
+    int c = cell(slot);
+    int last = cellStart[c] + cellCount[c] - 1;
+    for (int i = cellStart[c]; i <= last; ++i) {
+      if (items[i] == slot) {
+        // Swap the last slot of the cell into the freed spot:
+        items[i] = items[last];
+        --cellCount[c];
+        return;
+      }
+    }
+  }
+
+  /**
+   * Determines if any animal of the grid is within a given range of a position
+   *
+   * @param x     x-coordinate at the center of the query
+   * @param y     y-coordinate at the center of the query
+   * @param range range within which animals are considered close
+   * @return true if an animal of the grid is within range of the position, false otherwise
+   */
+  public boolean anyWithin(float x, float y, int range) {
+    int columnSpan = (int) Math.ceil(range / cellWidth);
+    int rowSpan = (int) Math.ceil(range / cellHeight);
+    // If the query covers the whole domain in a direction, visit each cell only once:
+    int columnCount = Math.min(2 * columnSpan + 1, columns);
+    int rowCount = Math.min(2 * rowSpan + 1, rows);
+    int firstColumn = columnCount == columns ? 0 : column(x) - columnSpan;
+    int firstRow = rowCount == rows ? 0 : row(y) - rowSpan;
+    for (int r = 0; r < rowCount; ++r) {
+      int row = Math.floorMod(firstRow + r, rows);
+      for (int k = 0; k < columnCount; ++k) {
+        int c = row * columns + Math.floorMod(firstColumn + k, columns);
+        for (int i = cellStart[c]; i < cellStart[c] + cellCount[c]; ++i) {
+          int slot = items[i];
+          if (Animal.isClose(world, x, y, population.x.get(slot), population.y.get(slot), range)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Collects the slot of every animal of the grid within a given range of a position
+   *
+   * @param x      x-coordinate at the center of the query
+   * @param y      y-coordinate at the center of the query
+   * @param range  range within which animals are considered close
+   * @param result array the slots within range are stored in, large enough for every slot
+   * @return the number of slots stored in result
+   */
+  public int within(float x, float y, int range, int[] result) {
+    int count = 0;
+    int columnSpan = (int) Math.ceil(range / cellWidth);
+    int rowSpan = (int) Math.ceil(range / cellHeight);
+    // If the query covers the whole domain in a direction, visit each cell only once:
+    int columnCount = Math.min(2 * columnSpan + 1, columns);
+    int rowCount = Math.min(2 * rowSpan + 1, rows);
+    int firstColumn = columnCount == columns ? 0 : column(x) - columnSpan;
+    int firstRow = rowCount == rows ? 0 : row(y) - rowSpan;
+    for (int r = 0; r < rowCount; ++r) {
+      int row = Math.floorMod(firstRow + r, rows);
+      for (int k = 0; k < columnCount; ++k) {
+        int c = row * columns + Math.floorMod(firstColumn + k, columns);
+        for (int i = cellStart[c]; i < cellStart[c] + cellCount[c]; ++i) {
+          int slot = items[i];
+          if (Animal.isClose(world, x, y, population.x.get(slot), population.y.get(slot), range)) {
+            result[count++] = slot;
+          }
+        }
+      }
+    }
+    return count;
+  }
+}
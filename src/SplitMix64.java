@@ -0,0 +1,139 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Seedable and splittable generator of pseudo-random numbers, using the SplitMix64 algorithm of
+ * java.util.SplittableRandom. Unlike SplittableRandom, its whole state is a single long which can
+ * be read and restored, so that a run can be reproduced or resumed exactly. It is not thread-safe:
+ * each thread or stream of random numbers should use its own generator, obtained with split().
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class SplitMix64 {
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; // increment of the state
+
+  private long state; // state of the generator, incremented by GOLDEN_GAMMA for each number
+
+  /**
+   * Creates a generator from a seed. Two generators created from the same seed generate the same
+   * numbers.
+   *
+   * @param seed seed of the generator
+   */
+  public SplitMix64(long seed) {
+    this.state = seed;
+  }
+
+  /**
+   * Creates a seed which differs from one call to the next, for runs which need not be reproduced
+   *
+   * @return a new seed
+   */
+  public static long randomSeed() {
+    return mix64(System.nanoTime() ^ mix64(System.currentTimeMillis()));
+  }
+
+  /**
+   * Scrambles the bits of a long, so that close inputs give unrelated outputs
+   *
+   * @param z long to be scrambled
+   * @return the scrambled long
+   */
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Getter for state
+   *
+   * @return the current state of the generator
+   */
+  public long getState() {
+    return state;
+  }
+
+  /**
+   * Setter for state. A generator whose state is set to the one read from another generator
+   * generates the same numbers as that generator from then on.
+   *
+   * @param state state of the generator
+   */
+  public void setState(long state) {
+    this.state = state;
+  }
+
+  /**
+   * Creates a new generator whose numbers are independent of the ones of this generator. Advances
+   * this generator by one number.
+   *
+   * @return the new generator
+   */
+  public SplitMix64 split() {
+    return new SplitMix64(mix64(nextLong()));
+  }
+
+  /**
+   * Generates a uniformly distributed long
+   *
+   * @return the next long of the generator
+   */
+  public long nextLong() {
+    state += GOLDEN_GAMMA;
+    return mix64(state);
+  }
+
+  /**
+   * Generates a uniformly distributed int
+   *
+   * @return the next int of the generator
+   */
+  public int nextInt() {
+    return (int) (nextLong() >>> 32);
+  }
+
+  /**
+   * Generates a uniformly distributed int between 0 (inclusive) and a bound (exclusive)
+   *
+   * @param bound upper bound of the int, must be positive
+   * @return the next int of the generator within the bound
+   */
+  public int nextInt(int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive: " + bound);
+    }
+    // Rejects the top values of the range which would make the smallest results more likely:
+    int bits;
+    int result;
+    do {
+      bits = nextInt() >>> 1;
+      result = bits % bound;
+    } while (bits - result + (bound - 1) < 0);
+    return result;
+  }
+
+  /**
+   * Generates a uniformly distributed double between 0 (inclusive) and 1 (exclusive)
+   *
+   * @return the next double of the generator
+   */
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+}
@@ -0,0 +1,123 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick stage reporting the statistics of a world every given number of ticks, without slowing down
+ * the thread running it: the sample is only queued on that thread, and a background thread writes
+ * the queued samples to the sink in batches. If the sink cannot keep up and the queue is full,
+ * samples are dropped rather than blocking the tick.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class TelemetryReporter implements TickListener {
+  private final int interval; // number of ticks between two samples
+  private final TelemetrySink sink; // destination of the samples
+  private final ArrayBlockingQueue<TelemetrySample> queue; // samples waiting to be written
+  private final Thread writer; // background thread writing the samples
+  private volatile boolean closed; // true once close() was called
+  private volatile long dropped; // number of samples dropped because the queue was full
+
+  /**
+   * Creates a reporter and starts its background thread
+   *
+   * @param interval number of ticks between two samples
+   * @param sink     destination of the samples
+   */
+  public TelemetryReporter(int interval, TelemetrySink sink) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("interval must be positive: " + interval);
+    }
+    this.interval = interval;
+    this.sink = sink;
+    this.queue = new ArrayBlockingQueue<TelemetrySample>(1024);
+    this.writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        writeSamples();
+      }
+    }, "telemetry-reporter");
+    writer.setDaemon(true); // do not keep the application alive
+    writer.start();
+  }
+
+  /**
+   * Getter for dropped
+   *
+   * @return the number of samples dropped because the sink could not keep up
+   */
+  public long getDropped() {
+    return dropped;
+  }
+
+  /**
+   * Queues a sample every interval ticks
+   *
+   * @param world world which just ticked
+   */
+  @Override
+  public void afterTick(JungleWorld world) {
+    if (world.tickCounter % interval == 0 && !closed) {
+      if (!queue.offer(new TelemetrySample(world))) {
+        ++dropped; // only written by the thread running the world
+      }
+    }
+  }
+
+  /**
+   * Body of the background thread: waits for samples, and writes every sample queued at once
+   */
+  private void writeSamples() {
+    ArrayList<TelemetrySample> batch = new ArrayList<TelemetrySample>();
+    while (!closed || !queue.isEmpty()) {
+      try {
+        TelemetrySample first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch);
+        sink.write(batch);
+      } catch (InterruptedException e) {
+        closed = true;
+      } catch (IOException e) {
+        System.out.println("Telemetry could not be written: " + e.getMessage());
+      }
+      batch.clear();
+    }
+  }
+
+  /**
+   * Stops sampling, waits for the queued samples to be written, and closes the sink
+   *
+   * @throws IOException if the sink cannot be closed
+   */
+  public void close() throws IOException {
+    closed = true;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    sink.close();
+  }
+}
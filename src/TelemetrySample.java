@@ -0,0 +1,88 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Statistics of a JungleWorld at a given tick, taken by a TelemetryReporter on the thread running
+ * the world and handed over to its sink on a background thread. Samples are immutable.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class TelemetrySample {
+  // Columns of toCsv():
+  public static final String CSV_HEADER =
+      "tick,tigers,deer,maxTimeAlive,deersEaten,tickP50,tickP99,renderP50,renderP99";
+
+  public final int tick; // tick the statistics were taken at
+  public final int tigerCount; // number of tigers alive
+  public final int deerCount; // number of deer alive
+  public final int maxTimeAlive; // time alive of the longest living deer, in ticks
+  public final int deersEaten; // total number of deer eaten since the world was created
+  public final long tickP50; // median duration of the ticks so far, in nanoseconds
+  public final long tickP99; // 99th percentile duration of the ticks so far, in nanoseconds
+  public final long renderP50; // median duration of the frames so far, in nanoseconds
+  public final long renderP99; // 99th percentile duration of the frames so far, in nanoseconds
+
+  /**
+   * Takes the statistics of a world. Only reads running counters, so that it does not depend on
+   * the number of animals.
+   *
+   * @param world world whose statistics are taken
+   */
+  public TelemetrySample(JungleWorld world) {
+    tick = world.tickCounter;
+    tigerCount = world.tigers.size();
+    deerCount = world.deer.size();
+    maxTimeAlive = world.maxTimeAlive();
+    deersEaten = world.deersEaten;
+    Histogram ticks = world.getMetrics().getHistogram(TickPhase.TICK);
+    Histogram frames = world.getMetrics().getHistogram(TickPhase.RENDER);
+    tickP50 = ticks.getPercentile(50);
+    tickP99 = ticks.getPercentile(99);
+    renderP50 = frames.getPercentile(50);
+    renderP99 = frames.getPercentile(99);
+  }
+
+  /**
+   * Formats the sample as a CSV line, whose columns are listed by CSV_HEADER
+   *
+   * @return the CSV line, without line separator
+   */
+  public String toCsv() {
+    return tick + "," + tigerCount + "," + deerCount + "," + maxTimeAlive + "," + deersEaten + ","
+        + tickP50 + "," + tickP99 + "," + renderP50 + "," + renderP99;
+  }
+
+  /**
+   * Formats the sample as the block of information the park used to print in the console
+   *
+   * @param tickRate number of ticks per second of the world, which times are converted with
+   * @return the block of lines, each followed by a line separator
+   */
+  public String toConsole(int tickRate) {
+    String line = System.lineSeparator();
+    return line + "---------------" + line
+        + "Time: " + tick / tickRate + line
+        + "Deer count: " + deerCount + line
+        + "Tiger count: " + tigerCount + line
+        + "Max time alive: " + maxTimeAlive / tickRate + line
+        + "Deers eaten: " + deersEaten + line
+        + "Tick p50/p99 (us): " + tickP50 / 1000 + "/" + tickP99 / 1000 + line
+        + "Render p50/p99 (us): " + renderP50 / 1000 + "/" + renderP99 / 1000 + line
+        + "---------------" + line;
+  }
+}
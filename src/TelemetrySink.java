@@ -0,0 +1,43 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the samples of a TelemetryReporter, e.g. the console, a file or a ring buffer kept
+ * in memory. Sinks are only called by the background thread of their reporter.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public interface TelemetrySink {
+  /**
+   * Writes a batch of samples, in the order they were taken
+   *
+   * @param batch samples taken since the previous batch
+   * @throws IOException if the samples cannot be written
+   */
+  public void write(List<TelemetrySample> batch) throws IOException;
+
+  /**
+   * Releases the resources of the sink, once no more samples will be written
+   *
+   * @throws IOException if the sink cannot be closed
+   */
+  public void close() throws IOException;
+}
@@ -0,0 +1,32 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Stage run by a JungleWorld at the end of each of its ticks, e.g. to record or report its state.
+ * Listeners run on the thread advancing the world, so they should return quickly.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public interface TickListener {
+  /**
+   * Called once a tick is complete, with every animal at its new position
+   *
+   * @param world world which just ticked
+   */
+  public void afterTick(JungleWorld world);
+}
@@ -0,0 +1,223 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Metrics of the ticks of a JungleWorld: a histogram of the duration of each TickPhase, and a
+ * histogram of the number of pair interactions evaluated per tick (an animal summing the
+ * contribution of another one, or of a Barnes-Hut node). They are read in-process through
+ * getHistogram() and getInteractions(), and can be dumped periodically to a CSV or JSON file.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class TickMetrics {
+  private final Histogram[] phases; // duration of each phase in nanoseconds, by ordinal
+  private final Histogram interactions; // number of pair interactions evaluated per tick
+  private boolean enabled; // whether the world records its ticks
+  private File dumpFile; // file the metrics are periodically written to, or null
+  private int dumpInterval; // number of ticks between two dumps
+  private long ticksSinceDump; // number of ticks recorded since the last dump
+
+  /**
+   * Creates enabled metrics, without any periodic dump
+   */
+  public TickMetrics() {
+    phases = new Histogram[TickPhase.values().length];
+    for (int i = 0; i < phases.length; ++i) {
+      phases[i] = new Histogram();
+    }
+    interactions = new Histogram();
+    enabled = true;
+  }
+
+  /**
+   * Getter for enabled
+   *
+   * @return true if the world records its ticks, false otherwise
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Setter for enabled. Disabled metrics spare the world from reading the clock during its ticks.
+   *
+   * @param enabled true if the world records its ticks, false otherwise
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Makes the metrics be written to a file every given number of ticks, overwriting its previous
+   * contents. The file is written as JSON if its name ends with .json, and as CSV otherwise.
+   *
+   * @param file     file the metrics are written to, or null to stop dumping them
+   * @param interval number of ticks between two dumps
+   */
+  public void setDump(File file, int interval) {
+    if (file != null && interval < 1) {
+      throw new IllegalArgumentException("interval must be positive: " + interval);
+    }
+    this.dumpFile = file;
+    this.dumpInterval = interval;
+    this.ticksSinceDump = 0;
+  }
+
+  /**
+   * Getter for the histogram of a phase
+   *
+   * @param phase phase of the tick, or RENDER
+   * @return the histogram of the durations of the phase, in nanoseconds
+   */
+  public Histogram getHistogram(TickPhase phase) {
+    return phases[phase.ordinal()];
+  }
+
+  /**
+   * Getter for interactions
+   *
+   * @return the histogram of the number of pair interactions evaluated per tick
+   */
+  public Histogram getInteractions() {
+    return interactions;
+  }
+
+  /**
+   * Records the duration of a phase
+   *
+   * @param phase phase of the tick, or RENDER
+   * @param nanos duration of the phase in nanoseconds
+   */
+  public void record(TickPhase phase, long nanos) {
+    phases[phase.ordinal()].record(nanos);
+  }
+
+  /**
+   * Records the end of a tick, and dumps the metrics if it is time to
+   *
+   * @param interactionCount number of pair interactions evaluated during the tick
+   */
+  public void endTick(long interactionCount) {
+    interactions.record(interactionCount);
+    if (dumpFile != null && ++ticksSinceDump >= dumpInterval) {
+      ticksSinceDump = 0;
+      try {
+        dump(dumpFile);
+      } catch (IOException e) {
+        System.out.println("Could not write metrics to " + dumpFile + ": " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Forgets every tick recorded
+   */
+  public void reset() {
+    for (Histogram histogram : phases) {
+      histogram.reset();
+    }
+    interactions.reset();
+  }
+
+  /**
+   * Writes the metrics to a file, as JSON if its name ends with .json and as CSV otherwise
+   *
+   * @param file file the metrics are written to
+   * @throws IOException if the file cannot be written
+   */
+  public void dump(File file) throws IOException {
+    Writer writer = new FileWriter(file);
+    try {
+      if (file.getName().endsWith(".json")) {
+        writeJson(writer);
+      } else {
+        writeCsv(writer);
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * Writes one line per phase, then one for the pair interactions, with their count, mean, median,
+   * 99th percentile and maximum. Durations are in nanoseconds.
+   *
+   * @param out where the metrics are written
+   * @throws IOException if they cannot be written
+   */
+  public void writeCsv(Appendable out) throws IOException {
+    out.append("metric,count,mean,p50,p99,max\n");
+    for (TickPhase phase : TickPhase.values()) {
+      writeCsvLine(out, phase.name(), getHistogram(phase));
+    }
+    writeCsvLine(out, "INTERACTIONS", interactions);
+  }
+
+  /**
+   * Writes the line of a histogram in CSV
+   *
+   * @param out       where the line is written
+   * @param name      name of the metric
+   * @param histogram histogram of the metric
+   * @throws IOException if the line cannot be written
+   */
+  private static void writeCsvLine(Appendable out, String name, Histogram histogram)
+      throws IOException {
+    out.append(String.format(Locale.ROOT, "%s,%d,%.1f,%d,%d,%d\n", name, histogram.getCount(),
+        histogram.getMean(), histogram.getPercentile(50), histogram.getPercentile(99),
+        histogram.getMax()));
+  }
+
+  /**
+   * Writes the same statistics as writeCsv() as a JSON object, keyed by metric
+   *
+   * @param out where the metrics are written
+   * @throws IOException if they cannot be written
+   */
+  public void writeJson(Appendable out) throws IOException {
+    out.append("{");
+    for (TickPhase phase : TickPhase.values()) {
+      writeJsonField(out, phase.name(), getHistogram(phase));
+      out.append(",");
+    }
+    writeJsonField(out, "INTERACTIONS", interactions);
+    out.append("}\n");
+  }
+
+  /**
+   * Writes the field of a histogram in JSON
+   *
+   * @param out       where the field is written
+   * @param name      name of the metric
+   * @param histogram histogram of the metric
+   * @throws IOException if the field cannot be written
+   */
+  private static void writeJsonField(Appendable out, String name, Histogram histogram)
+      throws IOException {
+    out.append(String.format(Locale.ROOT,
+        "\"%s\":{\"count\":%d,\"mean\":%.1f,\"p50\":%d,\"p99\":%d,\"max\":%d}", name,
+        histogram.getCount(), histogram.getMean(), histogram.getPercentile(50),
+        histogram.getPercentile(99), histogram.getMax()));
+  }
+}
@@ -0,0 +1,34 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+/**
+ * Phases of a tick of a JungleWorld, and rendering of a frame by JunglePark, timed by TickMetrics.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public enum TickPhase {
+  // rebuilding the spatial grids and Barnes-Hut trees (neighbor scans are answered by them), and
+  // checking or rebuilding the Verlet neighbor lists in GradientMode.CUTOFF:
+  INDEX,
+  FIELD, // depositing the animals on the meshes and solving the fields in PARTICLE_MESH, else 0
+  PREDATION, // tigers wrapping around, scanning for deer and eating them
+  MOVEMENT, // every animal computing its gradient and moving along it, wrapping around
+  SWEEP, // swapping the position buffers and removing eaten animals
+  TICK, // whole tick, i.e. all of the above
+  RENDER // drawing a frame, recorded by the renderer only
+}
@@ -16,25 +16,25 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 
 /**
- * Defines the properties of and represents a Tiger in the JunglePark application
+ * Defines the properties of and represents a Tiger in the JunglePark application. A Tiger object
+ * is a view of a slot of the tigers of its world; the behavior of the tigers is defined by the
+ * static methods, which operate on the slots directly.
  * 
  * @author Matthew Karrmann
  *
  */
 public class Tiger extends Animal {
-  private static final int SCAN_RANGE = 10; // range dimension for scanning the neighborhood for
-                                            // food
-  private static final String IMAGE_FILE_NAME = "images/tiger.png";
-  private static int nextID = 1; // class variable that represents the identifier of the next
-                                 // tiger
-                                 // to be created
-  // Tiger's identification fields
+  // default range dimension for scanning the neighborhood for food, see JungleParameters:
+  protected static final int SCAN_RANGE = 10;
+  protected static final String IMAGE_FILE_NAME = "images/tiger.png";
   private static final String TYPE = "TGR"; // A String that represents the tiger type
   private final int id; // Tiger's id: positive number that represents the order of the tiger
-  private int deerEatenCount; // Number of Deers that the current tiger has eaten so far
-  private static final double SPEED = 1.5; // number of pixels tiger moves per frame
-  // arbitrary exponent distance to deer is taken to in objective function
-  private static final double EXPONENT = -2.0;
+  private int deerEatenCount; // Number of Deers that the current tiger has eaten so far, while the
+                              // tiger is not part of its world
+  // default number of pixels tiger moves per frame, see JungleParameters:
+  protected static final double SPEED = 1.5;
+  // default arbitrary exponent distance to deer is taken to in objective function
+  protected static final double EXPONENT = -2.0;
 
   /**
    * Creates a new Tiger object positioned at a random position of the display window
@@ -46,19 +46,59 @@ public class Tiger extends Animal {
     super(processing, IMAGE_FILE_NAME);
 
     // Set Tiger identification fields
-    id = nextID;
+    id = world.takeTigerID();
     this.label = TYPE + id; // String that identifies the current tiger
-    nextID++;
     deerEatenCount = 0;
   }
 
+  /**
+   * Creates a new Tiger object positioned at a random position of a headless world
+   * 
+   * @param world world the tiger lives in
+   */
+  public Tiger(JungleWorld world) {
+    super(world);
+
+    // Set Tiger identification fields
+    id = world.takeTigerID();
+    this.label = TYPE + id; // String that identifies the current tiger
+    deerEatenCount = 0;
+  }
+
+  /**
+   * Getter for id
+   * 
+   * @return the tiger's id
+   */
+  public int getID() {
+    return id;
+  }
+
   /**
    * Returns deerEatenCount, which keeps track of the number of deers eaten by given Tiger.
    * 
    * @return
    */
   public int getDeerEatenCount() {
-    return deerEatenCount;
+    return slot >= 0 ? population.deerEatenCount.get(slot) : deerEatenCount;
+  }
+
+  /**
+   * Copies the number of deers eaten into the tiger's slot when it is added to its world
+   */
+  @Override
+  protected void attach(Population population, int slot) {
+    super.attach(population, slot);
+    population.deerEatenCount.put(slot, deerEatenCount);
+  }
+
+  /**
+   * Copies the number of deers eaten back from the tiger's slot when it is removed from its world
+   */
+  @Override
+  protected void detach() {
+    deerEatenCount = population.deerEatenCount.get(slot);
+    super.detach();
   }
 
   /**
@@ -71,7 +111,8 @@ public class Tiger extends Animal {
   public boolean checkForFood(int scanRange, ParkGUI graphicalObject) {
     boolean isFood = false;
     // Item is considered food iff it is a Deer within its scan range
-    if (graphicalObject instanceof Deer && isClose((Deer) graphicalObject, SCAN_RANGE)) {
+    if (graphicalObject instanceof Deer && isClose((Deer) graphicalObject,
+        world.parameters.getTigerScanRange())) {
       isFood = true;
     }
     return isFood;
@@ -86,11 +127,26 @@ public class Tiger extends Animal {
    * @return x partial derivative of objective function
    */
   public double xDerivative() {
+    return xDerivative(world, getPositionX(), getPositionY());
+  }
+
+  /**
+   * Computes partial derivative with respect to x of objective function of a tiger at a given
+   * position. See xDerivative().
+   * 
+   * @param world world the tiger lives in
+   * @param x     x-coordinate of the tiger
+   * @param y     y-coordinate of the tiger
+   * @return x partial derivative of objective function
+   */
+  public static double xDerivative(JungleWorld world, float x, float y) {
     // Sum over the xComponent corresponding to each Deer:
+    Population deer = world.deer;
+    double exponent = world.parameters.getTigerExponent();
     double sum = 0;
-    for (ParkGUI graphicalObject : processing.listGUI) {
-      if (graphicalObject instanceof Deer) {
-        sum += this.xComponent((Deer) graphicalObject, EXPONENT);
+    for (int i = 0; i < deer.size; ++i) {
+      if (deer.isAlive(i)) {
+        sum += xComponent(world, x, y, deer.x.get(i), deer.y.get(i), exponent);
       }
     }
     return sum;
@@ -105,47 +161,172 @@ public class Tiger extends Animal {
    * @return y partial derivative of objective function
    */
   public double yDerivative() {
+    return yDerivative(world, getPositionX(), getPositionY());
+  }
+
+  /**
+   * Computes partial derivative with respect to y of objective function of a tiger at a given
+   * position. See yDerivative().
+   * 
+   * @param world world the tiger lives in
+   * @param x     x-coordinate of the tiger
+   * @param y     y-coordinate of the tiger
+   * @return y partial derivative of objective function
+   */
+  public static double yDerivative(JungleWorld world, float x, float y) {
     // Sum over the yComponent corresponding to each Deer:
+    Population deer = world.deer;
+    double exponent = world.parameters.getTigerExponent();
     double sum = 0;
-    for (ParkGUI graphicalObject : processing.listGUI) {
-      if (graphicalObject instanceof Deer) {
-        sum += this.yComponent((Deer) graphicalObject, EXPONENT);
+    for (int i = 0; i < deer.size; ++i) {
+      if (deer.isAlive(i)) {
+        sum += yComponent(world, x, y, deer.x.get(i), deer.y.get(i), exponent);
       }
     }
     return sum;
   }
 
+  /**
+   * Computes both partial derivatives of the objective function, as configured by the gradient mode
+   * of the world
+   * 
+   * @param gradient array the x and y partial derivatives are stored in
+   */
+  public void gradient(double[] gradient) {
+    gradient(world, getPositionX(), getPositionY(), gradient, new int[BarnesHutTree.STACK_SIZE]);
+  }
+
+  /**
+   * Computes both partial derivatives of the objective function of a tiger at a given position, as
+   * configured by the gradient mode of the world
+   * 
+   * @param world    world the tiger lives in
+   * @param x        x-coordinate of the tiger
+   * @param y        y-coordinate of the tiger
+   * @param gradient array the x and y partial derivatives are stored in
+   * @param stack    array of BarnesHutTree.STACK_SIZE nodes used by the Barnes-Hut traversal
+   * @return the number of pair interactions evaluated
+   */
+  public static int gradient(JungleWorld world, float x, float y, double[] gradient,
+      int[] stack) {
+    BarnesHutTree tree = world.getDeerTree();
+    GradientField field = world.getDeerField();
+    double exponent = world.parameters.getTigerExponent();
+    if (tree != null) {
+      return tree.gradient(x, y, exponent, gradient, stack);
+    } else if (field != null) {
+      return field.sample(x, y, gradient);
+    } else if (world.getGradientMode() == GradientMode.FUSED) {
+      return fusedGradient(world, x, y, world.deer, exponent, gradient);
+    } else if (world.getGradientMode() == GradientMode.UNROLLED) {
+      return unrolledGradient(world, x, y, world.deer, exponent, gradient);
+    } else if (world.getGradientMode() == GradientMode.CUTOFF) {
+      return cutoffGradient(world, x, y, world.deer, world.getCutoffRadius(), exponent, gradient);
+    } else {
+      gradient[0] = xDerivative(world, x, y);
+      gradient[1] = yDerivative(world, x, y);
+      return world.deer.aliveCount(); // both derivatives sum over every living animal
+    }
+  }
+
   /**
    * Tiger's behavior in the Jungle Park Scans for food at the neighborhood of the current tiger. If
    * the Tiger founds any deer at its proximity, it hops on it, and eats it. Additionally, moves
-   * Tiger to chase Deer according to objective function.
+   * Tiger to chase Deer according to objective function. A tiger which is not part of its world
+   * only returns to the other side of the screen if it left it.
    */
   @Override
   public void action() {
-    super.action();
+    if (slot >= 0) {
+      eat(world, slot);
+      world.sweepKilled(); // the deer eaten were only killed, so that the scan stayed valid
+      move(world, slot, new double[2], new int[BarnesHutTree.STACK_SIZE]);
+      population.x.put(slot, population.nextX.get(slot));
+      population.y.put(slot, population.nextY.get(slot));
+    } else {
+      super.action();
+    }
+  }
+
+  /**
+   * First part of the behavior of the tiger of a given slot of the world: scans for food at the
+   * neighborhood of the tiger, and hops on and eats every deer found. See action().
+   * 
+   * @param world world the tiger lives in
+   * @param tiger slot of the tiger
+   */
+  protected static void eat(JungleWorld world, int tiger) {
+    Population tigers = world.tigers;
+    Population deer = world.deer;
+    int scanRange = world.parameters.getTigerScanRange();
+    wrapAround(world, tigers, tiger);
     /*
-     * Beginning from lowest index of listGUI, checks whether item is food. If food is found, Tiger
-     * hops to food. Loop does not break, and the Tiger continues to search through items for food.
+     * Beginning from lowest slot, checks whether each deer close to the tiger is food. If food is
+     * found, Tiger hops to food. Loop does not break, and the Tiger continues to search through
+     * the following deer for food, from its new position.
      */
-    for (int i = 0; i < processing.listGUI.size(); ++i) {
-      if (checkForFood(SCAN_RANGE, processing.listGUI.get(i))) {
-        hop((Deer) processing.listGUI.get(i));
+    int nearbyCount = world.deerWithin(tigers.x.get(tiger), tigers.y.get(tiger), scanRange);
+    for (int i = 0; i < nearbyCount; ++i) {
+      int food = world.nearbyDeer(i);
+      if (deer.isAlive(food) && isClose(world, tigers.x.get(tiger), tigers.y.get(tiger),
+          deer.x.get(food), deer.y.get(food), scanRange)) {
+        hop(world, tiger, food);
+        // Deer out of range before the hop may be within range now: scan again from the new
+        // position, resuming after the deer just eaten
+        nearbyCount = world.deerWithin(tigers.x.get(tiger), tigers.y.get(tiger), scanRange);
+        i = -1;
+        while (i + 1 < nearbyCount && world.nearbyDeer(i + 1) <= food) {
+          ++i;
+        }
       }
     }
-    // Compute and save partial derivatives:
-    double xDerivative = this.xDerivative();
-    double yDerivative = this.yDerivative();
+  }
+
+  /**
+   * Second part of the behavior of the tiger of a given slot of the world: computes where the tiger
+   * chases the deer to, according to the objective function. Only reads the current positions and
+   * writes the tiger's next position, so that every animal can move at once.
+   * 
+   * @param world    world the tiger lives in
+   * @param tiger    slot of the tiger
+   * @param gradient array of 2 partial derivatives used as scratch space
+   * @param stack    array of BarnesHutTree.STACK_SIZE nodes used as scratch space
+   * @return the number of pair interactions evaluated
+   */
+  protected static int move(JungleWorld world, int tiger, double[] gradient, int[] stack) {
+    Population tigers = world.tigers;
+    float x = tigers.x.get(tiger);
+    float y = tigers.y.get(tiger);
+    // Compute and save partial derivatives, from the neighbor lists of the tick if there are any:
+    NeighborList neighbors = world.getTigerNeighbors();
+    int interactions = neighbors != null
+        ? neighbors.gradient(tiger, x, y, world.parameters.getTigerExponent(), gradient)
+        : gradient(world, x, y, gradient, stack);
+    double xDerivative = gradient[0];
+    double yDerivative = gradient[1];
     // Norm of gradient:
     double gradientNorm = Math.sqrt(Math.pow(xDerivative, 2) + Math.pow(yDerivative, 2));
     // If deer are present, move tiger in direction of gradient (gradient ascent) and magnitude
-    // SPEED:
+    // of the tiger speed:
     if (gradientNorm > 0) {
-      this.changePosition((SPEED * xDerivative / gradientNorm),
-          (SPEED * yDerivative / gradientNorm));
+      double speed = world.parameters.getTigerSpeed();
+      x += (speed * xDerivative / gradientNorm);
+      y += (speed * yDerivative / gradientNorm);
     }
-    super.action(); // Returns Tiger to other side of screen if they leave it
-    // Displays number of deers eaten if Tiger has eaten a Tiger
-    if (deerEatenCount > 0) {
+    // Returns Tiger to other side of screen if they leave it:
+    tigers.nextX.put(tiger, wrap(x, world.WIDTH));
+    tigers.nextY.put(tiger, wrap(y, world.HEIGHT));
+    return interactions;
+  }
+
+  /**
+   * Draws the tiger, and the number of deers eaten if it has eaten any
+   */
+  @Override
+  public void draw() {
+    super.draw();
+    // Displays number of deers eaten if Tiger has eaten a Deer
+    if (getDeerEatenCount() > 0) {
       displayDeerEatenCount(); // display deerEatenCount
     }
   }
@@ -156,12 +337,42 @@ public class Tiger extends Animal {
    * @param food Deer Tiger is to eat
    */
   public void hop(Deer food) {
+    if (slot >= 0 && food.isAttached()) {
+      hop(world, slot, food.slot);
+      world.sweepKilled();
+      return;
+    }
     // Sets Tiger location to location of food:
     this.setPositionX(food.getPositionX());
     this.setPositionY(food.getPositionY());
-    processing.listGUI.remove(food); // Removes food from scene
-    ++this.deerEatenCount; // Increments number of deer eaten by Tiger
-    ++processing.deersEaten; // Increments total number of deer eaten
+    world.remove(food); // Removes food from scene
+    // Increments number of deer eaten by Tiger:
+    if (slot >= 0) {
+      population.deerEatenCount.put(slot, population.deerEatenCount.get(slot) + 1);
+    } else {
+      ++this.deerEatenCount;
+    }
+    ++world.deersEaten; // Increments total number of deer eaten
+  }
+
+  /**
+   * Moves the tiger of a given slot to the location of the deer of a given slot, and kills the
+   * deer, so that the other slots stay valid until the killed animals are swept, see
+   * JungleWorld.kill().
+   * 
+   * @param world world the animals live in
+   * @param tiger slot of the tiger
+   * @param food  slot of the deer the tiger is to eat
+   */
+  protected static void hop(JungleWorld world, int tiger, int food) {
+    Population tigers = world.tigers;
+    // Sets Tiger location to location of food:
+    tigers.x.put(tiger, world.deer.x.get(food));
+    tigers.y.put(tiger, world.deer.y.get(food));
+    world.kill(world.deer, food); // Removes food from scene
+    // Increments number of deer eaten by Tiger:
+    tigers.deerEatenCount.put(tiger, tigers.deerEatenCount.get(tiger) + 1);
+    ++world.deersEaten; // Increments total number of deer eaten
   }
 
   /**
@@ -170,7 +381,7 @@ public class Tiger extends Animal {
   public void displayDeerEatenCount() {
     this.processing.fill(0); // specify font color: black
     // display deerEatenCount on the top of the Tiger's image
-    this.processing.text(deerEatenCount, this.getPositionX(),
-        this.getPositionY() - this.image.height / 2 - 4);
+    this.processing.text(numberLabel(getDeerEatenCount()), this.getScreenX(),
+        this.getScreenY() - this.image.height / 2 - 4);
   }
 }
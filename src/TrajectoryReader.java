@@ -0,0 +1,326 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Reads the frames recorded by a TrajectoryRecorder. The segment files are memory-mapped and
+ * indexed when the reader is created, so that it can then seek to any recorded tick: decoding a
+ * frame starts from the last key frame before it, and applies the delta frames in between.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class TrajectoryReader {
+  private final ArrayList<MappedByteBuffer> segments; // segment files still present, in order
+  private int width; // width of the recorded world
+  private int height; // height of the recorded world
+  private int samplingInterval; // number of ticks between two recorded frames
+
+  // Index of the frames, in the order they were recorded:
+  private int frameCount;
+  private int[] ticks = new int[64]; // tick of each frame
+  private int[] segmentOf = new int[64]; // index in segments of the segment of each frame
+  private int[] offsets = new int[64]; // position of the header of each frame in its segment
+  private byte[] types = new byte[64]; // KEY_FRAME or DELTA_FRAME
+
+  private int frame; // index of the frame decoded, -1 before any
+  private final Population tigers; // tigers of the decoded frame
+  private final Population deer; // deer of the decoded frame
+
+  /**
+   * Opens and indexes the segment files of a recording
+   *
+   * @param prefix path of the segment files, without index and extension
+   * @throws IOException if a segment file cannot be read or is not a segment
+   */
+  public TrajectoryReader(Path prefix) throws IOException {
+    segments = new ArrayList<MappedByteBuffer>();
+    tigers = new Population(Population.TIGER, 16);
+    deer = new Population(Population.DEER, 64);
+    frame = -1;
+    // The oldest segments may have been deleted by a rolling recorder:
+    for (int index : segmentIndexes(prefix)) {
+      indexSegment(TrajectoryRecorder.segmentPath(prefix, index));
+    }
+  }
+
+  /**
+   * Lists the indexes of the segment files of a recording, in the directory of the prefix
+   *
+   * @param prefix path of the segment files, without index and extension
+   * @return the sorted indexes of the segment files present
+   * @throws IOException if the directory cannot be listed
+   */
+  private static int[] segmentIndexes(Path prefix) throws IOException {
+    Path directory = prefix.toAbsolutePath().getParent();
+    String name = prefix.getFileName().toString() + ".";
+    int[] indexes = new int[0];
+    DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + "*.traj");
+    try {
+      for (Path file : files) {
+        String fileName = file.getFileName().toString();
+        String digits = fileName.substring(name.length(), fileName.length() - ".traj".length());
+        int index;
+        try {
+          index = Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+          continue; // another file merely named alike
+        }
+        indexes = Arrays.copyOf(indexes, indexes.length + 1);
+        indexes[indexes.length - 1] = index;
+      }
+    } finally {
+      files.close();
+    }
+    Arrays.sort(indexes);
+    return indexes;
+  }
+
+  /**
+   * Maps a segment file and adds its frames to the index
+   *
+   * @param path path of the segment file
+   * @throws IOException if the file cannot be read or is not a segment
+   */
+  private void indexSegment(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    MappedByteBuffer segment;
+    try {
+      segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } finally {
+      channel.close();
+    }
+    segment.order(ByteOrder.LITTLE_ENDIAN);
+    if (segment.limit() < TrajectoryRecorder.SEGMENT_HEADER_SIZE
+        || segment.getInt(0) != TrajectoryRecorder.MAGIC
+        || segment.getInt(4) != TrajectoryRecorder.VERSION) {
+      throw new IOException("Not a trajectory segment: " + path);
+    }
+    width = segment.getInt(8);
+    height = segment.getInt(12);
+    samplingInterval = segment.getInt(16);
+    segments.add(segment);
+
+    int offset = TrajectoryRecorder.SEGMENT_HEADER_SIZE;
+    while (offset + TrajectoryRecorder.FRAME_HEADER_SIZE <= segment.limit()) {
+      byte type = segment.get(offset);
+      if (type == TrajectoryRecorder.END) {
+        break;
+      }
+      if (frameCount == ticks.length) {
+        ticks = Arrays.copyOf(ticks, 2 * frameCount);
+        segmentOf = Arrays.copyOf(segmentOf, 2 * frameCount);
+        offsets = Arrays.copyOf(offsets, 2 * frameCount);
+        types = Arrays.copyOf(types, 2 * frameCount);
+      }
+      ticks[frameCount] = segment.getInt(offset + 4);
+      segmentOf[frameCount] = segments.size() - 1;
+      offsets[frameCount] = offset;
+      types[frameCount] = type;
+      ++frameCount;
+      int animals = segment.getInt(offset + 8) + segment.getInt(offset + 12);
+      int recordSize = type == TrajectoryRecorder.KEY_FRAME ? TrajectoryRecorder.KEY_RECORD_SIZE
+          : TrajectoryRecorder.DELTA_RECORD_SIZE;
+      offset += TrajectoryRecorder.FRAME_HEADER_SIZE + animals * recordSize;
+    }
+  }
+
+  /**
+   * Getter for frameCount
+   *
+   * @return the number of frames which can be read
+   */
+  public int getFrameCount() {
+    return frameCount;
+  }
+
+  /**
+   * Getter for samplingInterval
+   *
+   * @return the number of ticks between two recorded frames
+   */
+  public int getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  /**
+   * Getter for the tick of the first frame which can be read
+   *
+   * @return the tick of the first frame, or -1 if there is none
+   */
+  public int getFirstTick() {
+    return frameCount == 0 ? -1 : ticks[0];
+  }
+
+  /**
+   * Getter for the tick of the last frame which can be read
+   *
+   * @return the tick of the last frame, or -1 if there is none
+   */
+  public int getLastTick() {
+    return frameCount == 0 ? -1 : ticks[frameCount - 1];
+  }
+
+  /**
+   * Getter for the tick of the decoded frame
+   *
+   * @return the tick of the decoded frame, or -1 if none was decoded yet
+   */
+  public int getTick() {
+    return frame < 0 ? -1 : ticks[frame];
+  }
+
+  /**
+   * Getter for tigers
+   *
+   * @return the ids and positions of the tigers of the decoded frame
+   */
+  public Population getTigers() {
+    return tigers;
+  }
+
+  /**
+   * Getter for deer
+   *
+   * @return the ids and positions of the deer of the decoded frame
+   */
+  public Population getDeer() {
+    return deer;
+  }
+
+  /**
+   * Decodes the last frame recorded at or before a given tick
+   *
+   * @param tick tick to seek to
+   * @return true if such a frame was recorded, false if every frame is later
+   */
+  public boolean seek(int tick) {
+    // Binary search of the last frame whose tick is at most tick:
+    int low = 0;
+    int high = frameCount - 1;
+    int target = -1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (ticks[middle] <= tick) {
+        target = middle;
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    if (target < 0) {
+      return false;
+    }
+    int key = target;
+    while (types[key] != TrajectoryRecorder.KEY_FRAME) {
+      --key;
+    }
+    if (frame < key || frame > target) {
+      decode(key); // the decoded frame cannot be used as a starting point
+    }
+    while (frame < target) {
+      decode(frame + 1);
+    }
+    return true;
+  }
+
+  /**
+   * Decodes the frame following the decoded one
+   *
+   * @return true if there was such a frame, false if the decoded frame is the last one
+   */
+  public boolean next() {
+    if (frame + 1 >= frameCount) {
+      return false;
+    }
+    decode(frame + 1);
+    return true;
+  }
+
+  /**
+   * Decodes a frame, which must be a key frame or follow the decoded frame
+   *
+   * @param index index of the frame
+   */
+  private void decode(int index) {
+    MappedByteBuffer segment = segments.get(segmentOf[index]);
+    int offset = offsets[index];
+    int tigerCount = segment.getInt(offset + 8);
+    int deerCount = segment.getInt(offset + 12);
+    offset += TrajectoryRecorder.FRAME_HEADER_SIZE;
+    if (types[index] == TrajectoryRecorder.KEY_FRAME) {
+      offset = decodeKeys(segment, offset, tigers, tigerCount);
+      decodeKeys(segment, offset, deer, deerCount);
+    } else {
+      offset = decodeDeltas(segment, offset, tigers);
+      decodeDeltas(segment, offset, deer);
+    }
+    frame = index;
+  }
+
+  /**
+   * Decodes the records of a population in a key frame
+   *
+   * @param segment    segment holding the frame
+   * @param offset     position of the first record
+   * @param population population receiving the ids and positions
+   * @param count      number of records
+   * @return the position following the records
+   */
+  private static int decodeKeys(MappedByteBuffer segment, int offset, Population population,
+      int count) {
+    population.reserve(count);
+    for (int i = 0; i < count; ++i) {
+      population.id.put(i, segment.getInt(offset));
+      population.x.put(i, segment.getFloat(offset + 4));
+      population.y.put(i, segment.getFloat(offset + 8));
+      population.alive.put(i, (byte) 1);
+      offset += TrajectoryRecorder.KEY_RECORD_SIZE;
+    }
+    population.size = count;
+    return offset;
+  }
+
+  /**
+   * Decodes the records of a population in a delta frame, applying them to its positions
+   *
+   * @param segment    segment holding the frame
+   * @param offset     position of the first record
+   * @param population population whose positions are moved
+   * @return the position following the records
+   */
+  private int decodeDeltas(MappedByteBuffer segment, int offset, Population population) {
+    for (int i = 0; i < population.size; ++i) {
+      population.x.put(i,
+          TrajectoryRecorder.applyDelta(population.x.get(i), segment.getShort(offset), width));
+      population.y.put(i, TrajectoryRecorder.applyDelta(population.y.get(i),
+          segment.getShort(offset + 2), height));
+      offset += TrajectoryRecorder.DELTA_RECORD_SIZE;
+    }
+    return offset;
+  }
+}
@@ -0,0 +1,364 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tick stage recording the position of every animal of a world, every given number of ticks, to a
+ * rolling series of memory-mapped segment files, which TrajectoryReader reads back. Recording a
+ * frame only copies the positions into the mapped memory, and the operating system writes them to
+ * disk in the background, so that the tick loop does not wait for the disk. A new segment file is
+ * only created when the current one is full. Rolling to a new segment does block the thread running
+ * the world, inside tick(): it creates and maps the new file, and deletes the oldest one if too
+ * many are kept, so segments should be large enough for rolls to be rare. Closing the recorder
+ * writes the recorded frames to disk and closes the segment being written.
+ *
+ * Segment files are named prefix.000000.traj, prefix.000001.traj, and so on. Each one starts with
+ * a header, followed by frames. A frame is a header (type, tick, number of tigers and of deer),
+ * followed by one fixed-width record per tiger, then per deer:
+ * <ul>
+ * <li>a key frame stores the id and the absolute x and y of each animal (12 bytes),</li>
+ * <li>a delta frame stores, as two shorts, the change of x and y of each animal since the previous
+ * frame in 1/256 pixels (4 bytes). It is only used when the animals are the same as in the previous
+ * frame and moved less than 128 pixels, and never for the first frame of a segment or after
+ * keyframeInterval frames in a row, so that each segment can be decoded on its own and seeking
+ * stays fast. Deltas are taken from the decoded previous position, so that the error stays within
+ * 1/256 pixels (half a delta unit, plus float rounding), however many deltas follow each other.
+ * A decoded coordinate may lie across the edge of the world from the recorded one, e.g. 799.999
+ * instead of 0.001.</li>
+ * </ul>
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class TrajectoryRecorder implements TickListener {
+  protected static final int MAGIC = 0x4a54524a; // "JTRJ", identifies segment files
+  protected static final int VERSION = 1; // version of the format
+  protected static final int SEGMENT_HEADER_SIZE = 32; // bytes before the first frame of a segment
+  protected static final int FRAME_HEADER_SIZE = 16; // bytes before the records of a frame
+  protected static final byte END = 0; // type of the (zeroed) frame after the last one of a segment
+  protected static final byte KEY_FRAME = 1; // type of a frame of absolute positions
+  protected static final byte DELTA_FRAME = 2; // type of a frame of changes of position
+  protected static final int KEY_RECORD_SIZE = 12; // bytes per animal in a key frame
+  protected static final int DELTA_RECORD_SIZE = 4; // bytes per animal in a delta frame
+  protected static final float DELTA_SCALE = 256f; // number of delta units per pixel
+
+  private final Path prefix; // path of the segment files, without index and extension
+  private final int samplingInterval; // number of ticks between two recorded frames
+  private final boolean deltaEncoding; // whether delta frames may be written
+  private final int segmentSize; // size of each segment file in bytes, unless a frame is larger
+  private final int keyframeInterval; // maximum number of frames from a key frame to the next one
+  private final int maxSegments; // number of segment files kept, 0 to keep them all
+
+  private MappedByteBuffer segment; // memory-mapped segment being written, or null before the first
+  private FileChannel channel; // channel of the segment being written, open until the next roll
+  private boolean closed; // true once close() was called
+  private int segmentIndex; // index of the segment being written
+  private int framesSinceKey; // number of frames written since the last key frame
+
+  // Positions of the last frame, as decoded by a reader:
+  private final Population lastTigers = new Population(Population.TIGER, 16);
+  private final Population lastDeer = new Population(Population.DEER, 64);
+  private short[] tigerDeltas = new short[32]; // deltas of the frame being written, x then y
+  private short[] deerDeltas = new short[128];
+
+  /**
+   * Creates a recorder with the given sampling, 64 MiB segments, a key frame at least every 64
+   * frames, and keeping every segment
+   *
+   * @param prefix           path of the segment files, without index and extension
+   * @param samplingInterval number of ticks between two recorded frames
+   * @param deltaEncoding    whether frames may store changes of position instead of positions
+   */
+  public TrajectoryRecorder(Path prefix, int samplingInterval, boolean deltaEncoding) {
+    this(prefix, samplingInterval, deltaEncoding, 64 << 20, 64, 0);
+  }
+
+  /**
+   * Creates a recorder
+   *
+   * @param prefix           path of the segment files, without index and extension
+   * @param samplingInterval number of ticks between two recorded frames
+   * @param deltaEncoding    whether frames may store changes of position instead of positions
+   * @param segmentSize      size of each segment file in bytes, unless a single frame is larger
+   * @param keyframeInterval maximum number of frames from a key frame to the next one
+   * @param maxSegments      number of segment files kept, the oldest ones being deleted, or 0 to
+   *                         keep them all
+   */
+  public TrajectoryRecorder(Path prefix, int samplingInterval, boolean deltaEncoding,
+      int segmentSize, int keyframeInterval, int maxSegments) {
+    if (samplingInterval < 1 || keyframeInterval < 1 || maxSegments < 0) {
+      throw new IllegalArgumentException("Invalid trajectory recorder configuration");
+    }
+    this.prefix = prefix;
+    this.samplingInterval = samplingInterval;
+    this.deltaEncoding = deltaEncoding;
+    this.segmentSize = segmentSize;
+    this.keyframeInterval = keyframeInterval;
+    this.maxSegments = maxSegments;
+    this.segmentIndex = -1;
+  }
+
+  /**
+   * Computes the path of a segment file
+   *
+   * @param prefix path of the segment files, without index and extension
+   * @param index  index of the segment
+   * @return the path of the segment file
+   */
+  protected static Path segmentPath(Path prefix, int index) {
+    return Paths.get(prefix.toString() + String.format(".%06d.traj", index));
+  }
+
+  /**
+   * Applies a delta to a coordinate, the same way when recording and when reading
+   *
+   * @param previous coordinate in the previous frame
+   * @param delta    change of the coordinate, in delta units
+   * @param size     size of the world along the coordinate
+   * @return the coordinate in the new frame
+   */
+  protected static float applyDelta(float previous, short delta, int size) {
+    return Animal.wrap(previous + delta / DELTA_SCALE, size);
+  }
+
+  /**
+   * Records a frame every samplingInterval ticks
+   *
+   * @param world world which just ticked
+   */
+  @Override
+  public void afterTick(JungleWorld world) {
+    if (world.tickCounter % samplingInterval == 0 && !closed) {
+      try {
+        record(world);
+      } catch (IOException e) {
+        System.out.println("Could not record trajectories to " + prefix + ": " + e.getMessage());
+        world.removeTickListener(this); // stop trying at every tick
+        try {
+          close(); // keep the frames recorded so far
+        } catch (IOException closing) {
+          System.out.println("Could not close " + prefix + ": " + closing.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Records the current positions of the animals of a world as a frame
+   *
+   * @param world world whose animals are recorded
+   * @throws IOException if a new segment file cannot be created, or the recorder was closed
+   */
+  public void record(JungleWorld world) throws IOException {
+    if (closed) {
+      throw new IOException("Trajectory recorder is closed");
+    }
+    Population tigers = world.tigers;
+    Population deer = world.deer;
+    int count = tigers.size + deer.size;
+    boolean delta = deltaEncoding && segment != null && framesSinceKey < keyframeInterval;
+    if (delta) {
+      tigerDeltas = reserve(tigerDeltas, 2 * tigers.size);
+      deerDeltas = reserve(deerDeltas, 2 * deer.size);
+      delta = computeDeltas(world, tigers, lastTigers, tigerDeltas)
+          && computeDeltas(world, deer, lastDeer, deerDeltas);
+    }
+    int recordSize = delta ? DELTA_RECORD_SIZE : KEY_RECORD_SIZE;
+    if (segment == null || segment.remaining() < FRAME_HEADER_SIZE + count * recordSize) {
+      roll(world, FRAME_HEADER_SIZE + count * KEY_RECORD_SIZE);
+      delta = false; // each segment starts with a key frame
+    }
+
+    segment.put(delta ? DELTA_FRAME : KEY_FRAME);
+    segment.put((byte) 0).put((byte) 0).put((byte) 0);
+    segment.putInt(world.tickCounter);
+    segment.putInt(tigers.size);
+    segment.putInt(deer.size);
+    if (delta) {
+      writeDeltas(world, tigers, lastTigers, tigerDeltas);
+      writeDeltas(world, deer, lastDeer, deerDeltas);
+      ++framesSinceKey;
+    } else {
+      writeKeys(tigers, lastTigers);
+      writeKeys(deer, lastDeer);
+      framesSinceKey = 0;
+    }
+  }
+
+  /**
+   * Grows an array of deltas if it is too short
+   *
+   * @param deltas array of deltas
+   * @param length number of deltas the array must hold
+   * @return an array holding at least length deltas
+   */
+  private static short[] reserve(short[] deltas, int length) {
+    return deltas.length >= length ? deltas : new short[Math.max(length, 2 * deltas.length)];
+  }
+
+  /**
+   * Computes the deltas of a population from the last frame, if they can be encoded
+   *
+   * @param world   world of the population
+   * @param current population being recorded
+   * @param last    population as decoded from the last frame
+   * @param deltas  array receiving the x and y deltas of each animal
+   * @return true if the population can be recorded as deltas, false otherwise
+   */
+  private static boolean computeDeltas(JungleWorld world, Population current, Population last,
+      short[] deltas) {
+    if (current.size != last.size) {
+      return false;
+    }
+    for (int i = 0; i < current.size; ++i) {
+      if (current.id.get(i) != last.id.get(i)) {
+        return false; // an animal was removed or added
+      }
+      int dx = quantize(current.x.get(i) - last.x.get(i), world.WIDTH);
+      int dy = quantize(current.y.get(i) - last.y.get(i), world.HEIGHT);
+      if (dx < Short.MIN_VALUE || dx > Short.MAX_VALUE || dy < Short.MIN_VALUE
+          || dy > Short.MAX_VALUE) {
+        return false; // moved too far
+      }
+      deltas[2 * i] = (short) dx;
+      deltas[2 * i + 1] = (short) dy;
+    }
+    return true;
+  }
+
+  /**
+   * Converts a change of a coordinate to delta units, going through the closest edge if shorter
+   *
+   * @param change change of the coordinate in pixels
+   * @param size   size of the world along the coordinate
+   * @return the change in delta units
+   */
+  private static int quantize(float change, int size) {
+    if (change > size / 2) {
+      change -= size;
+    } else if (change < -size / 2) {
+      change += size;
+    }
+    return Math.round(change * DELTA_SCALE);
+  }
+
+  /**
+   * Writes the deltas of a population, and applies them to its last decoded positions
+   *
+   * @param world  world of the population
+   * @param current population being recorded
+   * @param last   population as decoded from the last frame
+   * @param deltas x and y deltas of each animal
+   */
+  private void writeDeltas(JungleWorld world, Population current, Population last,
+      short[] deltas) {
+    for (int i = 0; i < current.size; ++i) {
+      segment.putShort(deltas[2 * i]);
+      segment.putShort(deltas[2 * i + 1]);
+      last.x.put(i, applyDelta(last.x.get(i), deltas[2 * i], world.WIDTH));
+      last.y.put(i, applyDelta(last.y.get(i), deltas[2 * i + 1], world.HEIGHT));
+    }
+  }
+
+  /**
+   * Writes the ids and positions of a population, and remembers them as its last decoded ones
+   *
+   * @param current population being recorded
+   * @param last    population as decoded from the last frame
+   */
+  private void writeKeys(Population current, Population last) {
+    last.reserve(current.size);
+    for (int i = 0; i < current.size; ++i) {
+      segment.putInt(current.id.get(i));
+      segment.putFloat(current.x.get(i));
+      segment.putFloat(current.y.get(i));
+      last.id.put(i, current.id.get(i));
+      last.x.put(i, current.x.get(i));
+      last.y.put(i, current.y.get(i));
+    }
+    last.size = current.size;
+  }
+
+  /**
+   * Starts a new segment file, closing the channel of the previous one and deleting the oldest
+   * one if too many are kept. Blocks on the file system.
+   *
+   * @param world     world whose animals are recorded
+   * @param frameSize size of the frame about to be written
+   * @throws IOException if the segment file cannot be created
+   */
+  private void roll(JungleWorld world, int frameSize) throws IOException {
+    if (channel != null) {
+      channel.close(); // the mapping of the previous segment stays valid until it is collected
+      channel = null;
+    }
+    ++segmentIndex;
+    int size = Math.max(segmentSize, SEGMENT_HEADER_SIZE + frameSize + FRAME_HEADER_SIZE);
+    channel = FileChannel.open(segmentPath(prefix, segmentIndex), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // trailing zeros read as END
+    segment.order(ByteOrder.LITTLE_ENDIAN);
+    segment.putInt(MAGIC);
+    segment.putInt(VERSION);
+    segment.putInt(world.WIDTH);
+    segment.putInt(world.HEIGHT);
+    segment.putInt(samplingInterval);
+    segment.putInt(segmentIndex);
+    segment.position(SEGMENT_HEADER_SIZE);
+    if (maxSegments > 0 && segmentIndex >= maxSegments) {
+      Files.deleteIfExists(segmentPath(prefix, segmentIndex - maxSegments));
+    }
+  }
+
+  /**
+   * Asks the operating system to write the recorded frames to disk now, e.g. before a reader in
+   * another process reads them
+   */
+  public void flush() {
+    if (segment != null) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Stops recording: writes the recorded frames to disk and closes the channel of the segment
+   * being written. Its mapping is released once collected, as mappings cannot be released
+   * explicitly. Closing a closed recorder does nothing.
+   *
+   * @throws IOException if the channel cannot be closed
+   */
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    flush();
+    segment = null;
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+  }
+}
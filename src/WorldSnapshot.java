@@ -0,0 +1,367 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+//
+// Title: Predator-Prey Simulation
+// Description: Defines a GUI to simulate predators (tigers) chasing prey (deer), while the prey
+// run away. User has ability to add, remove, and drag-and-drop either tigers or deer.
+// Author: Matthew Karrmann
+// Email: mattkarrmann@gamil.com
+//
+// Note: This is an extension of class project for UW-Madison CS 200. The original project served
+// as an introduction to GUIs, and included adding the ability to add, remove, and drag-and-drop
+// both tigers and deer. All file names, relevant method headers, and some starter code was
+// provided. Additionally, all credit for images used goes to the UW-Madison Computer Science
+// Department. All code related to the animals moving on their own was developed independently by
+// myself.
+//
+///////////////////////////////////////////////////////////////////////////////////////////////////
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary snapshots of the state of a JungleWorld, written and read through NIO channels, so
+ * that long runs can be checkpointed, then resumed or forked. A world restored from a snapshot
+ * evolves exactly like the world the snapshot was taken from.
+ *
+ * A snapshot is made of a header (dimensions, seed and state of the generator of random numbers,
+ * tick counter, number of deer eaten, gradient mode, Barnes-Hut opening angle and identifiers of
+ * the next animals), the parameters of the dynamics, the cutoff radius and skin and the side of
+ * the cells of the meshes, followed by the tigers then the deer. Each population is stored column
+ * by column (x, y, id, timeAlive, deerEatenCount), so that it is written and read in bulk:
+ * restoring a population does not create any Tiger or Deer object. Snapshots are only taken
+ * between ticks, and are little-endian.
+ *
+ * @author Matthew Karrmann
+ *
+ */
+public class WorldSnapshot {
+  private static final int MAGIC = 0x4a574f52; // "JWOR", identifies snapshot files
+  private static final int VERSION = 1; // version of the format, incremented when it changes
+  private static final int HEADER_SIZE = 4 * 4 + 8 + 8 + 4 + 4 + 4 + 8 + 4 + 4;
+  private static final int PARAMETERS_SIZE = 8 + 8 + 4 + 8 + 8 + 4; // parameters of the dynamics
+  private static final int SETTINGS_SIZE = 4 + 4 + 4; // cutoff radius, skin and side of the cells
+  private static final int BUFFER_SIZE = 1 << 16; // bytes transferred per channel operation
+
+  /**
+   * Writes a snapshot of a world to a file, replacing its previous contents
+   *
+   * @param world world whose state is written
+   * @param file  file the snapshot is written to
+   * @throws IOException if the file cannot be written
+   */
+  public static void save(JungleWorld world, Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      write(world, channel);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Restores a world from a snapshot file
+   *
+   * @param file file the snapshot is read from
+   * @return a new world in the state of the snapshot
+   * @throws IOException if the file cannot be read or is not a snapshot
+   */
+  public static JungleWorld load(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      return read(channel);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Writes a snapshot of a world to a channel
+   *
+   * @param world   world whose state is written, between two ticks
+   * @param channel channel the snapshot is written to
+   * @throws IOException if the channel cannot be written
+   */
+  public static void write(JungleWorld world, WritableByteChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putInt(world.WIDTH);
+    buffer.putInt(world.HEIGHT);
+    buffer.putLong(world.getSeed());
+    buffer.putLong(world.getRandom().getState());
+    buffer.putInt(world.tickCounter);
+    buffer.putInt(world.deersEaten);
+    buffer.putInt(world.getGradientMode().ordinal());
+    buffer.putDouble(world.getBarnesHutTheta());
+    buffer.putInt(world.peekTigerID());
+    buffer.putInt(world.peekDeerID());
+    JungleParameters parameters = world.parameters;
+    buffer.putDouble(parameters.getTigerSpeed());
+    buffer.putDouble(parameters.getTigerExponent());
+    buffer.putInt(parameters.getTigerScanRange());
+    buffer.putDouble(parameters.getDeerSpeed());
+    buffer.putDouble(parameters.getDeerExponent());
+    buffer.putInt(parameters.getDeerScanRange());
+    buffer.putInt(world.getCutoffRadius());
+    buffer.putInt(world.getVerletSkin());
+    buffer.putInt(world.getMeshCellSize());
+    writePopulation(world.tigers, buffer, channel);
+    writePopulation(world.deer, buffer, channel);
+    flush(buffer, channel);
+  }
+
+  /**
+   * Restores a world from a snapshot read from a channel
+   *
+   * @param channel channel the snapshot is read from
+   * @return a new world in the state of the snapshot
+   * @throws IOException if the channel cannot be read or does not hold a snapshot
+   */
+  public static JungleWorld read(ReadableByteChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.flip(); // nothing read yet
+    fill(buffer, channel, HEADER_SIZE + PARAMETERS_SIZE + SETTINGS_SIZE);
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("Not a world snapshot");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported snapshot version: " + version);
+    }
+    int width = buffer.getInt();
+    int height = buffer.getInt();
+    long seed = buffer.getLong();
+    long state = buffer.getLong();
+    int tickCounter = buffer.getInt();
+    int deersEaten = buffer.getInt();
+    int ordinal = buffer.getInt();
+    if (ordinal < 0 || ordinal >= GradientMode.values().length) {
+      throw new IOException("Unknown gradient mode: " + ordinal);
+    }
+    GradientMode mode = GradientMode.values()[ordinal];
+    double theta = buffer.getDouble();
+    int nextTigerID = buffer.getInt();
+    int nextDeerID = buffer.getInt();
+    // The parameters must be known before creating the world, which indexes by scan range:
+    JungleParameters parameters = new JungleParameters();
+    parameters.setTigerSpeed(buffer.getDouble());
+    parameters.setTigerExponent(buffer.getDouble());
+    parameters.setTigerScanRange(buffer.getInt());
+    parameters.setDeerSpeed(buffer.getDouble());
+    parameters.setDeerExponent(buffer.getDouble());
+    parameters.setDeerScanRange(buffer.getInt());
+    JungleWorld world = new JungleWorld(width, height, seed, parameters);
+    world.getRandom().setState(state);
+    world.tickCounter = tickCounter;
+    world.deersEaten = deersEaten;
+    world.setGradientMode(mode);
+    world.setBarnesHutTheta(theta);
+    world.setCutoff(buffer.getInt(), buffer.getInt());
+    world.setMeshCellSize(buffer.getInt());
+    world.skipIDsBelow(nextTigerID, nextDeerID);
+    readPopulation(world.tigers, buffer, channel);
+    readPopulation(world.deer, buffer, channel);
+    return world;
+  }
+
+  /**
+   * Writes the living animals of a population, column by column
+   *
+   * @param population population to be written
+   * @param buffer     buffer the columns are copied to before being written
+   * @param channel    channel the population is written to
+   * @throws IOException if the channel cannot be written
+   */
+  private static void writePopulation(Population population, ByteBuffer buffer,
+      WritableByteChannel channel) throws IOException {
+    int size = population.size();
+    reserve(buffer, channel, 1 + 4);
+    buffer.put(population.species);
+    buffer.putInt(size);
+    writeColumn(population.x, size, buffer, channel);
+    writeColumn(population.y, size, buffer, channel);
+    writeColumn(population.id, size, buffer, channel);
+    writeColumn(population.timeAlive, size, buffer, channel);
+    writeColumn(population.deerEatenCount, size, buffer, channel);
+  }
+
+  /**
+   * Writes the first values of a float column
+   *
+   * @param column  column to be written
+   * @param size    number of values written
+   * @param buffer  buffer the values are copied to before being written
+   * @param channel channel the column is written to
+   * @throws IOException if the channel cannot be written
+   */
+  private static void writeColumn(FloatBuffer column, int size, ByteBuffer buffer,
+      WritableByteChannel channel) throws IOException {
+    int i = 0;
+    while (i < size) {
+      reserve(buffer, channel, 4);
+      int count = Math.min(size - i, buffer.remaining() / 4);
+      buffer.asFloatBuffer().put((FloatBuffer) column.duplicate().position(i).limit(i + count));
+      buffer.position(buffer.position() + 4 * count);
+      i += count;
+    }
+  }
+
+  /**
+   * Writes the first values of an int column
+   *
+   * @param column  column to be written
+   * @param size    number of values written
+   * @param buffer  buffer the values are copied to before being written
+   * @param channel channel the column is written to
+   * @throws IOException if the channel cannot be written
+   */
+  private static void writeColumn(IntBuffer column, int size, ByteBuffer buffer,
+      WritableByteChannel channel) throws IOException {
+    int i = 0;
+    while (i < size) {
+      reserve(buffer, channel, 4);
+      int count = Math.min(size - i, buffer.remaining() / 4);
+      buffer.asIntBuffer().put((IntBuffer) column.duplicate().position(i).limit(i + count));
+      buffer.position(buffer.position() + 4 * count);
+      i += count;
+    }
+  }
+
+  /**
+   * Reads the animals of a population, replacing its current ones
+   *
+   * @param population population to be read
+   * @param buffer     buffer the columns are read to before being copied
+   * @param channel    channel the population is read from
+   * @throws IOException if the channel cannot be read or does not hold the expected population
+   */
+  private static void readPopulation(Population population, ByteBuffer buffer,
+      ReadableByteChannel channel) throws IOException {
+    fill(buffer, channel, 1 + 4);
+    byte species = buffer.get();
+    int size = buffer.getInt();
+    if (species != population.species || size < 0) {
+      throw new IOException("Corrupted snapshot population");
+    }
+    population.clear();
+    population.reserve(size);
+    readColumn(population.x, size, buffer, channel);
+    readColumn(population.y, size, buffer, channel);
+    readColumn(population.id, size, buffer, channel);
+    readColumn(population.timeAlive, size, buffer, channel);
+    readColumn(population.deerEatenCount, size, buffer, channel);
+    for (int i = 0; i < size; ++i) {
+      population.alive.put(i, (byte) 1);
+    }
+    population.size = size;
+    population.resetPrevious();
+  }
+
+  /**
+   * Reads the first values of a float column
+   *
+   * @param column  column to be read
+   * @param size    number of values read
+   * @param buffer  buffer the values are read to before being copied
+   * @param channel channel the column is read from
+   * @throws IOException if the channel cannot be read
+   */
+  private static void readColumn(FloatBuffer column, int size, ByteBuffer buffer,
+      ReadableByteChannel channel) throws IOException {
+    int i = 0;
+    while (i < size) {
+      fill(buffer, channel, 4);
+      int count = Math.min(size - i, buffer.remaining() / 4);
+      column.position(i);
+      column.put((FloatBuffer) buffer.asFloatBuffer().limit(count));
+      column.clear();
+      buffer.position(buffer.position() + 4 * count);
+      i += count;
+    }
+  }
+
+  /**
+   * Reads the first values of an int column
+   *
+   * @param column  column to be read
+   * @param size    number of values read
+   * @param buffer  buffer the values are read to before being copied
+   * @param channel channel the column is read from
+   * @throws IOException if the channel cannot be read
+   */
+  private static void readColumn(IntBuffer column, int size, ByteBuffer buffer,
+      ReadableByteChannel channel) throws IOException {
+    int i = 0;
+    while (i < size) {
+      fill(buffer, channel, 4);
+      int count = Math.min(size - i, buffer.remaining() / 4);
+      column.position(i);
+      column.put((IntBuffer) buffer.asIntBuffer().limit(count));
+      column.clear();
+      buffer.position(buffer.position() + 4 * count);
+      i += count;
+    }
+  }
+
+  /**
+   * Writes the buffer to the channel if it has less than a given number of bytes left
+   *
+   * @param buffer  buffer being filled
+   * @param channel channel the buffer is written to
+   * @param bytes   number of bytes about to be put in the buffer
+   * @throws IOException if the channel cannot be written
+   */
+  private static void reserve(ByteBuffer buffer, WritableByteChannel channel, int bytes)
+      throws IOException {
+    if (buffer.remaining() < bytes) {
+      flush(buffer, channel);
+    }
+  }
+
+  /**
+   * Writes the contents of the buffer to the channel, and empties the buffer
+   *
+   * @param buffer  buffer being filled
+   * @param channel channel the buffer is written to
+   * @throws IOException if the channel cannot be written
+   */
+  private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Reads from the channel until the buffer holds at least a given number of bytes
+   *
+   * @param buffer  buffer being read, whose remaining bytes have not been consumed yet
+   * @param channel channel the buffer is read from
+   * @param bytes   number of bytes about to be read from the buffer
+   * @throws IOException if the channel cannot be read, or ends before the bytes were read
+   */
+  private static void fill(ByteBuffer buffer, ReadableByteChannel channel, int bytes)
+      throws IOException {
+    if (buffer.remaining() >= bytes) {
+      return;
+    }
+    buffer.compact();
+    while (buffer.position() < bytes) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException("Truncated snapshot");
+      }
+    }
+    buffer.flip();
+  }
+}